@@ -51,6 +51,7 @@ declare namespace County {
 
     type CVRImportState
         = 'NOT_ATTEMPTED'
+        | 'QUEUED'
         | 'IN_PROGRESS'
         | 'SUCCESSFUL'
         | 'FAILED';
@@ -41,6 +41,15 @@ const UploadingFile = () => {
     );
 };
 
+const QueuedFile = () => {
+    return (
+        <div className='pt-card'>
+            <Spinner className='pt-large' intent={ Intent.PRIMARY } />
+            <div>Waiting for other imports to finish...</div>
+        </div>
+    );
+};
+
 interface UploadingProps {
     countyState: County.AppState;
 }
@@ -49,6 +58,10 @@ const Uploading = (props: UploadingProps) => {
     const { countyState } = props;
     const { cvrExportCount, cvrExport, cvrImportStatus } = countyState;
 
+    if (cvrImportStatus.state === 'QUEUED') {
+        return <QueuedFile />;
+    }
+
     if (!cvrExportCount) {
         return <UploadingFile />;
     }
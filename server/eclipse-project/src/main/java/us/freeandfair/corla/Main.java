@@ -59,7 +59,9 @@ import us.freeandfair.corla.asm.CountyDashboardASM;
 import us.freeandfair.corla.asm.DoSDashboardASM;
 import us.freeandfair.corla.asm.PersistentASMState;
 import us.freeandfair.corla.auth.AuthenticationInterface;
+import us.freeandfair.corla.controller.LogSequencer;
 import us.freeandfair.corla.endpoint.CORSFilter;
+import us.freeandfair.corla.endpoint.CVRExportImport;
 import us.freeandfair.corla.endpoint.Endpoint;
 import us.freeandfair.corla.json.FreeAndFairNamingStrategy;
 import us.freeandfair.corla.json.InstantTypeAdapter;
@@ -603,6 +605,13 @@ public final class Main {
 
     // start the endpoints
     activateEndpoints();
+    
+    // resume any CVR imports interrupted by the last shutdown
+    CVRExportImport.resumeInterruptedImports();
+    
+    // chain any log entries left pending by the last shutdown, and keep
+    // chaining them as requests commit
+    LogSequencer.start();
   }
  
   
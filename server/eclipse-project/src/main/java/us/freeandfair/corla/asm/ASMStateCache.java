@@ -0,0 +1,269 @@
+/*
+ * Free & Fair Colorado RLA System
+ *
+ * @title ColoradoRLA
+ * @created Oct 18, 2026
+ * @copyright 2017 Colorado Department of State
+ * @license SPDX-License-Identifier: AGPL-3.0-or-later
+ * @creator agent <agent@local>
+ * @description A system to assist in conducting statewide risk-limiting audits.
+ */
+
+package us.freeandfair.corla.asm;
+
+import java.lang.reflect.Constructor;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.hibernate.Session;
+
+import us.freeandfair.corla.persistence.EntityChangeEvents;
+import us.freeandfair.corla.persistence.Persistence;
+import us.freeandfair.corla.persistence.PersistentEntity;
+
+/**
+ * A cache of the committed states of ASMs, by ASM class and identity, and
+ * of the constructors of ASM classes. A state enters the cache when it is
+ * read from the database or when a transaction that saves it commits, and
+ * a newer version of a state always replaces an older one; a transaction
+ * that rolls back never changes the cache. A transaction that has saved an
+ * ASM's state reads that state from the database for the rest of the
+ * transaction, so that it sees its own change. A cached state can still be
+ * older than the committed one, so an ASM initialized from the cache 
+ * carries the version of its state, and ASMUtilities.save() does not save
+ * it over a different version.
+ *
+ * @author agent <agent@local>
+ * @version 1.0.0
+ */
+final class ASMStateCache {
+  /**
+   * The committed states, keyed by ASM class name and identity.
+   */
+  private static final Map<String, CachedState> STATES = new ConcurrentHashMap<>();
+
+  /**
+   * The constructors of ASM classes.
+   */
+  private static final Map<Class<?>, Constructor<?>> CONSTRUCTORS =
+      new ConcurrentHashMap<>();
+
+  /**
+   * The keys of the states saved in the current thread's transaction.
+   */
+  private static final ThreadLocal<SavedStates> SAVED = new ThreadLocal<>();
+
+  static {
+    EntityChangeEvents.subscribe(PersistentASMState.class, ASMStateCache::committed);
+  }
+
+  /**
+   * Private constructor to prevent instantiation.
+   */
+  private ASMStateCache() {
+    // do nothing
+  }
+
+  /**
+   * Gets the constructor to use for the specified ASM class: its no-argument
+   * constructor or its constructor that takes a String identity, whichever
+   * is found first.
+   *
+   * @param the_class The class.
+   * @return the constructor, or null if there is none.
+   */
+  static Constructor<?> constructorFor(final Class<?> the_class) {
+    return CONSTRUCTORS.computeIfAbsent(the_class, ASMStateCache::findConstructor);
+  }
+
+  /**
+   * Gets the committed state of the specified ASM, with its version, if it
+   * is cached and has not been saved in the current transaction. A cached
+   * state may be older than the state the current transaction reads from
+   * the database, if a newer state was committed after it was cached.
+   *
+   * @param the_class The ASM class.
+   * @param the_identity The ASM identity.
+   * @return the state, or null if it must be read from the database.
+   */
+  static CachedState stateFor(final Class<?> the_class, final String the_identity) {
+    final String key = key(the_class.getName(), the_identity);
+    CachedState result = null;
+    if (!savedInTransaction(key)) {
+      result = STATES.get(key);
+    }
+    return result;
+  }
+
+  /**
+   * Records a state read from the database, unless it has been saved in the
+   * current transaction (in which case it may not be committed).
+   *
+   * @param the_state The state.
+   */
+  static void loaded(final PersistentASMState the_state) {
+    final String key = key(the_state.asmClass(), the_state.asmIdentity());
+    if (!savedInTransaction(key)) {
+      cache(key, the_state);
+    }
+  }
+
+  /**
+   * Records that a state has been saved in the current transaction.
+   *
+   * @param the_state The state.
+   */
+  static void saved(final PersistentASMState the_state) {
+    final Session session = Persistence.currentSession();
+    SavedStates saved = SAVED.get();
+    if (saved == null || saved.my_session != session) {
+      saved = new SavedStates(session);
+      SAVED.set(saved);
+    }
+    saved.my_keys.add(key(the_state.asmClass(), the_state.asmIdentity()));
+  }
+
+  /**
+   * Handles a committed change to a state.
+   *
+   * @param the_entity The state.
+   */
+  private static void committed(final PersistentEntity the_entity) {
+    final PersistentASMState state = (PersistentASMState) the_entity;
+    cache(key(state.asmClass(), state.asmIdentity()), state);
+  }
+
+  /**
+   * Caches a state, unless a newer version of it is already cached.
+   *
+   * @param the_key The key.
+   * @param the_state The state.
+   */
+  private static void cache(final String the_key, final PersistentASMState the_state) {
+    final ASMState state = PersistentASMState.asmStateFor(the_state);
+    if (state != null && the_state.version() != null) {
+      STATES.merge(the_key, new CachedState(the_state.version(), state),
+                   ASMStateCache::newer);
+    }
+  }
+
+  /**
+   * @param the_key A key.
+   * @return true if the state with the key has been saved in the current
+   * transaction, false otherwise.
+   */
+  private static boolean savedInTransaction(final String the_key) {
+    final SavedStates saved = SAVED.get();
+    return saved != null && Persistence.isSessionOpen() &&
+           saved.my_session == Persistence.currentSession() &&
+           saved.my_keys.contains(the_key);
+  }
+
+  /**
+   * @param the_first A cached state.
+   * @param the_second Another cached state.
+   * @return the one of the cached states with the newer version.
+   */
+  private static CachedState newer(final CachedState the_first,
+                                   final CachedState the_second) {
+    CachedState result = the_first;
+    if (the_second.my_version > the_first.my_version) {
+      result = the_second;
+    }
+    return result;
+  }
+
+  /**
+   * @param the_class_name The ASM class name.
+   * @param the_identity The ASM identity.
+   * @return the key for the ASM.
+   */
+  private static String key(final String the_class_name, final String the_identity) {
+    return the_class_name + "/" + the_identity;
+  }
+
+  /**
+   * Finds the constructor to use for the specified ASM class.
+   *
+   * @param the_class The class.
+   * @return the constructor, or null if there is none.
+   */
+  private static Constructor<?> findConstructor(final Class<?> the_class) {
+    Constructor<?> result = null;
+    for (final Constructor<?> c : the_class.getConstructors()) {
+      if (c.getParameterTypes().length == 0 ||
+          c.getParameterTypes().length == 1 &&
+          c.getParameterTypes()[0].equals(String.class)) {
+        result = c;
+        break;
+      }
+    }
+    return result;
+  }
+
+  /**
+   * A cached state.
+   */
+  static final class CachedState {
+    /**
+     * The version of the persistent state.
+     */
+    private final long my_version;
+
+    /**
+     * The state.
+     */
+    private final ASMState my_state;
+
+    /**
+     * Constructs a cached state.
+     *
+     * @param the_version The version.
+     * @param the_state The state.
+     */
+    CachedState(final long the_version, final ASMState the_state) {
+      my_version = the_version;
+      my_state = the_state;
+    }
+
+    /**
+     * @return the version.
+     */
+    long version() {
+      return my_version;
+    }
+
+    /**
+     * @return the state.
+     */
+    ASMState state() {
+      return my_state;
+    }
+  }
+
+  /**
+   * The keys of the states saved in a transaction.
+   */
+  private static final class SavedStates {
+    /**
+     * The session of the transaction.
+     */
+    private final Session my_session;
+
+    /**
+     * The keys.
+     */
+    private final Set<String> my_keys = new HashSet<>();
+
+    /**
+     * Constructs an empty set of saved states.
+     *
+     * @param the_session The session of the transaction.
+     */
+    SavedStates(final Session the_session) {
+      my_session = the_session;
+    }
+  }
+}
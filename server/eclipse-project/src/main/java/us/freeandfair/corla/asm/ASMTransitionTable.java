@@ -0,0 +1,270 @@
+/*
+ * Free & Fair Colorado RLA System
+ *
+ * @title ColoradoRLA
+ * @created Oct 18, 2026
+ * @copyright 2017 Colorado Department of State
+ * @license SPDX-License-Identifier: AGPL-3.0-or-later
+ * @creator agent <agent@local>
+ * @description A system to assist in conducting statewide risk-limiting audits.
+ */
+
+package us.freeandfair.corla.asm;
+
+import java.io.Serializable;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.EnumSet;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * The transition function of an ASM, compiled into a table indexed by state
+ * and event. An ASM's table is compiled once, when its class is loaded, and
+ * is immutable; for each state it holds the next state for each enabled
+ * event, along with the sets of enabled ASM and UI events, so looking up a
+ * transition or an enabled event set does not depend on the number of
+ * transitions.
+ *
+ * @param <S> The type of the ASM's states.
+ * @param <E> The type of the ASM's events.
+ * @author agent <agent@local>
+ * @version 1.0.0
+ */
+public final class ASMTransitionTable<S extends Enum<S> & ASMState,
+                                      E extends Enum<E> & ASMEvent>
+    implements Serializable {
+  /**
+   * The serialVersionUID.
+   */
+  private static final long serialVersionUID = 1L;
+
+  /**
+   * The row for a state that is not in the table.
+   */
+  private static final Row EMPTY_ROW =
+      new Row(Collections.emptyMap(), Collections.emptySet(), Collections.emptySet());
+
+  /**
+   * The states.
+   */
+  private final Set<ASMState> my_states;
+
+  /**
+   * The events.
+   */
+  private final Set<ASMEvent> my_events;
+
+  /**
+   * The transitions from which the table was compiled.
+   */
+  private final Set<ASMTransition> my_transitions;
+
+  /**
+   * The rows of the table, by start state.
+   */
+  private final Map<S, Row> my_rows;
+
+  /**
+   * Compiles a transition table.
+   *
+   * @param the_state_class The class of the states.
+   * @param the_event_class The class of the events.
+   * @param the_functions The transition function.
+   * @exception IllegalArgumentException if the transition function contains
+   * a transition with a state or event of the wrong class, or two transitions
+   * from the same state on the same event that end in different states.
+   */
+  public ASMTransitionTable(final Class<S> the_state_class,
+                            final Class<E> the_event_class,
+                            final ASMTransitionFunction... the_functions) {
+    my_states = Collections.unmodifiableSet(EnumSet.allOf(the_state_class));
+    my_events = Collections.unmodifiableSet(EnumSet.allOf(the_event_class));
+    my_transitions = Collections.unmodifiableSet(
+        AbstractStateMachine.transitionsFor(Arrays.asList(the_functions)));
+
+    final Map<S, Map<E, ASMState>> next_states =
+        nextStates(the_state_class, the_event_class, my_transitions);
+    final UIToASMEventRelation relation = new UIToASMEventRelation();
+    final Map<S, Row> rows = new EnumMap<>(the_state_class);
+    for (final Map.Entry<S, Map<E, ASMState>> entry : next_states.entrySet()) {
+      final Set<E> asm_events = EnumSet.noneOf(the_event_class);
+      asm_events.addAll(entry.getValue().keySet());
+      final Set<UIEvent> ui_events = EnumSet.noneOf(UIEvent.class);
+      for (final E event : asm_events) {
+        ui_events.addAll(relation.leftArrow(event));
+      }
+      rows.put(entry.getKey(), new Row(entry.getValue(), asm_events, ui_events));
+    }
+    my_rows = Collections.unmodifiableMap(rows);
+  }
+
+  /**
+   * @return the states.
+   */
+  public Set<ASMState> states() {
+    return my_states;
+  }
+
+  /**
+   * @return the events.
+   */
+  public Set<ASMEvent> events() {
+    return my_events;
+  }
+
+  /**
+   * @return the transitions from which this table was compiled.
+   */
+  public Set<ASMTransition> transitions() {
+    return my_transitions;
+  }
+
+  /**
+   * Gets the state that follows the specified state on the specified event.
+   *
+   * @param the_state The state.
+   * @param the_event The event.
+   * @return the next state, or null if the event is not enabled in the state.
+   */
+  public ASMState nextState(final ASMState the_state, final ASMEvent the_event) {
+    return row(the_state).my_next_states.get(the_event);
+  }
+
+  /**
+   * @param the_state The state.
+   * @return the ASM events enabled in the specified state.
+   */
+  public Set<ASMEvent> enabledASMEvents(final ASMState the_state) {
+    return row(the_state).my_asm_events;
+  }
+
+  /**
+   * @param the_state The state.
+   * @return the UI events corresponding to the ASM events enabled in the
+   * specified state.
+   */
+  public Set<UIEvent> enabledUIEvents(final ASMState the_state) {
+    return row(the_state).my_ui_events;
+  }
+
+  /**
+   * @param the_state The state.
+   * @return the row for the specified state.
+   */
+  private Row row(final ASMState the_state) {
+    Row result = my_rows.get(the_state);
+    if (result == null) {
+      result = EMPTY_ROW;
+    }
+    return result;
+  }
+
+  /**
+   * Computes the next states for each state and event from a set of
+   * transitions.
+   *
+   * @param the_state_class The class of the states.
+   * @param the_event_class The class of the events.
+   * @param the_transitions The transitions.
+   * @return the next states, by start state and event.
+   */
+  private static <S extends Enum<S> & ASMState, E extends Enum<E> & ASMEvent>
+      Map<S, Map<E, ASMState>> nextStates(final Class<S> the_state_class,
+                                          final Class<E> the_event_class,
+                                          final Set<ASMTransition> the_transitions) {
+    final Map<S, Map<E, ASMState>> result = new EnumMap<>(the_state_class);
+    for (final S state : the_state_class.getEnumConstants()) {
+      result.put(state, new EnumMap<>(the_event_class));
+    }
+    for (final ASMTransition t : the_transitions) {
+      for (final ASMState start : t.startStates()) {
+        for (final ASMEvent event : t.events()) {
+          addTransition(result.get(cast(the_state_class, start, t)),
+                        cast(the_event_class, event, t), t);
+        }
+      }
+    }
+    return result;
+  }
+
+  /**
+   * Adds a transition to a row of next states.
+   *
+   * @param the_next_states The row.
+   * @param the_event The event.
+   * @param the_transition The transition.
+   * @exception IllegalArgumentException if the row already has a different
+   * next state for the event.
+   */
+  private static <T> void addTransition(final Map<T, ASMState> the_next_states,
+                                        final T the_event,
+                                        final ASMTransition the_transition) {
+    final ASMState previous = the_next_states.put(the_event, the_transition.endState());
+    if (previous != null && !previous.equals(the_transition.endState())) {
+      throw new IllegalArgumentException("conflicting transitions on " + the_event +
+                                         ": " + the_transition);
+    }
+  }
+
+  /**
+   * Casts a state or event of a transition to its enumeration class.
+   *
+   * @param the_class The class.
+   * @param the_value The state or event.
+   * @param the_transition The transition.
+   * @return the cast state or event.
+   * @exception IllegalArgumentException if the state or event is not of the
+   * class.
+   */
+  private static <T> T cast(final Class<T> the_class, final Object the_value,
+                            final ASMTransition the_transition) {
+    if (!the_class.isInstance(the_value)) {
+      throw new IllegalArgumentException(the_value + " is not a " +
+                                         the_class.getSimpleName() + ": " +
+                                         the_transition);
+    }
+    return the_class.cast(the_value);
+  }
+
+  /**
+   * A row of the table.
+   */
+  private static final class Row implements Serializable {
+    /**
+     * The serialVersionUID.
+     */
+    private static final long serialVersionUID = 1L;
+
+    /**
+     * The next states, by event.
+     */
+    private final Map<?, ASMState> my_next_states;
+
+    /**
+     * The enabled ASM events.
+     */
+    private final Set<ASMEvent> my_asm_events;
+
+    /**
+     * The enabled UI events.
+     */
+    private final Set<UIEvent> my_ui_events;
+
+    /**
+     * Constructs a row.
+     *
+     * @param the_next_states The next states, by event.
+     * @param the_asm_events The enabled ASM events.
+     * @param the_ui_events The enabled UI events.
+     */
+    Row(final Map<?, ASMState> the_next_states,
+        final Set<? extends ASMEvent> the_asm_events,
+        final Set<UIEvent> the_ui_events) {
+      my_next_states = Collections.unmodifiableMap(the_next_states);
+      my_asm_events = Collections.unmodifiableSet(the_asm_events);
+      my_ui_events = Collections.unmodifiableSet(the_ui_events);
+    }
+  }
+}
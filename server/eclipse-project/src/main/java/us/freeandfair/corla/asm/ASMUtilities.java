@@ -36,7 +36,11 @@ public final class ASMUtilities {
   
   /**
    * Gets the ASM for the specified ASM class and identity, initialized to its
-   * state on the database.
+   * state on the database. The state is read from the database only if it
+   * is not cached; see ASMStateCache. A cached state may be stale, so an
+   * ASM obtained this way cannot be saved if a newer state has since been
+   * saved; an ASM that is to be stepped and saved should be obtained with
+   * uncachedASMFor().
    * 
    * @param the_class The class.
    * @param the_identity The identity.
@@ -44,24 +48,46 @@ public final class ASMUtilities {
    */
   public static <T extends AbstractStateMachine> T asmFor(final Class<T> the_class, 
                                                           final String the_identity) {
+    return asmFor(the_class, the_identity, true);
+  }
+  
+  /**
+   * Gets the ASM for the specified ASM class and identity, initialized to its
+   * state on the database as read in the current transaction.
+   * 
+   * @param the_class The class.
+   * @param the_identity The identity.
+   * @return the ASM, or null if the ASM cannot be instantiated.
+   */
+  public static <T extends AbstractStateMachine> T 
+      uncachedASMFor(final Class<T> the_class, final String the_identity) {
+    return asmFor(the_class, the_identity, false);
+  }
+  
+  /**
+   * Gets the ASM for the specified ASM class and identity, initialized to its
+   * state on the database, either from the cache or as read in the current
+   * transaction.
+   * 
+   * @param the_class The class.
+   * @param the_identity The identity.
+   * @param the_use_cache true to use a cached state if there is one, false
+   * to read the state from the database.
+   * @return the ASM, or null if the ASM cannot be instantiated.
+   */
+  private static <T extends AbstractStateMachine> T asmFor(final Class<T> the_class, 
+                                                           final String the_identity,
+                                                           final boolean the_use_cache) {
     T result = null;
     
     try {
-      // first, check for a no-argument constructor
-      final Constructor<?>[] constructors = the_class.getConstructors();
-      for (final Constructor<?> c : constructors) {
-        @SuppressWarnings("unchecked") // this cast is safe because of the call above
-        final Constructor<T> constructor = (Constructor<T>) c;
-        if (constructor.getParameterTypes().length == 0) {
-          // default constructor
-          result = constructor.newInstance();
-          break;
-        } else if (constructor.getParameterTypes().length == 1 &&
-                   constructor.getParameterTypes()[0].equals(String.class)) {
-          // 1-argument constructor that takes a String
-          result = constructor.newInstance(the_identity);
-          break;
-        }
+      // the constructor is either a no-argument constructor or a
+      // 1-argument constructor that takes a String
+      final Constructor<?> constructor = ASMStateCache.constructorFor(the_class);
+      if (constructor != null && constructor.getParameterTypes().length == 0) {
+        result = the_class.cast(constructor.newInstance());
+      } else if (constructor != null) {
+        result = the_class.cast(constructor.newInstance(the_identity));
       }
     } catch (final IllegalAccessException | InstantiationException | 
                    InvocationTargetException e) {
@@ -69,21 +95,35 @@ public final class ASMUtilities {
                         " with identity " + the_identity);
     }
     
-    final PersistentASMState asm_state = 
-        PersistentASMStateQueries.get(the_class, the_identity);
-    
-    if (asm_state == null) {
-      Main.LOGGER.error("Unable to retrieve ASM state for class " + the_class + 
-                        " with identity " + the_identity);
+    ASMStateCache.CachedState cached_state = null;
+    if (the_use_cache) {
+      cached_state = ASMStateCache.stateFor(the_class, the_identity);
+    }
+    if (cached_state == null) {
+      final PersistentASMState asm_state = 
+          PersistentASMStateQueries.get(the_class, the_identity);
+      
+      if (asm_state == null) {
+        Main.LOGGER.error("Unable to retrieve ASM state for class " + the_class + 
+                          " with identity " + the_identity);
+      } else {
+        ASMStateCache.loaded(asm_state);
+        if (result != null) {
+          asm_state.applyTo(result);
+        }
+      }
     } else if (result != null) {
-      asm_state.applyTo(result);
-    } 
+      result.setCurrentState(cached_state.state());
+      result.setCachedVersion(cached_state.version());
+    }
     
     return result;
   }
   
   /**
-   * Saves the state of the specified ASM to the database.
+   * Saves the state of the specified ASM to the database. If the ASM was 
+   * initialized from a cached state, and the state on the database is not 
+   * the version it was initialized from, the ASM is stale and is not saved.
    * 
    * @param the_asm The ASM.
    * @return true if the save was successful, false otherwise
@@ -96,10 +136,14 @@ public final class ASMUtilities {
     
     if (asm_state == null) {
       Main.LOGGER.error("Unable to retrieve ASM state for " + the_asm);
+    } else if (!isCurrent(the_asm, asm_state)) {
+      Main.LOGGER.error("Not saving stale state for ASM " + the_asm + ", initialized " +
+                        "from version " + the_asm.cachedVersion() + " of " + asm_state);
     } else {
       asm_state.updateFrom(the_asm);
       try {
         Persistence.saveOrUpdate(asm_state);
+        ASMStateCache.saved(asm_state);
         result = true;
       } catch (final PersistenceException e) {
         Main.LOGGER.error("Could not save state for ASM " + the_asm);
@@ -109,6 +153,22 @@ public final class ASMUtilities {
     return result;
   }
   
+  /**
+   * Checks whether the specified ASM was initialized from the specified 
+   * persistent state, as read in the current transaction.
+   * 
+   * @param the_asm The ASM.
+   * @param the_state The persistent state.
+   * @return true if the ASM was initialized from the database in the current
+   * transaction, or from a cached state with the same version as the 
+   * persistent state; false otherwise.
+   */
+  static boolean isCurrent(final AbstractStateMachine the_asm,
+                           final PersistentASMState the_state) {
+    return the_asm.cachedVersion() == null || 
+           the_asm.cachedVersion().equals(the_state.version());
+  }
+  
   /**
    * Attempts to step with the specified event on the ASM of the specified
    * class and identity, and persist the resulting state.
@@ -124,7 +184,7 @@ public final class ASMUtilities {
                              final Class<? extends AbstractStateMachine> the_asm_class, 
                              final String the_asm_identity) {
     boolean result = false;
-    final AbstractStateMachine asm = asmFor(the_asm_class, the_asm_identity);
+    final AbstractStateMachine asm = uncachedASMFor(the_asm_class, the_asm_identity);
     
     if (asm != null) {
       asm.stepEvent(the_event);
@@ -11,9 +11,6 @@
 
 package us.freeandfair.corla.asm;
 
-import java.util.Arrays;
-import java.util.HashSet;
-
 import javax.persistence.DiscriminatorValue;
 import javax.persistence.Entity;
 
@@ -36,6 +33,15 @@ public class AuditBoardDashboardASM extends AbstractStateMachine {
    */
   private static final long serialVersionUID = 1; 
 
+  /**
+   * The transition table of this ASM.
+   */
+  private static final ASMTransitionTable<AuditBoardDashboardState, AuditBoardDashboardEvent>
+      TRANSITION_TABLE =
+          new ASMTransitionTable<>(AuditBoardDashboardState.class,
+                                   AuditBoardDashboardEvent.class,
+                                   AuditBoardDashboardTransitionFunction.values());
+
   /**
    * The final states of this ASM.
    */
@@ -52,10 +58,7 @@ public class AuditBoardDashboardASM extends AbstractStateMachine {
    */
   //@ requires the_county_id != null;
   public AuditBoardDashboardASM(final String the_county_id) {
-    super(new HashSet<ASMState>(Arrays.asList(AuditBoardDashboardState.values())),
-          new HashSet<ASMEvent>(Arrays.asList(AuditBoardDashboardEvent.values())),
-          transitionsFor(Arrays.
-                         asList(AuditBoardDashboardTransitionFunction.values())),
+    super(TRANSITION_TABLE,
           AuditBoardDashboardState.AUDIT_INITIAL_STATE,
           SetCreator.setOf(FINAL_STATES),
           the_county_id);
@@ -11,9 +11,6 @@
 
 package us.freeandfair.corla.asm;
 
-import java.util.Arrays;
-import java.util.HashSet;
-
 import javax.persistence.DiscriminatorValue;
 import javax.persistence.Entity;
 
@@ -36,6 +33,15 @@ public class CountyDashboardASM extends AbstractStateMachine {
    */
   private static final long serialVersionUID = 1;
 
+  /**
+   * The transition table of this ASM.
+   */
+  private static final ASMTransitionTable<CountyDashboardState, CountyDashboardEvent>
+      TRANSITION_TABLE =
+          new ASMTransitionTable<>(CountyDashboardState.class,
+                                   CountyDashboardEvent.class,
+                                   CountyDashboardTransitionFunction.values());
+
   /**
    * The final states of this ASM.
    */
@@ -51,10 +57,7 @@ public class CountyDashboardASM extends AbstractStateMachine {
    */
   //@ requires the_county_id != null
   public CountyDashboardASM(final String the_county_id) {
-    super(new HashSet<ASMState>(Arrays.asList(CountyDashboardState.values())),
-          new HashSet<ASMEvent>(Arrays.asList(CountyDashboardEvent.values())),
-          transitionsFor(Arrays.
-                         asList(CountyDashboardTransitionFunction.values())),
+    super(TRANSITION_TABLE,
           CountyDashboardState.COUNTY_INITIAL_STATE,
           SetCreator.setOf(FINAL_STATES),
           the_county_id);
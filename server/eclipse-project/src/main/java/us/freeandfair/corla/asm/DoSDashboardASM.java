@@ -11,9 +11,6 @@
 
 package us.freeandfair.corla.asm;
 
-import java.util.Arrays;
-import java.util.HashSet;
-
 import javax.persistence.DiscriminatorValue;
 import javax.persistence.Entity;
 
@@ -41,6 +38,15 @@ public class DoSDashboardASM extends AbstractStateMachine {
    */
   private static final long serialVersionUID = 1; 
 
+  /**
+   * The transition table of this ASM.
+   */
+  private static final ASMTransitionTable<DoSDashboardState, DoSDashboardEvent>
+      TRANSITION_TABLE =
+          new ASMTransitionTable<>(DoSDashboardState.class,
+                                   DoSDashboardEvent.class,
+                                   DoSDashboardTransitionFunction.values());
+
   /**
    * The final states of this ASM.
    */
@@ -52,10 +58,7 @@ public class DoSDashboardASM extends AbstractStateMachine {
    * @trace asm.dos_asm 
    */
   public DoSDashboardASM() {
-    super(new HashSet<ASMState>(Arrays.asList(DoSDashboardState.values())),
-          new HashSet<ASMEvent>(Arrays.asList(DoSDashboardEvent.values())),
-          transitionsFor(Arrays.
-                         asList(DoSDashboardTransitionFunction.values())),
+    super(TRANSITION_TABLE,
           DoSDashboardState.DOS_INITIAL_STATE,
           SetCreator.setOf(FINAL_STATES),
           IDENTITY); // there is only one DoS dashboard
@@ -0,0 +1,160 @@
+/*
+ * Free & Fair Colorado RLA System
+ * 
+ * @title ColoradoRLA
+ * @created Oct 18, 2026
+ * @copyright 2017 Colorado Department of State
+ * @license SPDX-License-Identifier: AGPL-3.0-or-later
+ * @creator agent <agent@local>
+ * @description A system to assist in conducting statewide risk-limiting audits.
+ */
+
+package us.freeandfair.corla.controller;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.OptionalLong;
+import java.util.Set;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.stream.IntStream;
+
+import javax.persistence.PersistenceException;
+
+import us.freeandfair.corla.Main;
+import us.freeandfair.corla.crypto.PseudoRandomNumberGenerator;
+import us.freeandfair.corla.model.AuditReason;
+import us.freeandfair.corla.model.CastVoteRecord.RecordType;
+import us.freeandfair.corla.model.Contest;
+import us.freeandfair.corla.model.CountyContestComparisonAudit;
+import us.freeandfair.corla.model.CountyContestResult;
+import us.freeandfair.corla.model.CountyDashboard;
+import us.freeandfair.corla.model.DoSDashboard;
+import us.freeandfair.corla.persistence.Persistence;
+import us.freeandfair.corla.query.CastVoteRecordQueries;
+import us.freeandfair.corla.query.CountyContestResultQueries;
+
+/**
+ * Controller methods for generating county audit sequences ahead of time.
+ * 
+ * @author agent <agent@local>
+ * @version 1.0.0
+ */
+public final class AuditSequenceController {
+  /**
+   * Private constructor to prevent instantiation.
+   */
+  private AuditSequenceController() {
+    // empty
+  }
+  
+  /**
+   * Precomputes the initial audit sequences for the specified county 
+   * dashboards, so that starting their audit rounds does not require 
+   * generating the sequences serially. The database is queried on the 
+   * calling thread, and the sequences are then generated in parallel on 
+   * the common fork-join pool. Dashboards without uploaded CVRs are ignored, 
+   * as is everything if the random seed has not been set.
+   * 
+   * @param the_cdbs The county dashboards.
+   * @return the task generating the sequences; it can be joined to wait for 
+   * the sequences to be available.
+   */
+  public static ForkJoinTask<?> 
+      precomputeAuditSequences(final List<CountyDashboard> the_cdbs) {
+    final DoSDashboard dosdb = Persistence.getByID(DoSDashboard.ID, DoSDashboard.class);
+    final String seed = dosdb.auditInfo().seed();
+    final List<PseudoRandomNumberGenerator> generators = new ArrayList<>();
+    final List<Integer> lengths = new ArrayList<>();
+    
+    if (seed != null && dosdb.auditInfo().riskLimit() != null) {
+      for (final CountyDashboard cdb : the_cdbs) {
+        if (cdb.cvrFile() != null) {
+          final OptionalLong count = 
+              CastVoteRecordQueries.countMatching(cdb.id(), RecordType.UPLOADED);
+          final int length = initialSamplesToAudit(cdb, dosdb);
+          if (count.isPresent() && 1 < count.getAsLong() && 0 < length) {
+            generators.add(ComparisonAuditController.
+                           auditSequenceGenerator(seed, count.getAsLong()));
+            lengths.add(length);
+          }
+        }
+      }
+    }
+    
+    Main.LOGGER.info("precomputing audit sequences for " + generators.size() + 
+                     " counties");
+    return ForkJoinPool.commonPool().submit(() -> 
+        IntStream.range(0, generators.size()).parallel().forEach(i -> 
+            generators.get(i).getRandomNumbers(0, lengths.get(i) - 1)));
+  }
+  
+  /**
+   * Arranges for the initial audit sequences of all the county dashboards to 
+   * be precomputed once the active transaction commits. The precomputation 
+   * reads the dashboards in its own transaction on the common fork-join 
+   * pool, so it sees the committed state, and a transaction that is rolled 
+   * back does not start it at all.
+   * 
+   * @exception IllegalStateException if no transaction is running.
+   */
+  public static void precomputeAuditSequencesAfterCommit() {
+    Persistence.afterCommit(AuditSequenceController::submitPrecomputation);
+  }
+  
+  /**
+   * Submits the precomputation of the initial audit sequences of all the 
+   * county dashboards to the common fork-join pool.
+   */
+  private static void submitPrecomputation() {
+    ForkJoinPool.commonPool().execute(AuditSequenceController::precomputeAll);
+  }
+  
+  /**
+   * Precomputes the initial audit sequences of all the county dashboards, 
+   * reading them in a new transaction.
+   */
+  private static void precomputeAll() {
+    try {
+      Persistence.beginTransaction();
+      final ForkJoinTask<?> task;
+      try {
+        task = precomputeAuditSequences(Persistence.getAll(CountyDashboard.class));
+      } finally {
+        // the precomputation only reads
+        Persistence.rollbackTransaction();
+      }
+      task.join();
+    } catch (final PersistenceException e) {
+      Main.LOGGER.error("could not precompute audit sequences: " + e);
+    }
+  }
+  
+  /**
+   * Computes the initial number of samples to audit for the specified county
+   * dashboard, without starting its audit; this is the largest initial 
+   * estimate among the county's contests that are driving contests.
+   * 
+   * @param the_cdb The dashboard.
+   * @param the_dosdb The Department of State dashboard.
+   * @return the initial number of samples to audit, or 0 if the county has 
+   * no driving contests.
+   */
+  private static int initialSamplesToAudit(final CountyDashboard the_cdb,
+                                           final DoSDashboard the_dosdb) {
+    final Set<Contest> all_driving_contests = the_dosdb.drivingContests();
+    int result = 0;
+    for (final CountyContestResult ccr : 
+         CountyContestResultQueries.forCounty(the_cdb.county())) {
+      if (all_driving_contests.contains(ccr.contest())) {
+        // this audit is only used for the estimate, and is never persisted
+        final CountyContestComparisonAudit audit = 
+            new CountyContestComparisonAudit(the_cdb, ccr, 
+                                             the_dosdb.auditInfo().riskLimit(), 
+                                             AuditReason.OPPORTUNISTIC_BENEFITS);
+        result = Math.max(result, audit.initialSamplesToAudit());
+      }
+    }
+    return result;
+  }
+}
@@ -0,0 +1,225 @@
+/*
+ * Free & Fair Colorado RLA System
+ *
+ * @title ColoradoRLA
+ * @created Oct 18, 2026
+ * @copyright 2017 Colorado Department of State
+ * @license SPDX-License-Identifier: AGPL-3.0-or-later
+ * @creator agent <agent@local>
+ * @description A system to assist in conducting statewide risk-limiting audits.
+ */
+
+package us.freeandfair.corla.controller;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.OptionalLong;
+import java.util.Set;
+
+import javax.persistence.PersistenceException;
+
+import us.freeandfair.corla.json.CVRToAuditResponse;
+import us.freeandfair.corla.json.CVRToAuditResponse.BallotOrderComparator;
+import us.freeandfair.corla.model.BallotLocator;
+import us.freeandfair.corla.model.CastVoteRecord.RecordType;
+import us.freeandfair.corla.model.CountyDashboard;
+import us.freeandfair.corla.query.BallotLocationIndex;
+import us.freeandfair.corla.query.CVRAuditInfoQueries;
+import us.freeandfair.corla.query.CVRSequenceIndex;
+import us.freeandfair.corla.query.CastVoteRecordQueries;
+
+/**
+ * Produces the ballot lists for audit boards in chunks, reading only the
+ * ballot locators of the CVRs in each chunk. The lists contain
+ * the same ballots, in the same ballot order, as those computed by the
+ * ComparisonAuditController's computeBallotOrder() and ballotsToAudit()
+ * methods.
+ *
+ * A round's ballot sequence is already deduplicated and in ballot order,
+ * so the rows for a round are written as each chunk is loaded. A list
+ * taken from the audit sequence is selected using only CVR IDs, but must
+ * be sorted before it is written, so its rows are kept until the end.
+ *
+ * @author agent <agent@local>
+ * @version 1.0.0
+ */
+public final class BallotListStreamer {
+  /**
+   * The number of CVRs to load at a time.
+   */
+  private static final int CHUNK_SIZE = 500;
+
+  /**
+   * Private constructor to prevent instantiation.
+   */
+  private BallotListStreamer() {
+    // do nothing
+  }
+
+  /**
+   * Writes the ballots to audit in the specified round, in ballot order.
+   * Nothing is written if the round number is invalid.
+   *
+   * @param the_cdb The dashboard.
+   * @param the_round The round number (indexed from 1).
+   * @param the_writer The row writer.
+   * @exception IOException if a row cannot be written.
+   * @exception PersistenceException if the CVRs cannot be loaded.
+   */
+  public static void streamRound(final CountyDashboard the_cdb, final int the_round,
+                                 final RowWriter the_writer) throws IOException {
+    if (0 < the_round && the_round <= the_cdb.rounds().size()) {
+      final List<Long> ids = the_cdb.rounds().get(the_round - 1).ballotSequence();
+      for (int start = 0; start < ids.size(); start = start + CHUNK_SIZE) {
+        final List<Long> chunk = ids.subList(start, Math.min(ids.size(), start + CHUNK_SIZE));
+        for (final CVRToAuditResponse row : rows(the_cdb, chunk, start)) {
+          the_writer.write(row);
+        }
+      }
+    }
+  }
+
+  /**
+   * Writes the specified number of ballots from the audit sequence, with
+   * or without duplicates, in ballot order.
+   *
+   * @param the_cdb The dashboard.
+   * @param the_start_index The start index.
+   * @param the_ballot_count The number of ballots.
+   * @param the_duplicates true to include duplicates, false otherwise.
+   * @param the_audited true to include already-audited ballots, false otherwise.
+   * @param the_writer The row writer.
+   * @exception IOException if a row cannot be written.
+   * @exception PersistenceException if the CVRs cannot be loaded.
+   */
+  public static void streamSequence(final CountyDashboard the_cdb,
+                                    final int the_start_index, final int the_ballot_count,
+                                    final boolean the_duplicates, final boolean the_audited,
+                                    final RowWriter the_writer) throws IOException {
+    final List<Long> ids = selectFromSequence(the_cdb, the_start_index, the_ballot_count,
+                                              the_duplicates, the_audited);
+    final List<CVRToAuditResponse> rows = new ArrayList<>(ids.size());
+    for (int start = 0; start < ids.size(); start = start + CHUNK_SIZE) {
+      rows.addAll(rows(the_cdb, ids.subList(start, Math.min(ids.size(), start + CHUNK_SIZE)),
+                       start));
+    }
+    rows.sort(new BallotOrderComparator());
+    for (final CVRToAuditResponse row : rows) {
+      the_writer.write(row);
+    }
+  }
+
+  /**
+   * Selects the IDs of the CVRs in a ballot list from the audit sequence,
+   * as ComparisonAuditController.computeBallotOrder() selects the CVRs.
+   *
+   * @param the_cdb The dashboard.
+   * @param the_start_index The start index.
+   * @param the_ballot_count The number of ballots.
+   * @param the_duplicates true to include duplicates, false otherwise.
+   * @param the_audited true to include already-audited ballots, false otherwise.
+   * @return the selected IDs, in audit sequence order.
+   */
+  @SuppressWarnings("PMD.UselessParentheses")
+  private static List<Long> selectFromSequence(final CountyDashboard the_cdb,
+                                               final int the_start_index,
+                                               final int the_ballot_count,
+                                               final boolean the_duplicates,
+                                               final boolean the_audited) {
+    final List<Long> result = new ArrayList<>();
+    final OptionalLong county_ballots =
+        CastVoteRecordQueries.countMatching(the_cdb.id(), RecordType.UPLOADED);
+    if (county_ballots.isPresent() && 0 < county_ballots.getAsLong()) {
+      final long possible_ballots = Math.min(the_ballot_count, county_ballots.getAsLong());
+      final Set<Long> seen = new HashSet<>();
+      final Set<Long> audited = new HashSet<>();
+      int start = the_start_index;
+      int end = start + the_ballot_count - 1; // end is inclusive
+
+      while ((the_duplicates && result.size() < the_ballot_count) ||
+             (!the_duplicates && seen.size() < possible_ballots)) {
+        for (int chunk_start = start; chunk_start <= end;
+             chunk_start = chunk_start + CHUNK_SIZE) {
+          final int chunk_end = Math.min(end, chunk_start + CHUNK_SIZE - 1);
+          final List<Integer> sequence_numbers =
+              ComparisonAuditController.getCVRSeqNumsInAuditSequence(the_cdb.county(),
+                                                                      chunk_start, chunk_end);
+          final List<Long> ids = CVRSequenceIndex.idsFor(the_cdb, sequence_numbers);
+          final Set<Long> new_ids = new HashSet<>(ids);
+          new_ids.removeAll(seen);
+          audited.addAll(CVRAuditInfoQueries.auditedIDs(new_ids));
+          for (final Long id : ids) {
+            if ((the_duplicates || !seen.contains(id)) &&
+                (the_audited || !audited.contains(id))) {
+              result.add(id);
+            }
+            seen.add(id);
+          }
+        }
+        start = end + 1; // end is inclusive
+        end = start + (the_ballot_count - result.size()) - 1; // end is inclusive
+      }
+    }
+    return result;
+  }
+
+  /**
+   * Creates the ballot list rows for a chunk of CVR IDs.
+   *
+   * @param the_cdb The dashboard.
+   * @param the_ids The CVR IDs.
+   * @param the_first_index The list index of the first ID.
+   * @return the rows, in the same order as the IDs.
+   * @exception PersistenceException if the ballot locators cannot be loaded.
+   */
+  private static List<CVRToAuditResponse> rows(final CountyDashboard the_cdb,
+                                               final List<Long> the_ids,
+                                               final int the_first_index) {
+    final Set<Long> distinct_ids = new HashSet<>(the_ids);
+    final List<BallotLocator> loaded =
+        CastVoteRecordQueries.getLocators(new ArrayList<>(distinct_ids));
+    if (loaded == null) {
+      throw new PersistenceException("could not load CVRs for ballot list");
+    }
+    final Map<Long, BallotLocator> ballots_by_id = new HashMap<>();
+    for (final BallotLocator ballot : loaded) {
+      ballots_by_id.put(ballot.id(), ballot);
+    }
+    final List<BallotLocator> ballots = new ArrayList<>(the_ids.size());
+    for (final Long id : the_ids) {
+      ballots.add(ballots_by_id.get(id));
+    }
+    final Set<Long> audited = CVRAuditInfoQueries.auditedIDs(distinct_ids);
+    final List<String> locations = BallotLocationIndex.locationsFor(the_cdb, ballots);
+
+    final List<CVRToAuditResponse> result = new ArrayList<>(ballots.size());
+    for (int i = 0; i < ballots.size(); i++) {
+      final BallotLocator ballot = ballots.get(i);
+      result.add(new CVRToAuditResponse(the_first_index + i, ballot.scannerID(),
+                                        ballot.batchID(), ballot.recordID(),
+                                        ballot.imprintedID(),
+                                        ballot.cvrNumber(), ballot.id(),
+                                        ballot.ballotType(), locations.get(i),
+                                        audited.contains(ballot.id())));
+    }
+    return result;
+  }
+
+  /**
+   * A consumer of ballot list rows.
+   */
+  @FunctionalInterface
+  public interface RowWriter {
+    /**
+     * Writes a row.
+     *
+     * @param the_row The row.
+     * @exception IOException if the row cannot be written.
+     */
+    void write(CVRToAuditResponse the_row) throws IOException;
+  }
+}
@@ -0,0 +1,217 @@
+/*
+ * Free & Fair Colorado RLA System
+ *
+ * @title ColoradoRLA
+ * @created Oct 18, 2026
+ * @copyright 2017 Colorado Department of State
+ * @license SPDX-License-Identifier: AGPL-3.0-or-later
+ * @creator agent <agent@local>
+ * @description A system to assist in conducting statewide risk-limiting audits.
+ */
+
+package us.freeandfair.corla.controller;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.PriorityBlockingQueue;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import us.freeandfair.corla.Main;
+
+/**
+ * Schedules CVR imports on a bounded pool of worker threads. Each running
+ * import holds one database session for its whole duration, so the size of
+ * the pool is also the number of imports that write to the database at
+ * once; this keeps a burst of uploads from exhausting the connection pool.
+ * Waiting imports are started smallest file first, and in submission order
+ * among files of the same size.
+ *
+ * @author agent <agent@local>
+ * @version 1.0.0
+ */
+@SuppressWarnings("PMD.DoNotUseThreads")
+public final class CVRImportScheduler {
+  /**
+   * The name of the property that sets the number of concurrent imports.
+   */
+  public static final String MAX_IMPORTS_PROPERTY = "cvr_import_max_concurrent";
+
+  /**
+   * The default number of concurrent imports.
+   */
+  private static final int DEFAULT_MAX_IMPORTS = 4;
+
+  /**
+   * The number of seconds an idle worker thread waits for work before
+   * terminating.
+   */
+  private static final long KEEP_ALIVE_SECONDS = 60;
+
+  /**
+   * The counter used to order imports of the same size, and to name threads.
+   */
+  private static final AtomicLong COUNTER = new AtomicLong();
+
+  /**
+   * The queue of waiting imports.
+   */
+  private static final PriorityBlockingQueue<Runnable> QUEUE =
+      new PriorityBlockingQueue<>();
+
+  /**
+   * The executor, created on first use.
+   */
+  private static ThreadPoolExecutor executor;
+
+  /**
+   * Private constructor to prevent instantiation.
+   */
+  private CVRImportScheduler() {
+    // empty
+  }
+
+  /**
+   * Schedules an import.
+   *
+   * @param the_county_id The ID of the county whose file is being imported.
+   * @param the_size The size of the file, in bytes.
+   * @param the_import The import.
+   */
+  public static void schedule(final Long the_county_id, final long the_size,
+                              final Runnable the_import) {
+    executor().execute(new ScheduledImport(the_county_id, the_size,
+                                           COUNTER.getAndIncrement(), the_import));
+    DoSDashboardReadModel.invalidate();
+  }
+
+  /**
+   * @return the IDs of the counties whose imports are waiting to start, in
+   * the order in which they will start.
+   */
+  public static List<Long> queuedCounties() {
+    final Object[] waiting = QUEUE.toArray();
+    Arrays.sort(waiting);
+    final List<Long> result = new ArrayList<>(waiting.length);
+    for (final Object o : waiting) {
+      result.add(((ScheduledImport) o).my_county_id);
+    }
+    return result;
+  }
+
+  /**
+   * @return the executor, creating it if necessary.
+   */
+  private static synchronized ThreadPoolExecutor executor() {
+    if (executor == null) {
+      int threads;
+      try {
+        threads = Integer.parseInt(Main.properties().
+                                   getProperty(MAX_IMPORTS_PROPERTY,
+                                               String.valueOf(DEFAULT_MAX_IMPORTS)));
+      } catch (final NumberFormatException e) {
+        threads = DEFAULT_MAX_IMPORTS;
+      }
+      threads = Math.max(1, threads);
+      final ThreadFactory factory =
+          the_runnable -> new Thread(the_runnable,
+                                     "cvr-import-" + COUNTER.getAndIncrement());
+      executor = new ThreadPoolExecutor(threads, threads,
+                                        KEEP_ALIVE_SECONDS, TimeUnit.SECONDS,
+                                        QUEUE, factory);
+      executor.allowCoreThreadTimeOut(true);
+      Main.LOGGER.info("scheduling CVR imports with " + threads + " workers");
+    }
+    return executor;
+  }
+
+  /**
+   * An import waiting in the queue.
+   */
+  private static final class ScheduledImport
+      implements Runnable, Comparable<ScheduledImport> {
+    /**
+     * The county ID.
+     */
+    private final Long my_county_id;
+
+    /**
+     * The file size.
+     */
+    private final long my_size;
+
+    /**
+     * The submission order.
+     */
+    private final long my_order;
+
+    /**
+     * The import.
+     */
+    private final Runnable my_import;
+
+    /**
+     * Constructs a new scheduled import.
+     *
+     * @param the_county_id The county ID.
+     * @param the_size The file size.
+     * @param the_order The submission order.
+     * @param the_import The import.
+     */
+    ScheduledImport(final Long the_county_id, final long the_size,
+                    final long the_order, final Runnable the_import) {
+      my_county_id = the_county_id;
+      my_size = the_size;
+      my_order = the_order;
+      my_import = the_import;
+    }
+
+    /**
+     * Runs the import.
+     */
+    @Override
+    public void run() {
+      Main.LOGGER.info("starting scheduled CVR import for county " + my_county_id);
+      // this import has left the queue
+      DoSDashboardReadModel.invalidate();
+      my_import.run();
+    }
+
+    /**
+     * Orders imports by file size, then by submission order.
+     *
+     * @param the_other The other import.
+     * @return a negative, zero, or positive value as this import should
+     * start before, with, or after the other.
+     */
+    @Override
+    public int compareTo(final ScheduledImport the_other) {
+      int result = Long.compare(my_size, the_other.my_size);
+      if (result == 0) {
+        result = Long.compare(my_order, the_other.my_order);
+      }
+      return result;
+    }
+
+    /**
+     * @return true if the other object is a scheduled import with the same
+     * submission order, false otherwise.
+     */
+    @Override
+    public boolean equals(final Object the_other) {
+      return the_other instanceof ScheduledImport &&
+             ((ScheduledImport) the_other).my_order == my_order;
+    }
+
+    /**
+     * @return a hash code for this object.
+     */
+    @Override
+    public int hashCode() {
+      return Long.hashCode(my_order);
+    }
+  }
+}
@@ -27,7 +27,7 @@ import java.util.TreeSet;
 import us.freeandfair.corla.Main;
 import us.freeandfair.corla.crypto.PseudoRandomNumberGenerator;
 import us.freeandfair.corla.model.AuditReason;
-import us.freeandfair.corla.model.AuditType;
+import us.freeandfair.corla.model.BallotLocator;
 import us.freeandfair.corla.model.CVRAuditInfo;
 import us.freeandfair.corla.model.CVRContestInfo;
 import us.freeandfair.corla.model.CVRContestInfo.ConsensusValue;
@@ -42,7 +42,10 @@ import us.freeandfair.corla.model.CountyDashboard;
 import us.freeandfair.corla.model.DoSDashboard;
 import us.freeandfair.corla.model.Round;
 import us.freeandfair.corla.persistence.Persistence;
+import us.freeandfair.corla.query.CVRAuditInfoQueries;
+import us.freeandfair.corla.query.CVRSequenceIndex;
 import us.freeandfair.corla.query.CastVoteRecordQueries;
+import us.freeandfair.corla.query.CountyContestComparisonAuditQueries;
 import us.freeandfair.corla.query.CountyContestResultQueries;
 
 /**
@@ -84,6 +87,20 @@ public final class ComparisonAuditController {
 
     final String seed = 
         Persistence.getByID(DoSDashboard.ID, DoSDashboard.class).auditInfo().seed();
+    return auditSequenceGenerator(seed, count.getAsLong()).
+        getRandomNumbers(the_min_index, the_max_index);
+  }
+  
+  /**
+   * Gets the generator for the audit sequence of a county with the specified
+   * number of CVRs, using the specified seed. 
+   * 
+   * @param the_seed The seed.
+   * @param the_cvr_count The number of CVRs in the county.
+   * @return the generator.
+   */
+  static PseudoRandomNumberGenerator 
+      auditSequenceGenerator(final String the_seed, final long the_cvr_count) {
     final boolean with_replacement = true;
     // assuming that CVRs are indexed from 0
     final int minimum = 0;
@@ -91,38 +108,46 @@ public final class ComparisonAuditController {
     // generator generates a sequence of the numbers minimum ... maximum 
     // inclusive, so we subtract 1 from the number of CVRs to give it the
     // correct range for our actual list of CVRs (indexed from 0).
-    final int maximum = (int) count.getAsLong() - 1;
+    final int maximum = (int) the_cvr_count - 1;
 
-    final PseudoRandomNumberGenerator prng = 
-        new PseudoRandomNumberGenerator(seed, with_replacement,
-                                        minimum, maximum);
-    return prng.getRandomNumbers(the_min_index, the_max_index);
+    // generators are cached per seed and CVR count, so only the part of the
+    // sequence that has not been generated yet needs to be computed
+    return PseudoRandomNumberGenerator.generatorFor(the_seed, with_replacement,
+                                                    minimum, maximum);
   }
   
   /**
-   * Get the CVRs for the specified list of sequence numbers for the specified 
-   * county.
+   * Get the ballot locators of the CVRs for the specified list of sequence 
+   * numbers for the specified county.
    * 
    * @param the_county The county.
    * @param the_seq_num_list The sequence number list.
    */
-  public static List<CastVoteRecord> 
+  public static List<BallotLocator> 
       getCVRsForSequenceNumbers(final County the_county,
                                 final List<Integer> the_seq_num_list) {
-    final Map<Integer, CastVoteRecord> matching_cvrs = 
-        CastVoteRecordQueries.get(the_county.id(), RecordType.UPLOADED, the_seq_num_list);
-    final List<CastVoteRecord> result = new ArrayList<>();
+    // the sequence index maps sequence numbers to IDs without touching the
+    // CVRs themselves, so we only load each distinct ballot locator once
+    final List<Long> ids = 
+        CVRSequenceIndex.idsFor(Persistence.getByID(the_county.id(), CountyDashboard.class),
+                                the_seq_num_list);
+    final Map<Long, BallotLocator> matching_cvrs = new HashMap<>();
+    for (final BallotLocator cvr : 
+         CastVoteRecordQueries.getLocators(new ArrayList<>(new HashSet<>(ids)))) {
+      matching_cvrs.put(cvr.id(), cvr);
+    }
+    final List<BallotLocator> result = new ArrayList<>();
     
-    for (final int index : the_seq_num_list) {
-      result.add(matching_cvrs.get(index));
+    for (final Long id : ids) {
+      result.add(matching_cvrs.get(id));
     }
     
     return result;    
   }
   
   /**
-   * Get the cast vote records to audit, in order, for the given county
-   * in the specified range in the audit sequence.
+   * Get the ballot locators of the cast vote records to audit, in order, for 
+   * the given county in the specified range in the audit sequence.
    * 
    * @param the_county The county.
    * @param the_min_index The minimum index to return.
@@ -131,9 +156,9 @@ public final class ComparisonAuditController {
    * the first element of this list will be the "min_index"th ballot card to audit, 
    * and the last will be the "max_index"th. 
    */
-  public static List<CastVoteRecord> getCVRsInAuditSequence(final County the_county,
-                                                            final int the_min_index,
-                                                            final int the_max_index) {
+  public static List<BallotLocator> getCVRsInAuditSequence(final County the_county,
+                                                           final int the_min_index,
+                                                           final int the_max_index) {
     final List<Integer> list_of_cvrs_to_audit = 
         getCVRSeqNumsInAuditSequence(the_county, the_min_index, the_max_index);
     return getCVRsForSequenceNumbers(the_county, list_of_cvrs_to_audit);
@@ -196,11 +221,11 @@ public final class ComparisonAuditController {
    * @param the_audited true to include already-audited ballots, false otherwise.
    */
   @SuppressWarnings("PMD.UselessParentheses")
-  public static List<CastVoteRecord> computeBallotOrder(final CountyDashboard the_cdb,
-                                                        final int the_start_index,
-                                                        final int the_ballot_count,
-                                                        final boolean the_duplicates,
-                                                        final boolean the_audited) {
+  public static List<BallotLocator> computeBallotOrder(final CountyDashboard the_cdb,
+                                                       final int the_start_index,
+                                                       final int the_ballot_count,
+                                                       final boolean the_duplicates,
+                                                       final boolean the_audited) {
     final OptionalLong county_ballots_found = 
         CastVoteRecordQueries.countMatching(the_cdb.id(), RecordType.UPLOADED);
     final long county_ballots;
@@ -210,8 +235,8 @@ public final class ComparisonAuditController {
       // we can't generate a list for this county
       return new ArrayList<>();
     }
-    final Set<CastVoteRecord> cvr_set = new HashSet<>();
-    final List<CastVoteRecord> cvr_to_audit_list = new ArrayList<>();
+    final Set<BallotLocator> cvr_set = new HashSet<>();
+    final List<BallotLocator> cvr_to_audit_list = new ArrayList<>();
     
     // we need to get the CVRs for the county's sequence, starting at START, and 
     // look up their locations; note we may have to ask for the sequence more than
@@ -226,13 +251,10 @@ public final class ComparisonAuditController {
     // we go until we hit the end of our CVR pool
     while ((the_duplicates && cvr_to_audit_list.size() < the_ballot_count) || 
            (!the_duplicates && cvr_set.size() < possible_ballots)) {
-      final List<CastVoteRecord> new_cvrs = 
-          getCVRsInAuditSequence(the_cdb.county(), start, end);
+      final List<BallotLocator> new_cvrs = 
+          withAuditFlags(getCVRsInAuditSequence(the_cdb.county(), start, end));
       for (int i = 0; i < new_cvrs.size(); i++) {
-        final CastVoteRecord cvr = new_cvrs.get(i);
-        if (!cvr_set.contains(cvr)) {
-          cvr.setAuditFlag(audited(the_cdb, cvr));
-        }
+        final BallotLocator cvr = new_cvrs.get(i);
         if ((the_duplicates || !cvr_set.contains(cvr)) && 
             (the_audited || !cvr.auditFlag())) {
           cvr_to_audit_list.add(cvr);
@@ -261,10 +283,10 @@ public final class ComparisonAuditController {
    * the returned list is empty.
    */
   @SuppressWarnings("PMD.UselessParentheses")
-  public static List<CastVoteRecord> computeBallotOrder(final CountyDashboard the_cdb,
-                                                        final int the_start_index,
-                                                        final int the_desired_prefix_length,
-                                                        final boolean the_audited) {
+  public static List<BallotLocator> computeBallotOrder(final CountyDashboard the_cdb,
+                                                       final int the_start_index,
+                                                       final int the_desired_prefix_length,
+                                                       final boolean the_audited) {
     if (the_start_index < 0 || the_desired_prefix_length <= the_start_index ||
         the_cdb.cvrFile() == null) {
       return new ArrayList<>();
@@ -273,12 +295,12 @@ public final class ComparisonAuditController {
     // we need to get the CVRs for the county's sequence, starting at the_start_index,
     // and eliminate duplicates
     
-    final List<CastVoteRecord> cvrs = 
-        getCVRsInAuditSequence(the_cdb.county(), the_start_index, 
-                               the_desired_prefix_length - 1); // end is inclusive
-    final Set<CastVoteRecord> cvr_set = new HashSet<>();
-    final Set<CastVoteRecord> previous_cvr_set = new HashSet<>();
-    final List<CastVoteRecord> cvr_to_audit_list = new ArrayList<>();
+    final List<BallotLocator> cvrs = 
+        withAuditFlags(getCVRsInAuditSequence(the_cdb.county(), the_start_index, 
+                                              the_desired_prefix_length - 1)); // inclusive
+    final Set<BallotLocator> cvr_set = new HashSet<>();
+    final Set<BallotLocator> previous_cvr_set = new HashSet<>();
+    final List<BallotLocator> cvr_to_audit_list = new ArrayList<>();
     
     // we should always exclude records that occurred in the sequence before 
     // the_start_index, since they are no longer relevant to the requested
@@ -290,9 +312,8 @@ public final class ComparisonAuditController {
     }
 
     for (int i = 0; i < cvrs.size(); i++) {
-      final CastVoteRecord cvr = cvrs.get(i);
+      final BallotLocator cvr = cvrs.get(i);
       if (!cvr_set.contains(cvr) && !previous_cvr_set.contains(cvr)) {
-        cvr.setAuditFlag(audited(the_cdb, cvr));
         if (the_audited || !cvr.auditFlag()) {
           cvr_to_audit_list.add(cvr);
         }
@@ -315,9 +336,9 @@ public final class ComparisonAuditController {
    * is empty.
    */
   @SuppressWarnings("PMD.UselessParentheses")
-  public static List<CastVoteRecord> ballotsToAudit(final CountyDashboard the_cdb,
-                                                    final int the_round,
-                                                    final boolean the_audited) {
+  public static List<BallotLocator> ballotsToAudit(final CountyDashboard the_cdb,
+                                                   final int the_round,
+                                                   final boolean the_audited) {
     if (the_round <= 0 || the_cdb.rounds().size() < the_round) {
       return new ArrayList<>();
     }
@@ -325,13 +346,7 @@ public final class ComparisonAuditController {
     final Round round = the_cdb.rounds().get(the_round - 1);
     
     // we already have the list of CVR IDs for the round
-    final List<CastVoteRecord> cvrs = CastVoteRecordQueries.get(round.ballotSequence());
-    
-    for (final CastVoteRecord cvr : cvrs) {
-      cvr.setAuditFlag(audited(the_cdb, cvr));
-    }
-
-    return cvrs;
+    return withAuditFlags(CastVoteRecordQueries.getLocators(round.ballotSequence()));
   }
   
   /**
@@ -348,7 +363,7 @@ public final class ComparisonAuditController {
     final DoSDashboard dosdb =
         Persistence.getByID(DoSDashboard.ID, DoSDashboard.class);
     final BigDecimal risk_limit = dosdb.auditInfo().riskLimit();
-    final Set<Contest> all_driving_contests = new HashSet<>();
+    final Set<Contest> all_driving_contests = dosdb.drivingContests();
     final Set<Contest> county_driving_contests = new HashSet<>();
     final Set<CountyContestComparisonAudit> comparison_audits = new HashSet<>();
     final Map<Contest, AuditReason> contest_reasons = new HashMap<>();
@@ -356,9 +371,6 @@ public final class ComparisonAuditController {
     int to_audit = Integer.MIN_VALUE;
     
     for (final ContestToAudit cta : dosdb.contestsToAudit()) {
-      if (cta.audit() == AuditType.COMPARISON) {
-        all_driving_contests.add(cta.contest());
-      }
       contest_reasons.put(cta.contest(), cta.reason());
     }
     
@@ -386,21 +398,21 @@ public final class ComparisonAuditController {
     the_cdb.setOptimisticSamplesToAudit(Math.max(0,  to_audit));
     if (!county_driving_contests.isEmpty() && 0 < to_audit) {      
       // the list of CVRs to audit, in audit sequence order
-      final List<CastVoteRecord> cvrs_to_audit =
+      final List<BallotLocator> cvrs_to_audit =
           getCVRsInAuditSequence(the_cdb.county(), 0, to_audit - 1);
       
       // the IDs of the CVRs to audit, in audit sequence order
       final List<Long> audit_subsequence_ids = new ArrayList<Long>();
-      for (final CastVoteRecord cvr : cvrs_to_audit) {
+      for (final BallotLocator cvr : cvrs_to_audit) {
         audit_subsequence_ids.add(cvr.id());
       }
       
       // deduplicate the CVRs and put them in ballot order
-      final SortedSet<CastVoteRecord> sorted_deduplicated_cvrs = 
-          new TreeSet<CastVoteRecord>(new CastVoteRecord.BallotOrderComparator());
+      final SortedSet<BallotLocator> sorted_deduplicated_cvrs = 
+          new TreeSet<BallotLocator>(new BallotLocator.BallotOrderComparator());
       sorted_deduplicated_cvrs.addAll(cvrs_to_audit);
       final List<Long> ballot_ids_to_audit = new ArrayList<Long>();
-      for (final CastVoteRecord cvr : sorted_deduplicated_cvrs) {
+      for (final BallotLocator cvr : sorted_deduplicated_cvrs) {
         ballot_ids_to_audit.add(cvr.id());
       }
       
@@ -444,12 +456,12 @@ public final class ComparisonAuditController {
     }
     
     // the list of CVRs to audit, in audit sequence order
-    final List<CastVoteRecord> new_cvrs =
+    final List<BallotLocator> new_cvrs =
         getCVRsInAuditSequence(the_cdb.county(), start_index, the_round_length);
     
-    List<CastVoteRecord> extra_cvrs = new_cvrs;
-    final SortedSet<CastVoteRecord> sorted_deduplicated_new_cvrs = 
-        new TreeSet<>(new CastVoteRecord.BallotOrderComparator());
+    List<BallotLocator> extra_cvrs = new_cvrs;
+    final SortedSet<BallotLocator> sorted_deduplicated_new_cvrs = 
+        new TreeSet<>(new BallotLocator.BallotOrderComparator());
     sorted_deduplicated_new_cvrs.addAll(new_cvrs);
     while (!extra_cvrs.isEmpty() && 
            sorted_deduplicated_new_cvrs.size() < the_round_length) {
@@ -462,19 +474,20 @@ public final class ComparisonAuditController {
     
     // the IDs of the CVRs to audit, in audit sequence order
     final List<Long> new_cvr_ids = new ArrayList<>();
-    for (final CastVoteRecord cvr : new_cvrs) {
+    for (final BallotLocator cvr : new_cvrs) {
       new_cvr_ids.add(cvr.id());
     }
     
-    // the unique IDs of the CVRs to audit
-    final Set<Long> unique_new_cvr_ids = new HashSet<>(new_cvr_ids);
+    // the unique CVRs to audit, by ID
+    final Map<Long, BallotLocator> unique_new_cvrs = new HashMap<>();
+    for (final BallotLocator cvr : new_cvrs) {
+      unique_new_cvrs.put(cvr.id(), cvr);
+    }
     
     for (final Round round : the_cdb.rounds()) {
       for (final Long cvr_id : round.ballotSequence()) {
-        if (unique_new_cvr_ids.contains(cvr_id)) {
-          unique_new_cvr_ids.remove(cvr_id);
-          sorted_deduplicated_new_cvrs.remove(Persistence.getByID(cvr_id, 
-                                                                  CastVoteRecord.class));
+        if (unique_new_cvrs.containsKey(cvr_id)) {
+          sorted_deduplicated_new_cvrs.remove(unique_new_cvrs.remove(cvr_id));
         }
       }
     }
@@ -486,7 +499,7 @@ public final class ComparisonAuditController {
           the_cdb.id() + " at audit sequence number " + start_index + 
           " with " + sorted_deduplicated_new_cvrs.size() + " ballots to audit");
       final List<Long> ballot_ids_to_audit = new ArrayList<>();
-      for (final CastVoteRecord cvr : sorted_deduplicated_new_cvrs) {
+      for (final BallotLocator cvr : sorted_deduplicated_new_cvrs) {
         ballot_ids_to_audit.add(cvr.id());
       }
       the_cdb.startRound(sorted_deduplicated_new_cvrs.size(), 
@@ -534,30 +547,28 @@ public final class ComparisonAuditController {
     } else {
       // use estimates based on current error rate to get length of round
       // we keep doing this until we find a CVR to actually audit
-      final SortedSet<CastVoteRecord> sorted_deduplicated_new_cvrs = 
-          new TreeSet<>(new CastVoteRecord.BallotOrderComparator());
-      final List<CastVoteRecord> new_cvrs = new ArrayList<>();
+      final SortedSet<BallotLocator> sorted_deduplicated_new_cvrs = 
+          new TreeSet<>(new BallotLocator.BallotOrderComparator());
+      final List<BallotLocator> new_cvrs = new ArrayList<>();
       int expected_prefix_length = 0;
       while (sorted_deduplicated_new_cvrs.isEmpty()) {
         expected_prefix_length = computeEstimatedSamplesToAudit(the_cdb);
         if (the_cdb.auditedPrefixLength() < expected_prefix_length) {
-          final List<CastVoteRecord> extra_cvrs = 
+          final List<BallotLocator> extra_cvrs = 
               getCVRsInAuditSequence(the_cdb.county(), start_index, 
                                      expected_prefix_length - 1);
           new_cvrs.addAll(extra_cvrs);
           Persistence.saveOrUpdate(the_cdb);
           sorted_deduplicated_new_cvrs.addAll(new_cvrs);
           
-          final Set<Long> unique_new_cvr_ids = new HashSet<>();
-          for (final CastVoteRecord cvr : sorted_deduplicated_new_cvrs) {
-            unique_new_cvr_ids.add(cvr.id());
+          final Map<Long, BallotLocator> unique_new_cvrs = new HashMap<>();
+          for (final BallotLocator cvr : sorted_deduplicated_new_cvrs) {
+            unique_new_cvrs.put(cvr.id(), cvr);
           }
           for (final Round round : the_cdb.rounds()) {
             for (final Long cvr_id : round.ballotSequence()) {
-              if (unique_new_cvr_ids.contains(cvr_id)) {
-                unique_new_cvr_ids.remove(cvr_id);
-                sorted_deduplicated_new_cvrs.remove(Persistence.getByID(cvr_id, 
-                                                                        CastVoteRecord.class));
+              if (unique_new_cvrs.containsKey(cvr_id)) {
+                sorted_deduplicated_new_cvrs.remove(unique_new_cvrs.remove(cvr_id));
               }
             }
           }
@@ -568,13 +579,13 @@ public final class ComparisonAuditController {
       
       // the ids of the CVRs to audit, in audit sequence order
       final List<Long> new_cvr_ids = new ArrayList<>();
-      for (final CastVoteRecord cvr : new_cvrs) {
+      for (final BallotLocator cvr : new_cvrs) {
         new_cvr_ids.add(cvr.id());
       }
 
       // the ids of the CVRs to audit, deduplicated, in ballot order
       final List<Long> ballot_ids_to_audit = new ArrayList<>();
-      for (final CastVoteRecord cvr : sorted_deduplicated_new_cvrs) {
+      for (final BallotLocator cvr : sorted_deduplicated_new_cvrs) {
         ballot_ids_to_audit.add(cvr.id());
       }
       Main.LOGGER.info("starting audit round " + (rounds.size() + 1) + " for county " + 
@@ -601,10 +612,28 @@ public final class ComparisonAuditController {
    */
   //@ require the_cvr_under_audit != null;
   //@ require the_acvr != null;
-  @SuppressWarnings({"PMD.CyclomaticComplexity", "PMD.AvoidDeeplyNestedIfStmts"})
   public static boolean submitAuditCVR(final CountyDashboard the_cdb,
                                        final CastVoteRecord the_cvr_under_audit, 
                                        final CastVoteRecord the_audit_cvr) {
+    final boolean result = recordAuditCVR(the_cdb, the_cvr_under_audit, the_audit_cvr);
+    updateRoundState(the_cdb);
+    return result;
+  }
+  
+  /**
+   * Submit an audit CVR as submitAuditCVR() does, but without then updating 
+   * the dashboard's round state; when several audit CVRs are submitted at 
+   * once, updateRoundState() is called after they have all been recorded.
+   * 
+   * @param the_cdb The dashboard.
+   * @param the_cvr_under_audit The CVR under audit.
+   * @param the_audit_cvr The corresponding audit CVR.
+   * @return true if the audit CVR is recorded successfully, false otherwise.
+   */
+  @SuppressWarnings({"PMD.CyclomaticComplexity", "PMD.AvoidDeeplyNestedIfStmts"})
+  public static boolean recordAuditCVR(final CountyDashboard the_cdb,
+                                       final CastVoteRecord the_cvr_under_audit, 
+                                       final CastVoteRecord the_audit_cvr) {
     // performs a sanity check to make sure the CVR under audit and the ACVR
     // are the same card
     boolean result = false;
@@ -643,8 +672,23 @@ public final class ComparisonAuditController {
                        the_audit_cvr.id() + " for county " + the_cdb.id() + 
                        ", cvr " + the_cvr_under_audit.id());
     }
+    return result;
+  }
+  
+  /**
+   * Updates the round state of the specified dashboard after audit CVRs have 
+   * been recorded: its position in the audit sequence, estimates and status.
+   * The estimates of an audit are only recalculated if its discrepancies have
+   * changed or, when it has overstatements, if the audited sample count has;
+   * the others are read as they were last calculated. The audited sample
+   * counts of all the audits are set to the dashboard's with one update.
+   *
+   * @param the_cdb The dashboard.
+   */
+  public static void updateRoundState(final CountyDashboard the_cdb) {
     Persistence.flush();
     updateCVRUnderAudit(the_cdb);
+    CountyContestComparisonAuditQueries.updateAuditedSampleCounts(the_cdb);
     the_cdb.
         setEstimatedSamplesToAudit(computeEstimatedSamplesToAudit(the_cdb) -
                                    the_cdb.auditedSampleCount());
@@ -652,7 +696,6 @@ public final class ComparisonAuditController {
         setOptimisticSamplesToAudit(computeOptimisticSamplesToAudit(the_cdb) -
                                     the_cdb.auditedSampleCount());
     the_cdb.updateAuditStatus();
-    return result;
   }
   
   /**
@@ -698,22 +741,22 @@ public final class ComparisonAuditController {
   }
   
   /**
-   * Checks to see if the specified CVR has been audited on the specified county
-   * dashboard. This check sets the audit flag on the CVR record in memory, 
-   * so its result can be accessed later without an expensive database hit.
+   * Sets the audit flags of the specified ballot locators, using a single
+   * query to find which of their CVRs have been audited.
    * 
-   * @param the_cdb The county dashboard.
-   * @param the_cvr The CVR.
-   * @return true if the specified CVR has been audited, false otherwise.
+   * @param the_cvrs The ballot locators.
+   * @return the ballot locators, in the same order, with their audit flags
+   * set to true if their CVRs have been audited and false otherwise.
    */
-  public static boolean audited(final CountyDashboard the_cdb, 
-                                final CastVoteRecord the_cvr) {
-    final CVRAuditInfo info = Persistence.getByID(the_cvr.id(), CVRAuditInfo.class);
-    final boolean result;
-    if (info == null || info.acvr() == null) {
-      result = false;
-    } else {
-      result = true;
+  public static List<BallotLocator> withAuditFlags(final List<BallotLocator> the_cvrs) {
+    final Set<Long> ids = new HashSet<>();
+    for (final BallotLocator cvr : the_cvrs) {
+      ids.add(cvr.id());
+    }
+    final Set<Long> audited = CVRAuditInfoQueries.auditedIDs(ids);
+    final List<BallotLocator> result = new ArrayList<>(the_cvrs.size());
+    for (final BallotLocator cvr : the_cvrs) {
+      result.add(cvr.withAuditFlag(audited.contains(cvr.id())));
     }
     return result;
   }
@@ -739,7 +782,9 @@ public final class ComparisonAuditController {
       
       if (cvrai == null) {
         // create it if it doesn't exist
-        cvrai = new CVRAuditInfo(Persistence.getByID(cvr_id, CastVoteRecord.class));
+        // a reference to the CVR suffices, so its contest information is not loaded
+        cvrai = new CVRAuditInfo(cvr_id, Persistence.getReference(cvr_id, 
+                                                                  CastVoteRecord.class));
         cvrai.setMultiplicity(Collections.frequency(the_round.auditSubsequence(), cvr_id));
         Persistence.saveOrUpdate(cvrai);
       } else if (cvrai.acvr() != null) {
@@ -800,7 +845,8 @@ public final class ComparisonAuditController {
     }
     
     final int audit_count = the_info.multiplicity() - the_info.counted();
-    for (final CountyContestComparisonAudit ca : the_cdb.comparisonAudits()) {
+    for (final CountyContestComparisonAudit ca :
+         the_cdb.comparisonAuditsAffectedBy(audit_cvr)) {
       final OptionalInt discrepancy = 
           ca.computeDiscrepancy(cvr_under_audit, audit_cvr);
       if (discrepancy.isPresent()) {
@@ -815,7 +861,6 @@ public final class ComparisonAuditController {
         }
         disagreements.add(ca.auditReason());
       }
-      ca.signalSampleAudited(audit_count);
       Persistence.saveOrUpdate(ca);
     }
     
@@ -856,7 +901,8 @@ public final class ComparisonAuditController {
       }
     }
     
-    for (final CountyContestComparisonAudit ca : the_cdb.comparisonAudits()) {
+    for (final CountyContestComparisonAudit ca :
+         the_cdb.comparisonAuditsAffectedBy(audit_cvr)) {
       final OptionalInt discrepancy = 
           ca.computeDiscrepancy(cvr_under_audit, audit_cvr);
       if (discrepancy.isPresent()) {
@@ -871,7 +917,6 @@ public final class ComparisonAuditController {
         }
         disagreements.add(ca.auditReason());
       }
-      ca.signalSampleUnaudited(result);
       Persistence.saveOrUpdate(ca);
     }
     
@@ -0,0 +1,588 @@
+/*
+ * Free & Fair Colorado RLA System
+ *
+ * @title ColoradoRLA
+ * @created Oct 18, 2026
+ * @copyright 2017 Colorado Department of State
+ * @license SPDX-License-Identifier: AGPL-3.0-or-later
+ * @creator agent <agent@local>
+ * @description A system to assist in conducting statewide risk-limiting audits.
+ */
+
+package us.freeandfair.corla.controller;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import javax.persistence.PersistenceException;
+import javax.servlet.AsyncContext;
+import javax.servlet.AsyncEvent;
+import javax.servlet.AsyncListener;
+import javax.servlet.ServletOutputStream;
+import javax.servlet.WriteListener;
+
+import us.freeandfair.corla.Main;
+import us.freeandfair.corla.asm.AuditBoardDashboardASM;
+import us.freeandfair.corla.asm.CountyDashboardASM;
+import us.freeandfair.corla.asm.PersistentASMState;
+import us.freeandfair.corla.json.CountyDashboardRefreshResponse;
+import us.freeandfair.corla.model.CountyDashboard;
+import us.freeandfair.corla.model.DoSDashboard;
+import us.freeandfair.corla.persistence.EntityChangeEvents;
+import us.freeandfair.corla.persistence.Persistence;
+import us.freeandfair.corla.persistence.PersistentEntity;
+import us.freeandfair.corla.query.DashboardVersionQueries;
+
+/**
+ * Pushes dashboard updates to connected clients as server-sent events.
+ * County clients receive "county-dashboard" events containing their county
+ * dashboard refresh response, and state clients receive "dos-dashboard"
+ * events containing the DoS dashboard refresh response.
+ *
+ * Committed changes only mark dashboards as dirty. A single publisher
+ * thread sends the dirty dashboards at most once per coalescing interval,
+ * building each county's response once for all of that county's clients,
+ * so a burst of audit CVR submissions produces one update per client.
+ * Idle connections receive a comment every heartbeat interval, which keeps
+ * them open and detects clients that have gone away.
+ *
+ * Events are written with non-blocking I/O, so a slow client never delays
+ * the publisher thread; each client has a bounded queue of unwritten 
+ * events, and a client whose queue is full has fallen behind and is dropped.
+ * When no clients are connected, nothing is read from the database.
+ *
+ * @author agent <agent@local>
+ * @version 1.0.0
+ */
+@SuppressWarnings("PMD.DoNotUseThreads")
+public final class DashboardUpdatePublisher {
+  /**
+   * The coalescing interval, in milliseconds.
+   */
+  private static final long COALESCE_INTERVAL = 500;
+
+  /**
+   * The heartbeat interval, in milliseconds.
+   */
+  private static final long HEARTBEAT_INTERVAL = 15000;
+
+  /**
+   * The maximum number of unwritten events for a client.
+   */
+  private static final int MAX_PENDING_EVENTS = 8;
+
+  /**
+   * The event name for county dashboard updates.
+   */
+  private static final String COUNTY_EVENT = "county-dashboard";
+
+  /**
+   * The event name for DoS dashboard updates.
+   */
+  private static final String DOS_EVENT = "dos-dashboard";
+
+  /**
+   * The heartbeat, an event stream comment.
+   */
+  private static final String HEARTBEAT = ":\n\n";
+
+  /**
+   * The connected county clients, keyed by county ID.
+   */
+  private static final Map<Long, Set<Client>> COUNTY_CLIENTS = new ConcurrentHashMap<>();
+
+  /**
+   * The connected state clients.
+   */
+  private static final Set<Client> STATE_CLIENTS = ConcurrentHashMap.newKeySet();
+
+  /**
+   * The IDs of the counties whose dashboards have changed.
+   */
+  private static final Set<Long> DIRTY_COUNTIES = ConcurrentHashMap.newKeySet();
+
+  /**
+   * A flag indicating that all county dashboards have changed.
+   */
+  private static final AtomicBoolean ALL_COUNTIES_DIRTY = new AtomicBoolean();
+
+  /**
+   * A flag indicating that the DoS dashboard has changed.
+   */
+  private static final AtomicBoolean DOS_DIRTY = new AtomicBoolean();
+
+  /**
+   * The versions of the county dashboards most recently sent, keyed by
+   * county ID; a county's entry is removed when its last client leaves.
+   * Only the publisher thread uses this map.
+   */
+  private static final Map<Long, String> SENT_VERSIONS = new HashMap<>();
+
+  /**
+   * The publisher thread.
+   */
+  private static final ScheduledExecutorService PUBLISHER =
+      Executors.newSingleThreadScheduledExecutor(DashboardUpdatePublisher::newThread);
+
+  static {
+    EntityChangeEvents.subscribe(CountyDashboard.class,
+                                 DashboardUpdatePublisher::countyDashboardChanged);
+    EntityChangeEvents.subscribe(PersistentASMState.class,
+                                 DashboardUpdatePublisher::asmStateChanged);
+    EntityChangeEvents.subscribe(DoSDashboard.class,
+                                 DashboardUpdatePublisher::dosDashboardChanged);
+    PUBLISHER.scheduleWithFixedDelay(DashboardUpdatePublisher::publish, COALESCE_INTERVAL,
+                                     COALESCE_INTERVAL, TimeUnit.MILLISECONDS);
+    PUBLISHER.scheduleWithFixedDelay(DashboardUpdatePublisher::heartbeat,
+                                     HEARTBEAT_INTERVAL, HEARTBEAT_INTERVAL,
+                                     TimeUnit.MILLISECONDS);
+  }
+
+  /**
+   * Private constructor to prevent instantiation.
+   */
+  private DashboardUpdatePublisher() {
+    // do nothing
+  }
+
+  /**
+   * Adds a client, whose event stream response has already been committed.
+   * The client receives updates until its connection closes; it should
+   * fetch its dashboard once after connecting, because only changes are
+   * pushed.
+   *
+   * @param the_county_id The ID of the client's county, or null for a
+   * state client.
+   * @param the_context The asynchronous context of the client's request.
+   * @exception IOException if the output stream of the client's response
+   * cannot be obtained.
+   */
+  public static void addClient(final Long the_county_id, final AsyncContext the_context) 
+      throws IOException {
+    final ServletOutputStream output = the_context.getResponse().getOutputStream();
+    // county client sets are only added and removed with the lock held
+    synchronized (COUNTY_CLIENTS) {
+      final Set<Client> clients;
+      if (the_county_id == null) {
+        clients = STATE_CLIENTS;
+      } else {
+        clients = COUNTY_CLIENTS.computeIfAbsent(the_county_id,
+                                                 DashboardUpdatePublisher::newSet);
+      }
+      final Client client = new Client(the_county_id, the_context, output, clients);
+      the_context.addListener(client);
+      output.setWriteListener(client);
+      clients.add(client);
+    }
+  }
+
+  /**
+   * Indicates that all dashboards have changed, and must be sent again
+   * even if their versions are the same as those last sent.
+   */
+  public static void invalidateAll() {
+    PUBLISHER.execute(SENT_VERSIONS::clear);
+    ALL_COUNTIES_DIRTY.set(true);
+    DOS_DIRTY.set(true);
+  }
+
+  /**
+   * Handles a committed change to a county dashboard.
+   *
+   * @param the_entity The county dashboard.
+   */
+  private static void countyDashboardChanged(final PersistentEntity the_entity) {
+    DIRTY_COUNTIES.add(the_entity.id());
+    DOS_DIRTY.set(true);
+  }
+
+  /**
+   * Handles a committed change to the DoS dashboard.
+   *
+   * @param the_entity The DoS dashboard.
+   */
+  private static void dosDashboardChanged(final PersistentEntity the_entity) {
+    ALL_COUNTIES_DIRTY.set(true);
+    DOS_DIRTY.set(true);
+  }
+
+  /**
+   * Handles a committed change to an ASM state; county and audit board
+   * ASMs are identified by county ID, and a change to the DoS ASM affects
+   * every county.
+   *
+   * @param the_entity The ASM state.
+   */
+  private static void asmStateChanged(final PersistentEntity the_entity) {
+    final PersistentASMState state = (PersistentASMState) the_entity;
+    if (CountyDashboardASM.class.getName().equals(state.asmClass()) ||
+        AuditBoardDashboardASM.class.getName().equals(state.asmClass())) {
+      DIRTY_COUNTIES.add(Long.valueOf(state.asmIdentity()));
+    } else {
+      ALL_COUNTIES_DIRTY.set(true);
+    }
+    DOS_DIRTY.set(true);
+  }
+
+  /**
+   * Sends the dirty dashboards to their clients. This runs on the
+   * publisher thread, outside of any transaction.
+   */
+  @SuppressWarnings("PMD.AvoidCatchingGenericException")
+  private static void publish() {
+    try {
+      publishDoSDashboard();
+      publishCountyDashboards();
+    } catch (final RuntimeException e) {
+      // an exception would cancel all future runs, so we only log it
+      Main.LOGGER.error("could not publish dashboard updates: " + e);
+    }
+  }
+
+  /**
+   * Sends the DoS dashboard to the state clients, if it is dirty.
+   */
+  private static void publishDoSDashboard() {
+    if (DOS_DIRTY.getAndSet(false) && !STATE_CLIENTS.isEmpty()) {
+      final DoSDashboardReadModel.Snapshot snapshot = DoSDashboardReadModel.snapshot();
+      final String event =
+          event(DOS_EVENT, String.valueOf(snapshot.version()), snapshot.json());
+      for (final Client client : STATE_CLIENTS) {
+        client.send(event);
+      }
+    }
+  }
+
+  /**
+   * Sends the dirty county dashboards to their clients. A dashboard whose
+   * version has not changed since it was last sent is not sent again.
+   */
+  private static void publishCountyDashboards() {
+    final List<Long> county_ids = new ArrayList<>();
+    for (final Long county_id : dirtyCounties()) {
+      final Set<Client> clients = COUNTY_CLIENTS.get(county_id);
+      if (clients != null && !clients.isEmpty()) {
+        county_ids.add(county_id);
+      }
+    }
+    final Map<Long, String> events = new HashMap<>();
+    // no transaction is needed if no dirty county has clients
+    if (!county_ids.isEmpty()) {
+      Persistence.beginTransaction();
+      try {
+        for (final Long county_id : county_ids) {
+          final String version = DashboardVersionQueries.countyDashboardVersion(county_id);
+          if (!version.equals(SENT_VERSIONS.get(county_id))) {
+            final CountyDashboard cdb =
+                Persistence.getByID(county_id, CountyDashboard.class);
+            if (cdb == null) {
+              throw new PersistenceException("could not read dashboard for county " +
+                                             county_id);
+            }
+            events.put(county_id, event(COUNTY_EVENT, version, Main.GSON.toJson
+                (CountyDashboardRefreshResponse.createResponse(cdb))));
+            SENT_VERSIONS.put(county_id, version);
+          }
+        }
+      } finally {
+        // publishing only reads
+        Persistence.rollbackTransaction();
+      }
+    }
+    for (final Map.Entry<Long, String> entry : events.entrySet()) {
+      final Set<Client> clients = COUNTY_CLIENTS.get(entry.getKey());
+      if (clients != null) {
+        for (final Client client : clients) {
+          client.send(entry.getValue());
+        }
+      }
+    }
+  }
+
+  /**
+   * Takes the set of dirty counties, clearing it.
+   *
+   * @return the IDs of the dirty counties.
+   */
+  private static List<Long> dirtyCounties() {
+    final List<Long> result = new ArrayList<>();
+    if (ALL_COUNTIES_DIRTY.getAndSet(false)) {
+      result.addAll(COUNTY_CLIENTS.keySet());
+      DIRTY_COUNTIES.clear();
+    } else {
+      for (final Long county_id : DIRTY_COUNTIES) {
+        DIRTY_COUNTIES.remove(county_id);
+        result.add(county_id);
+      }
+    }
+    return result;
+  }
+
+  /**
+   * Removes the entries for the specified county if it has no clients. 
+   * This runs on the publisher thread.
+   *
+   * @param the_county_id The county ID.
+   */
+  private static void prune(final Long the_county_id) {
+    synchronized (COUNTY_CLIENTS) {
+      final Set<Client> clients = COUNTY_CLIENTS.get(the_county_id);
+      if (clients != null && clients.isEmpty()) {
+        COUNTY_CLIENTS.remove(the_county_id);
+        SENT_VERSIONS.remove(the_county_id);
+      }
+    }
+  }
+
+  /**
+   * Sends a heartbeat to all clients.
+   */
+  private static void heartbeat() {
+    for (final Client client : STATE_CLIENTS) {
+      client.send(HEARTBEAT);
+    }
+    for (final Set<Client> clients : COUNTY_CLIENTS.values()) {
+      for (final Client client : clients) {
+        client.send(HEARTBEAT);
+      }
+    }
+  }
+
+  /**
+   * Formats a server-sent event.
+   *
+   * @param the_name The event name.
+   * @param the_id The event ID.
+   * @param the_data The event data, which may span several lines.
+   * @return the formatted event.
+   */
+  private static String event(final String the_name, final String the_id,
+                              final String the_data) {
+    final StringBuilder sb = new StringBuilder(the_data.length() + 64);
+    sb.append("event: ").append(the_name).append('\n');
+    sb.append("id: ").append(the_id).append('\n');
+    for (final String line : the_data.split("\n")) {
+      sb.append("data: ").append(line).append('\n');
+    }
+    sb.append('\n');
+    return sb.toString();
+  }
+
+  /**
+   * @param the_county_id A county ID.
+   * @return a new, empty, set of clients for the county.
+   */
+  private static Set<Client> newSet(final Long the_county_id) {
+    return ConcurrentHashMap.newKeySet();
+  }
+
+  /**
+   * Creates the publisher thread.
+   *
+   * @param the_runnable The runnable.
+   * @return the thread.
+   */
+  private static Thread newThread(final Runnable the_runnable) {
+    final Thread result = new Thread(the_runnable, "dashboard-update-publisher");
+    result.setDaemon(true);
+    return result;
+  }
+
+  /**
+   * A connected client. Events are queued on the publisher thread, and
+   * written on whichever thread finds the output stream ready, the publisher
+   * thread or a container thread calling onWritePossible().
+   */
+  private static final class Client implements AsyncListener, WriteListener {
+    /**
+     * The ID of the client's county, or null for a state client.
+     */
+    private final Long my_county_id;
+
+    /**
+     * The asynchronous context of the client's request.
+     */
+    private final AsyncContext my_context;
+
+    /**
+     * The output stream of the client's response, in non-blocking mode.
+     */
+    private final ServletOutputStream my_output;
+
+    /**
+     * The set of clients this client belongs to.
+     */
+    private final Set<Client> my_clients;
+
+    /**
+     * The events not yet written, guarded by this client.
+     */
+    private final Deque<byte[]> my_pending = new ArrayDeque<>();
+
+    /**
+     * A flag indicating that events have been written since the last flush,
+     * guarded by this client.
+     */
+    private boolean my_unflushed;
+
+    /**
+     * Constructs a new client.
+     *
+     * @param the_county_id The ID of the client's county, or null for a 
+     * state client.
+     * @param the_context The asynchronous context.
+     * @param the_output The output stream.
+     * @param the_clients The set of clients this client belongs to.
+     */
+    Client(final Long the_county_id, final AsyncContext the_context,
+           final ServletOutputStream the_output, final Set<Client> the_clients) {
+      my_county_id = the_county_id;
+      my_context = the_context;
+      my_output = the_output;
+      my_clients = the_clients;
+    }
+
+    /**
+     * Queues an event for the client, and writes as much as can be written
+     * without blocking. The client is dropped if it already has the maximum
+     * number of unwritten events.
+     *
+     * @param the_event The event.
+     */
+    void send(final String the_event) {
+      final boolean behind;
+      synchronized (this) {
+        behind = my_pending.size() >= MAX_PENDING_EVENTS;
+        if (!behind) {
+          my_pending.add(the_event.getBytes(StandardCharsets.UTF_8));
+        }
+      }
+      if (behind) {
+        Main.LOGGER.debug("dropping dashboard update client that has fallen behind");
+        drop();
+      } else {
+        write();
+      }
+    }
+
+    /**
+     * Writes queued events, and then flushes them, for as long as the output
+     * stream is ready; when it is not, the container calls onWritePossible()
+     * once it is. The client is dropped if it cannot be written to.
+     */
+    @SuppressWarnings("PMD.AvoidCatchingGenericException")
+    private void write() {
+      boolean failed = false;
+      synchronized (this) {
+        try {
+          boolean done = false;
+          while (!done && my_output.isReady()) {
+            final byte[] next = my_pending.poll();
+            if (next != null) {
+              my_output.write(next);
+              my_unflushed = true;
+            } else if (my_unflushed) {
+              my_unflushed = false;
+              my_output.flush();
+            } else {
+              done = true;
+            }
+          }
+        } catch (final IOException | RuntimeException e) {
+          Main.LOGGER.debug("dropping dashboard update client: " + e);
+          failed = true;
+        }
+      }
+      if (failed) {
+        drop();
+      }
+    }
+
+    /**
+     * Removes the client and closes its connection.
+     */
+    @SuppressWarnings("PMD.AvoidCatchingGenericException")
+    void drop() {
+      if (remove()) {
+        try {
+          my_context.complete();
+        } catch (final RuntimeException e) {
+          // the connection is already closed
+        }
+      }
+    }
+
+    /**
+     * Removes the client from its set of clients; if it was its county's 
+     * last client, the county's entries are then pruned.
+     *
+     * @return true if the client was removed, false if it had already been.
+     */
+    private boolean remove() {
+      final boolean result = my_clients.remove(this);
+      if (result && my_county_id != null && my_clients.isEmpty()) {
+        PUBLISHER.execute(() -> prune(my_county_id));
+      }
+      return result;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void onWritePossible() {
+      write();
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void onError(final Throwable the_throwable) {
+      drop();
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void onComplete(final AsyncEvent the_event) {
+      remove();
+    }
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void onTimeout(final AsyncEvent the_event) {
+      drop();
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void onError(final AsyncEvent the_event) {
+      drop();
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void onStartAsync(final AsyncEvent the_event) {
+      // nothing to do
+    }
+  }
+}
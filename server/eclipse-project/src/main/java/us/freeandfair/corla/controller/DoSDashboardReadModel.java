@@ -0,0 +1,220 @@
+/*
+ * Free & Fair Colorado RLA System
+ *
+ * @title ColoradoRLA
+ * @created Oct 18, 2026
+ * @copyright 2017 Colorado Department of State
+ * @license SPDX-License-Identifier: AGPL-3.0-or-later
+ * @creator agent <agent@local>
+ * @description A system to assist in conducting statewide risk-limiting audits.
+ */
+
+package us.freeandfair.corla.controller;
+
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+
+import javax.persistence.PersistenceException;
+
+import us.freeandfair.corla.Main;
+import us.freeandfair.corla.asm.PersistentASMState;
+import us.freeandfair.corla.json.DoSDashboardRefreshResponse;
+import us.freeandfair.corla.model.County;
+import us.freeandfair.corla.model.CountyContestComparisonAudit;
+import us.freeandfair.corla.model.CountyDashboard;
+import us.freeandfair.corla.model.DoSDashboard;
+import us.freeandfair.corla.model.UploadedFile;
+import us.freeandfair.corla.persistence.EntityChangeEvents;
+import us.freeandfair.corla.persistence.Persistence;
+import us.freeandfair.corla.persistence.PersistentEntity;
+
+/**
+ * An in-memory snapshot of the DoS dashboard refresh response, which is
+ * built at most once for each version of the data it depends on. The
+ * version is incremented whenever a transaction that changes the DoS
+ * dashboard, a county dashboard, a comparison audit, a county, an uploaded
+ * file or an ASM state commits, and whenever the CVR import queue changes.
+ *
+ * Snapshots are built on a single thread of their own, in a transaction
+ * that starts after the version is read; so a snapshot never reflects
+ * older data than its version, and concurrent refreshes of a stale
+ * snapshot share one build.
+ *
+ * @author agent <agent@local>
+ * @version 1.0.0
+ */
+@SuppressWarnings("PMD.DoNotUseThreads")
+public final class DoSDashboardReadModel {
+  /**
+   * The version of the data.
+   */
+  private static final AtomicLong VERSION = new AtomicLong();
+
+  /**
+   * The most recently built snapshot.
+   */
+  private static final AtomicReference<Snapshot> SNAPSHOT = new AtomicReference<>();
+
+  /**
+   * The executor that builds snapshots.
+   */
+  private static final ExecutorService BUILDER =
+      Executors.newSingleThreadExecutor(DoSDashboardReadModel::newThread);
+
+  static {
+    EntityChangeEvents.subscribe(DoSDashboard.class, DoSDashboardReadModel::changed);
+    EntityChangeEvents.subscribe(CountyDashboard.class, DoSDashboardReadModel::changed);
+    EntityChangeEvents.subscribe(CountyContestComparisonAudit.class,
+                                 DoSDashboardReadModel::changed);
+    EntityChangeEvents.subscribe(County.class, DoSDashboardReadModel::changed);
+    EntityChangeEvents.subscribe(UploadedFile.class, DoSDashboardReadModel::changed);
+    EntityChangeEvents.subscribe(PersistentASMState.class, DoSDashboardReadModel::changed);
+  }
+
+  /**
+   * Private constructor to prevent instantiation.
+   */
+  private DoSDashboardReadModel() {
+    // do nothing
+  }
+
+  /**
+   * Gets a snapshot of the current DoS dashboard refresh response, building
+   * it if the data has changed since the last one was built.
+   *
+   * @return the snapshot.
+   * @exception PersistenceException if the snapshot cannot be built.
+   */
+  public static Snapshot snapshot() {
+    Snapshot result = currentSnapshot();
+    if (result == null) {
+      try {
+        result = BUILDER.submit(DoSDashboardReadModel::build).get();
+      } catch (final InterruptedException e) {
+        Thread.currentThread().interrupt();
+        throw new PersistenceException("interrupted building DoS dashboard snapshot", e);
+      } catch (final ExecutionException e) {
+        throw new PersistenceException("could not build DoS dashboard snapshot",
+                                       e.getCause());
+      }
+    }
+    return result;
+  }
+
+  /**
+   * @return the current version of the data.
+   */
+  public static long version() {
+    return VERSION.get();
+  }
+
+  /**
+   * Indicates that the data has changed, so the current snapshot is stale.
+   */
+  public static void invalidate() {
+    VERSION.incrementAndGet();
+  }
+
+  /**
+   * Handles a committed change to an entity the snapshot depends on.
+   *
+   * @param the_entity The entity.
+   */
+  private static void changed(final PersistentEntity the_entity) {
+    invalidate();
+  }
+
+  /**
+   * @return the most recently built snapshot, if it is current, or null.
+   */
+  private static Snapshot currentSnapshot() {
+    Snapshot result = SNAPSHOT.get();
+    if (result != null && result.version() != VERSION.get()) {
+      result = null;
+    }
+    return result;
+  }
+
+  /**
+   * Builds a snapshot, unless a current one was built while this build
+   * was waiting to run. This runs on the builder thread, outside of any
+   * transaction.
+   *
+   * @return the snapshot.
+   */
+  private static Snapshot build() {
+    Snapshot result = currentSnapshot();
+    if (result == null) {
+      final long version = VERSION.get();
+      Persistence.beginTransaction();
+      try {
+        final DoSDashboard dosdb = Persistence.getByID(DoSDashboard.ID, DoSDashboard.class);
+        if (dosdb == null) {
+          throw new PersistenceException("could not read DoS dashboard");
+        }
+        result = new Snapshot(version, Main.GSON.toJson(DoSDashboardRefreshResponse.
+                                                        createResponse(dosdb)));
+      } finally {
+        // the build only reads
+        Persistence.rollbackTransaction();
+      }
+      SNAPSHOT.set(result);
+    }
+    return result;
+  }
+
+  /**
+   * Creates the builder thread.
+   *
+   * @param the_runnable The runnable.
+   * @return the thread.
+   */
+  private static Thread newThread(final Runnable the_runnable) {
+    final Thread result = new Thread(the_runnable, "dos-dashboard-read-model");
+    result.setDaemon(true);
+    return result;
+  }
+
+  /**
+   * A snapshot of the DoS dashboard refresh response.
+   */
+  public static final class Snapshot {
+    /**
+     * The version of the data the snapshot was built from.
+     */
+    private final long my_version;
+
+    /**
+     * The response, as JSON.
+     */
+    private final String my_json;
+
+    /**
+     * Constructs a new snapshot.
+     *
+     * @param the_version The version.
+     * @param the_json The response, as JSON.
+     */
+    Snapshot(final long the_version, final String the_json) {
+      my_version = the_version;
+      my_json = the_json;
+    }
+
+    /**
+     * @return the version of the data the snapshot was built from.
+     */
+    public long version() {
+      return my_version;
+    }
+
+    /**
+     * @return the response, as JSON.
+     */
+    public String json() {
+      return my_json;
+    }
+  }
+}
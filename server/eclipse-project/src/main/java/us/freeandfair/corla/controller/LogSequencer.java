@@ -0,0 +1,184 @@
+/*
+ * Free & Fair Colorado RLA System
+ *
+ * @title ColoradoRLA
+ * @created Oct 18, 2026
+ * @copyright 2017 Colorado Department of State
+ * @license SPDX-License-Identifier: AGPL-3.0-or-later
+ * @creator agent <agent@local>
+ * @description A system to assist in conducting statewide risk-limiting audits.
+ */
+
+package us.freeandfair.corla.controller;
+
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import us.freeandfair.corla.Main;
+import us.freeandfair.corla.model.LogEntry;
+import us.freeandfair.corla.model.PendingLogEntry;
+import us.freeandfair.corla.persistence.Persistence;
+import us.freeandfair.corla.query.LogEntryQueries;
+
+/**
+ * The single writer of the hash-chained log. Requests save their log
+ * entries as pending log entries, in their own transactions, and then
+ * wake the sequencer; so requests never read the tail of the log, and
+ * a log entry is never chained unless the transaction it describes has
+ * committed. The sequencer, on a thread of its own, keeps the tail of the
+ * log in memory and replaces pending log entries with hash-chained log
+ * entries, in batches, in the order in which they were created.
+ *
+ * The sequencer also runs periodically, so pending log entries left by
+ * a shutdown are chained when the server restarts.
+ *
+ * @author agent <agent@local>
+ * @version 1.0.0
+ */
+@SuppressWarnings("PMD.DoNotUseThreads")
+public final class LogSequencer {
+  /**
+   * The maximum number of pending log entries to chain in one transaction.
+   */
+  private static final int BATCH_SIZE = 500;
+
+  /**
+   * The interval between periodic runs, in milliseconds.
+   */
+  private static final long POLL_INTERVAL = 5000;
+
+  /**
+   * The sequencer thread.
+   */
+  private static final ScheduledExecutorService SEQUENCER =
+      Executors.newSingleThreadScheduledExecutor(LogSequencer::newThread);
+
+  /**
+   * A flag indicating that a run has been requested and has not yet started.
+   */
+  private static final AtomicBoolean WOKEN = new AtomicBoolean();
+
+  /**
+   * The last log entry in the hash chain, or null if it must be read
+   * from the database. Only the sequencer thread uses this field.
+   */
+  private static LogEntry tail;
+
+  /**
+   * Private constructor to prevent instantiation.
+   */
+  private LogSequencer() {
+    // do nothing
+  }
+
+  /**
+   * Starts the periodic runs of the sequencer, the first of which is
+   * immediate.
+   */
+  public static void start() {
+    SEQUENCER.scheduleWithFixedDelay(LogSequencer::run, 0, POLL_INTERVAL,
+                                     TimeUnit.MILLISECONDS);
+  }
+
+  /**
+   * Requests that the sequencer chain the pending log entries. This should
+   * be called after committing a transaction that saves pending log entries.
+   */
+  public static void wake() {
+    if (!WOKEN.getAndSet(true)) {
+      SEQUENCER.execute(LogSequencer::run);
+    }
+  }
+
+  /**
+   * Indicates that the log has been changed by something other than the
+   * sequencer, so the tail must be read from the database. This must be 
+   * called after the transaction that changed the log commits, or the
+   * sequencer could read the old tail again before the change is visible.
+   */
+  public static void invalidate() {
+    SEQUENCER.execute(LogSequencer::discardTail);
+  }
+
+  /**
+   * Chains all the pending log entries.
+   */
+  private static void run() {
+    WOKEN.set(false);
+    boolean more = true;
+    while (more) {
+      more = chainBatch();
+    }
+  }
+
+  /**
+   * Chains a batch of pending log entries in a transaction of its own. If
+   * the transaction fails, the tail is discarded, and the entries remain
+   * pending.
+   *
+   * @return true if there may be more pending log entries, false otherwise.
+   */
+  @SuppressWarnings("PMD.AvoidCatchingGenericException")
+  private static boolean chainBatch() {
+    boolean result = false;
+    try {
+      Persistence.beginTransaction();
+      if (tail == null) {
+        tail = LogEntryQueries.last();
+      }
+      final List<PendingLogEntry> pending = LogEntryQueries.pending(BATCH_SIZE);
+      LogEntry previous_entry = tail;
+      for (final PendingLogEntry entry : pending) {
+        final LogEntry real_entry = entry.chain(previous_entry);
+        Persistence.save(real_entry);
+        Persistence.delete(entry);
+        previous_entry = real_entry;
+      }
+      Persistence.commitTransaction();
+      tail = previous_entry;
+      result = pending.size() == BATCH_SIZE;
+    } catch (final RuntimeException e) {
+      // an exception would cancel the periodic runs, so we only log it
+      Main.LOGGER.error("could not chain pending log entries: " + e);
+      discardTail();
+      rollback();
+    }
+    return result;
+  }
+
+  /**
+   * Rolls back the current transaction, if possible.
+   */
+  @SuppressWarnings("PMD.AvoidCatchingGenericException")
+  private static void rollback() {
+    try {
+      if (Persistence.canTransactionRollback()) {
+        Persistence.rollbackTransaction();
+      }
+    } catch (final RuntimeException e) {
+      Main.LOGGER.error("could not roll back log sequencer transaction: " + e);
+    }
+  }
+
+  /**
+   * Discards the tail, so that it is read from the database.
+   */
+  private static void discardTail() {
+    tail = null;
+  }
+
+  /**
+   * Creates the sequencer thread.
+   *
+   * @param the_runnable The runnable.
+   * @return the thread.
+   */
+  private static Thread newThread(final Runnable the_runnable) {
+    final Thread result = new Thread(the_runnable, "log-sequencer");
+    result.setDaemon(true);
+    return result;
+  }
+}
@@ -0,0 +1,340 @@
+/*
+ * Free & Fair Colorado RLA System
+ *
+ * @title ColoradoRLA
+ * @created Oct 18, 2026
+ * @copyright 2017 Colorado Department of State
+ * @license SPDX-License-Identifier: AGPL-3.0-or-later
+ * @creator agent <agent@local>
+ * @description A system to assist in conducting statewide risk-limiting audits.
+ */
+
+package us.freeandfair.corla.controller;
+
+import java.time.Instant;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.stream.Stream;
+
+import javax.persistence.PersistenceException;
+
+import us.freeandfair.corla.json.LogVerificationResponse;
+import us.freeandfair.corla.model.LogCheckpoint;
+import us.freeandfair.corla.model.LogEntry;
+import us.freeandfair.corla.persistence.Persistence;
+import us.freeandfair.corla.query.LogEntryQueries;
+
+/**
+ * Verifies the hash chain of the log. The log is read in ID order through a
+ * database cursor and split into segments, whose links are verified in
+ * parallel on all available processors; each segment carries the stored
+ * hash of the entry before it, so the links at segment boundaries are
+ * verified along with the others. Each log entry must follow the entry
+ * before it in ID order, and its hash must be the hash of its contents and
+ * that entry's hash.
+ *
+ * An incremental verification starts at the checkpoint left by the last
+ * successful verification, after checking that the checkpoint entry's hash
+ * has not changed.
+ *
+ * @author agent <agent@local>
+ * @version 1.0.0
+ */
+@SuppressWarnings("PMD.DoNotUseThreads")
+public final class LogVerifier {
+  /**
+   * The number of log entries in a segment.
+   */
+  private static final int SEGMENT_SIZE = 10000;
+
+  /**
+   * The number of threads that verify segments.
+   */
+  private static final int THREADS = Runtime.getRuntime().availableProcessors();
+
+  /**
+   * The maximum number of segments that are read but not yet verified.
+   */
+  private static final int MAX_OUTSTANDING = 2 * THREADS;
+
+  /**
+   * Private constructor to prevent instantiation.
+   */
+  private LogVerifier() {
+    // do nothing
+  }
+
+  /**
+   * Verifies the hash chain of the log, and advances the checkpoint if the
+   * chain is intact. This method must be called within a transaction.
+   *
+   * @param the_incremental true to start at the checkpoint, if there is one,
+   * false to verify the whole log.
+   * @return the result of the verification.
+   * @exception PersistenceException if the log cannot be read.
+   */
+  public static LogVerificationResponse verify(final boolean the_incremental) {
+    final LogCheckpoint checkpoint =
+        Persistence.getByID(LogCheckpoint.ID, LogCheckpoint.class);
+    Row previous = null;
+    Long broken_id = null;
+    if (the_incremental && checkpoint != null) {
+      final LogEntry entry = Persistence.getByID(checkpoint.entryID(), LogEntry.class);
+      if (entry == null || !checkpoint.hash().equals(entry.hash())) {
+        broken_id = checkpoint.entryID();
+      } else {
+        previous = new Row(entry.id(), null, null, checkpoint.hash());
+      }
+    }
+
+    final Long start_id;
+    if (previous == null) {
+      start_id = null;
+    } else {
+      start_id = previous.my_id;
+    }
+    long count = 0;
+    Row last = previous;
+    if (broken_id == null) {
+      final ExecutorService workers = Executors.newFixedThreadPool(THREADS);
+      try (Stream<Object[]> rows = LogEntryQueries.chainAfter(startAfter(start_id))) {
+        final Deque<Future<Long>> outstanding = new ArrayDeque<>();
+        final Iterator<Object[]> iterator = rows.iterator();
+        List<Row> segment = new ArrayList<>(SEGMENT_SIZE);
+        while (broken_id == null && iterator.hasNext()) {
+          final Row row = new Row(iterator.next());
+          segment.add(row);
+          count = count + 1;
+          if (segment.size() == SEGMENT_SIZE || !iterator.hasNext()) {
+            final Row segment_previous = last;
+            final List<Row> segment_rows = segment;
+            outstanding.add(workers.submit(() -> verifySegment(segment_previous,
+                                                               segment_rows)));
+            segment = new ArrayList<>(SEGMENT_SIZE);
+            if (outstanding.size() >= MAX_OUTSTANDING) {
+              broken_id = result(outstanding.poll());
+            }
+          }
+          last = row;
+        }
+        while (broken_id == null && !outstanding.isEmpty()) {
+          broken_id = result(outstanding.poll());
+        }
+      } finally {
+        workers.shutdownNow();
+      }
+    }
+
+    if (broken_id == null && last != null) {
+      if (checkpoint == null) {
+        Persistence.saveOrUpdate(new LogCheckpoint(last.my_id, last.my_hash, Instant.now()));
+      } else {
+        checkpoint.advance(last.my_id, last.my_hash, Instant.now());
+        Persistence.saveOrUpdate(checkpoint);
+      }
+    }
+    return result(start_id, count, broken_id, last);
+  }
+
+  /**
+   * @param the_start_id The ID after which to start, or null.
+   * @return the ID after which to start, with 0 for the beginning of the log.
+   */
+  private static Long startAfter(final Long the_start_id) {
+    Long result = the_start_id;
+    if (result == null) {
+      result = Long.valueOf(0);
+    }
+    return result;
+  }
+
+  /**
+   * Creates the result of a verification.
+   *
+   * @param the_start_id The ID after which verification started, or null.
+   * @param the_count The number of entries read.
+   * @param the_broken_id The ID of the first broken entry, or null.
+   * @param the_last The last row read, or null.
+   * @return the result.
+   */
+  private static LogVerificationResponse result(final Long the_start_id,
+                                                final long the_count,
+                                                final Long the_broken_id,
+                                                final Row the_last) {
+    final LogVerificationResponse result;
+    if (the_last == null) {
+      result = new LogVerificationResponse(the_start_id, the_count, the_broken_id,
+                                           null, null);
+    } else {
+      result = new LogVerificationResponse(the_start_id, the_count, the_broken_id,
+                                           the_last.my_id, the_last.my_hash);
+    }
+    return result;
+  }
+
+  /**
+   * Waits for the verification of a segment.
+   *
+   * @param the_future The future result of the verification.
+   * @return the ID of the first broken entry in the segment, or null.
+   * @exception PersistenceException if the verification is interrupted.
+   */
+  private static Long result(final Future<Long> the_future) {
+    try {
+      return the_future.get();
+    } catch (final InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new PersistenceException("interrupted verifying log", e);
+    } catch (final ExecutionException e) {
+      throw new PersistenceException("could not verify log", e.getCause());
+    }
+  }
+
+  /**
+   * Verifies the links of a segment of the hash chain.
+   *
+   * @param the_previous The row before the segment, or null if the segment
+   * starts the log.
+   * @param the_rows The rows of the segment.
+   * @return the ID of the first broken entry in the segment, or null if
+   * there is none.
+   */
+  private static Long verifySegment(final Row the_previous, final List<Row> the_rows) {
+    Long result = null;
+    Row previous = the_previous;
+    for (final Row row : the_rows) {
+      if (result == null && !row.follows(previous)) {
+        result = row.my_id;
+      }
+      previous = row;
+    }
+    return result;
+  }
+
+  /**
+   * The data of a log entry that is needed to verify its link.
+   */
+  private static final class Row {
+    /**
+     * The index of the ID in a query result.
+     */
+    private static final int ID = 0;
+
+    /**
+     * The index of the previous entry's ID in a query result.
+     */
+    private static final int PREVIOUS_ID = 1;
+
+    /**
+     * The index of the result code in a query result.
+     */
+    private static final int RESULT_CODE = 2;
+
+    /**
+     * The index of the information in a query result.
+     */
+    private static final int INFORMATION = 3;
+
+    /**
+     * The index of the timestamp in a query result.
+     */
+    private static final int TIMESTAMP = 4;
+
+    /**
+     * The index of the hash in a query result.
+     */
+    private static final int HASH = 5;
+
+    /**
+     * The ID.
+     */
+    private final Long my_id;
+
+    /**
+     * The ID of the previous entry, or null.
+     */
+    private final Long my_previous_id;
+
+    /**
+     * The contents, as an unhashed log entry, or null if unknown.
+     */
+    private final LogEntry my_contents;
+
+    /**
+     * The stored hash.
+     */
+    private final String my_hash;
+
+    /**
+     * Constructs a row from a result of LogEntryQueries.chainAfter().
+     *
+     * @param the_result The result.
+     */
+    Row(final Object... the_result) {
+      this((Long) the_result[ID], (Long) the_result[PREVIOUS_ID],
+           contents((Integer) the_result[RESULT_CODE], (String) the_result[INFORMATION],
+                    (Instant) the_result[TIMESTAMP]),
+           (String) the_result[HASH]);
+    }
+
+    /**
+     * Constructs a row.
+     *
+     * @param the_id The ID.
+     * @param the_previous_id The ID of the previous entry, or null.
+     * @param the_contents The contents, or null.
+     * @param the_hash The stored hash.
+     */
+    Row(final Long the_id, final Long the_previous_id, final LogEntry the_contents,
+        final String the_hash) {
+      my_id = the_id;
+      my_previous_id = the_previous_id;
+      my_contents = the_contents;
+      my_hash = the_hash;
+    }
+
+    /**
+     * @param the_result_code The result code, if any.
+     * @param the_information The information, if any.
+     * @param the_timestamp The timestamp, if any.
+     * @return the contents, or null if they cannot be hashed.
+     */
+    private static LogEntry contents(final Integer the_result_code,
+                                     final String the_information,
+                                     final Instant the_timestamp) {
+      LogEntry result = null;
+      if (the_result_code != null && the_information != null && the_timestamp != null) {
+        result = new LogEntry(the_result_code, the_information, the_timestamp);
+      }
+      return result;
+    }
+
+    /**
+     * Checks the link from this row to the specified previous row.
+     *
+     * @param the_previous The previous row, or null if this row should
+     * start the log.
+     * @return true if the link is intact, false otherwise.
+     */
+    boolean follows(final Row the_previous) {
+      boolean result = my_contents != null;
+      if (result && the_previous == null) {
+        result = my_previous_id == null &&
+                 LogEntry.chainHash(my_contents.hashString(), LogEntry.ROOT_HASH).
+                 equals(my_hash);
+      } else if (result) {
+        result = the_previous.my_id.equals(my_previous_id) &&
+                 LogEntry.chainHash(my_contents.hashString(), the_previous.my_hash).
+                 equals(my_hash);
+      }
+      return result;
+    }
+  }
+}
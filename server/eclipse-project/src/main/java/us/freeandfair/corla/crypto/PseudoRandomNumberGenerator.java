@@ -11,12 +11,16 @@
 
 package us.freeandfair.corla.crypto;
 
-import java.math.BigInteger;
 import java.nio.charset.StandardCharsets;
+import java.security.DigestException;
 import java.security.MessageDigest;
 import java.security.NoSuchAlgorithmException;
-import java.util.LinkedList;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 
 /**
  * A pseudo-random number generator based on Philip Stark's pseudo-random number
@@ -37,15 +41,99 @@ public class PseudoRandomNumberGenerator {
    */
   public static final int MINIMUM_SEED_LENGTH = 20;
   
+  /**
+   * The maximum number of generators kept in the generator cache.
+   */
+  public static final int CACHE_SIZE = 256;
+  
+  /**
+   * The initial capacity of the random number array.
+   */
+  private static final int INITIAL_CAPACITY = 64;
+  
+  /**
+   * The length, in bytes, of a SHA-256 digest.
+   */
+  private static final int DIGEST_LENGTH = 32;
+  
+  /**
+   * The maximum number of decimal digits in a positive int.
+   */
+  private static final int MAXIMUM_COUNT_DIGITS = 10;
+  
+  /**
+   * The radix of the counter digits.
+   */
+  private static final int DECIMAL_RADIX = 10;
+  
+  /**
+   * The mask for converting a byte to an unsigned value.
+   */
+  private static final int BYTE_MASK = 0xFF;
+  
+  /**
+   * The number of bits in a byte.
+   */
+  private static final int BYTE_SIZE = 8;
+  
+  /**
+   * The cache of generators, keyed by their parameters and kept in
+   * least-recently-used order.
+   */
+  private static final Map<String, PseudoRandomNumberGenerator> CACHE = 
+      new LinkedHashMap<String, PseudoRandomNumberGenerator>(16, 0.75f, true) {
+        /**
+         * The serialVersionUID.
+         */
+        private static final long serialVersionUID = 1L;
+        
+        @Override
+        protected boolean removeEldestEntry(final 
+            Map.Entry<String, PseudoRandomNumberGenerator> the_eldest) {
+          return CACHE_SIZE < size();
+        }
+      };
+  
   /**
    * The message digest we will use for generating hashes.
    */
   private MessageDigest my_sha256_digest;
+  
+  /**
+   * The reusable hash input buffer; it contains the UTF-8 encoding of the
+   * seed followed by a comma, and the digits of the current count are 
+   * written after that.
+   */
+  private final byte[] my_hash_input;
+  
+  /**
+   * The length of the seed prefix (including the comma) in the hash input 
+   * buffer.
+   */
+  private final int my_prefix_length;
+  
+  /**
+   * The reusable hash output buffer.
+   */
+  private final byte[] my_hash_output;
 
   /**
-   * The random numbers generated so far.
+   * The random numbers generated so far; only the first my_size 
+   * elements are valid.
    */
-  private final List<Integer> my_random_numbers;
+  private int[] my_random_numbers;
+  
+  /**
+   * The number of random numbers generated so far.
+   */
+  //@ private invariant 0 <= my_size && my_size <= my_random_numbers.length;
+  private int my_size;
+  
+  /**
+   * The numbers drawn so far, offset by the minimum; only used when
+   * generating without replacement.
+   */
+  private final BitSet my_drawn_numbers;
 
   /**
    * The current number to use for generation.
@@ -108,7 +196,12 @@ public class PseudoRandomNumberGenerator {
     } catch (final NoSuchAlgorithmException e) {
       assert false;
     }
-    my_random_numbers = new LinkedList<Integer>();
+    final byte[] prefix = (the_seed + ",").getBytes(StandardCharsets.UTF_8);
+    my_prefix_length = prefix.length;
+    my_hash_input = Arrays.copyOf(prefix, my_prefix_length + MAXIMUM_COUNT_DIGITS);
+    my_hash_output = new byte[DIGEST_LENGTH];
+    my_random_numbers = new int[INITIAL_CAPACITY];
+    my_drawn_numbers = new BitSet();
     my_with_replacement = the_with_replacement;
     my_seed = the_seed;
     assert the_minimum < the_maximum;
@@ -117,6 +210,38 @@ public class PseudoRandomNumberGenerator {
     my_maximum_index = my_maximum - my_minimum + 1;
   }
 
+  /**
+   * Gets a pseudo-random number generator with the specified parameters, 
+   * reusing a previously created one if possible. Generators obtained this
+   * way are shared, so the numbers they have already generated need not be
+   * generated again.
+   * 
+   * @param the_seed The seed to generate random numbers from
+   * @param the_with_replacement True if duplicates can be generated
+   * @param the_minimum The minimum value to generate
+   * @param the_maximum The maximum value to generate
+   * @return the generator.
+   */
+  //@ requires 20 <= the_seed.length();
+  //@ requires seedOnlyContainsDigits(the_seed);
+  //@ requires the_minimum <= the_maximum;
+  public static PseudoRandomNumberGenerator generatorFor(final String the_seed,
+                                                         final boolean the_with_replacement,
+                                                         final int the_minimum,
+                                                         final int the_maximum) {
+    final String key = the_seed + "," + the_with_replacement + "," + 
+                       the_minimum + "," + the_maximum;
+    synchronized (CACHE) {
+      PseudoRandomNumberGenerator result = CACHE.get(key);
+      if (result == null) {
+        result = new PseudoRandomNumberGenerator(the_seed, the_with_replacement,
+                                                 the_minimum, the_maximum);
+        CACHE.put(key, result);
+      }
+      return result;
+    }
+  }
+  
   /**
    * Generate the specified list of random numbers.
    * 
@@ -128,14 +253,19 @@ public class PseudoRandomNumberGenerator {
   //@ requires the_from <= the_to;
   // @todo kiniry Refine this specification to include public model fields.
   // requires my_with_replacement || the_to <= my_maximum_index;
-  public List<Integer> getRandomNumbers(final int the_from, final int the_to) {
+  public synchronized List<Integer> getRandomNumbers(final int the_from, 
+                                                    final int the_to) {
     assert the_from <= the_to;
     assert my_with_replacement || the_to <= my_maximum_index;
-    if (the_to + 1 > my_random_numbers.size()) {
+    if (the_to + 1 > my_size) {
       extendList(the_to + 1);
     }
-    // subList has an exclusive upper bound, but we have an inclusive one
-    return my_random_numbers.subList(the_from, the_to + 1);
+    // our upper bound is inclusive
+    final List<Integer> result = new ArrayList<>(the_to - the_from + 1);
+    for (int i = the_from; i <= the_to; i++) {
+      result.add(my_random_numbers[i]);
+    }
+    return result;
   }
 
   /**
@@ -144,9 +274,14 @@ public class PseudoRandomNumberGenerator {
    */
   //@ private behavior
   //@   requires 0 <= the_length;
-  //@   ensures my_random_numbers.size() == the_length;
+  //@   ensures my_size == the_length;
   private void extendList(final int the_length) {
-    while (my_random_numbers.size() < the_length) {
+    if (my_random_numbers.length < the_length) {
+      my_random_numbers = 
+          Arrays.copyOf(my_random_numbers, 
+                        Math.max(the_length, my_random_numbers.length * 2));
+    }
+    while (my_size < the_length) {
       generateNext();
     }
   }
@@ -156,23 +291,75 @@ public class PseudoRandomNumberGenerator {
    * list of random numbers in length or leave it the same. It will always 
    * advance the count.
    */
-  public void generateNext() {
+  public synchronized void generateNext() {
     my_count++;
     assert my_with_replacement || my_count <= my_maximum_index;
 
-    final String hash_input = my_seed + "," + my_count;
-
-    final byte[] hash_output =
-        my_sha256_digest.digest(hash_input.getBytes(StandardCharsets.UTF_8));
-    final BigInteger int_output = new BigInteger(1, hash_output);
+    // the hash input is the seed, a comma, and the decimal count; only
+    // the count digits change from one pick to the next
+    final int input_length = my_prefix_length + writeCount();
+    my_sha256_digest.update(my_hash_input, 0, input_length);
+    try {
+      my_sha256_digest.digest(my_hash_output, 0, DIGEST_LENGTH);
+    } catch (final DigestException e) {
+      // this can't happen, because the output buffer is exactly the
+      // size of a SHA-256 digest
+      throw new IllegalStateException(e);
+    }
 
-    final BigInteger in_range =
-        int_output.mod(BigInteger.valueOf(my_maximum - my_minimum + 1));
-    final int pick = my_minimum + in_range.intValueExact();
+    final int pick = 
+        my_minimum + (int) unsignedMod(my_hash_output, 
+                                       (long) my_maximum - my_minimum + 1);
 
-    if (my_with_replacement || !my_random_numbers.contains(pick)) {
-      my_random_numbers.add(pick);
+    if (my_with_replacement || !my_drawn_numbers.get(pick - my_minimum)) {
+      if (my_size == my_random_numbers.length) {
+        my_random_numbers = Arrays.copyOf(my_random_numbers, my_size * 2);
+      }
+      my_random_numbers[my_size] = pick;
+      my_size = my_size + 1;
+      if (!my_with_replacement) {
+        my_drawn_numbers.set(pick - my_minimum);
+      }
+    }
+  }
+  
+  /**
+   * Writes the ASCII decimal digits of the current count into the hash
+   * input buffer, immediately after the seed prefix.
+   * 
+   * @return the number of digits written.
+   */
+  private int writeCount() {
+    int digits = 1;
+    for (int c = my_count / DECIMAL_RADIX; c > 0; c = c / DECIMAL_RADIX) {
+      digits = digits + 1;
+    }
+    int c = my_count;
+    for (int i = my_prefix_length + digits - 1; my_prefix_length <= i; i--) {
+      my_hash_input[i] = (byte) ('0' + c % DECIMAL_RADIX);
+      c = c / DECIMAL_RADIX;
+    }
+    return digits;
+  }
+  
+  /**
+   * Reduces a big-endian unsigned integer modulo the specified modulus, 
+   * giving the same result as <code>new BigInteger(1, the_bytes).mod(m)</code>.
+   * 
+   * @param the_bytes The bytes of the integer, most significant first.
+   * @param the_modulus The modulus.
+   * @return the remainder.
+   */
+  //@ requires 0 < the_modulus && the_modulus <= 1L << 32;
+  //@ ensures 0 <= \result && \result < the_modulus;
+  private static long unsignedMod(final byte[] the_bytes, final long the_modulus) {
+    // the remainder never exceeds 32 bits, so shifting in one byte at a 
+    // time cannot overflow
+    long result = 0;
+    for (final byte b : the_bytes) {
+      result = ((result << BYTE_SIZE) | (b & BYTE_MASK)) % the_modulus;
     }
+    return result;
   }
   
   /**
@@ -0,0 +1,283 @@
+/*
+ * Free & Fair Colorado RLA System
+ *
+ * @title ColoradoRLA
+ * @created Oct 18, 2026
+ * @copyright 2017 Colorado Department of State
+ * @license SPDX-License-Identifier: AGPL-3.0-or-later
+ * @creator agent <agent@local>
+ * @description A system to assist in conducting statewide risk-limiting audits.
+ */
+
+package us.freeandfair.corla.csv;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import javax.persistence.PersistenceException;
+
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.id.IdentifierGenerator;
+import org.hibernate.id.enhanced.SequenceStyleGenerator;
+import org.hibernate.metamodel.spi.MetamodelImplementor;
+import org.hibernate.persister.entity.EntityPersister;
+import org.postgresql.PGConnection;
+import org.postgresql.copy.CopyManager;
+
+import us.freeandfair.corla.model.CVRContestInfo;
+import us.freeandfair.corla.model.CastVoteRecord;
+import us.freeandfair.corla.persistence.Persistence;
+import us.freeandfair.corla.persistence.StringListConverter;
+
+/**
+ * A loader that writes imported CVRs directly to the cast_vote_record and
+ * cvr_contest_info tables using PostgreSQL's COPY protocol, bypassing
+ * Hibernate entirely. CVRs are buffered until flushed; at flush time, IDs
+ * are allocated from the Hibernate sequence in a single query and all the
+ * buffered rows are sent in one COPY per table, on the connection (and
+ * therefore in the transaction) of the current session. The IDs are the 
+ * values the sequence returns, so they do not depend on its increment; 
+ * they are only safe from collisions if Hibernate also takes each ID it 
+ * allocates from the sequence rather than handing out a pooled range, 
+ * which is checked before the first flush.
+ *
+ * @author agent <agent@local>
+ * @version 1.0.0
+ */
+class CVRCopyLoader {
+  /**
+   * The sequence from which Hibernate allocates the IDs of cast vote records.
+   */
+  private static final String ID_SEQUENCE = "hibernate_sequence";
+
+  /**
+   * The query used to allocate IDs.
+   */
+  private static final String ALLOCATE_IDS =
+      "SELECT nextval('" + ID_SEQUENCE + "') FROM generate_series(1, ?)";
+
+  /**
+   * The COPY statement for cast vote records.
+   */
+  private static final String COPY_CVRS =
+      "COPY cast_vote_record (id, version, record_type, timestamp, county_id, " +
+      "cvr_number, sequence_number, scanner_id, batch_id, record_id, " +
+      "imprinted_id, ballot_type) FROM STDIN";
+
+  /**
+   * The COPY statement for CVR contest information.
+   */
+  private static final String COPY_CONTEST_INFO =
+      "COPY cvr_contest_info (cvr_id, index, contest_id, comment, consensus, " +
+      "choices) FROM STDIN";
+
+  /**
+   * The representation of null in COPY text format.
+   */
+  private static final String NULL = "\\N";
+
+  /**
+   * The converter used to encode choice lists exactly as Hibernate would.
+   */
+  private static final StringListConverter CHOICES_CONVERTER = new StringListConverter();
+
+  /**
+   * A flag indicating whether Hibernate's ID allocation has been checked.
+   */
+  private static volatile boolean id_allocation_checked;
+
+  /**
+   * The CVRs that have not yet been written.
+   */
+  private final List<CastVoteRecord> my_pending = new ArrayList<>();
+
+  /**
+   * The encoded choice lists seen so far; most ballots share a small number
+   * of distinct choice lists per contest, so this avoids re-encoding them.
+   */
+  private final Map<List<String>, String> my_encoded_choices = new HashMap<>();
+
+  /**
+   * Adds the specified CVR to the set of CVRs to be written at the next
+   * flush. The CVR's ID is assigned at that time.
+   *
+   * @param the_cvr The CVR.
+   */
+  public void add(final CastVoteRecord the_cvr) {
+    my_pending.add(the_cvr);
+  }
+
+  /**
+   * Writes all pending CVRs to the database in the current transaction.
+   * Any pending Hibernate changes (such as newly-created contests) are
+   * flushed first, so that the CVR rows can refer to them.
+   *
+   * @exception org.hibernate.JDBCException if the CVRs cannot be written.
+   * @exception PersistenceException if Hibernate's ID allocation could 
+   * collide with the IDs allocated here.
+   */
+  public void flush() {
+    if (my_pending.isEmpty()) {
+      return;
+    }
+    checkIDAllocation();
+    Persistence.flush();
+    Persistence.currentSession().doWork(connection -> {
+      try {
+        allocateIDs(connection);
+        final CopyManager copy = connection.unwrap(PGConnection.class).getCopyAPI();
+        copy.copyIn(COPY_CVRS, new StringReader(cvrRows()));
+        copy.copyIn(COPY_CONTEST_INFO, new StringReader(contestInfoRows()));
+      } catch (final IOException e) {
+        throw new SQLException("could not copy CVRs", e);
+      }
+    });
+    my_pending.clear();
+  }
+
+  /**
+   * Checks, once, that Hibernate allocates the IDs of cast vote records from 
+   * the ID sequence, and that every Hibernate generator using that sequence 
+   * takes one value per ID; a pooled optimizer would hand out IDs beyond 
+   * the values it took from the sequence, which could collide with the IDs
+   * allocated here.
+   * 
+   * @exception PersistenceException if either condition does not hold.
+   */
+  private static void checkIDAllocation() {
+    if (!id_allocation_checked) {
+      final MetamodelImplementor metamodel = Persistence.currentSession().
+          getSessionFactory().unwrap(SessionFactoryImplementor.class).getMetamodel();
+      if (!usesIDSequence(metamodel.entityPersister(CastVoteRecord.class).
+                          getIdentifierGenerator())) {
+        throw new PersistenceException("CVR IDs are not allocated from " + ID_SEQUENCE);
+      }
+      for (final EntityPersister ep : metamodel.entityPersisters().values()) {
+        final IdentifierGenerator generator = ep.getIdentifierGenerator();
+        if (usesIDSequence(generator) &&
+            ((SequenceStyleGenerator) generator).getOptimizer().getIncrementSize() != 1) {
+          throw new PersistenceException(ep.getEntityName() + " IDs are allocated from " +
+                                         ID_SEQUENCE + " in pooled ranges");
+        }
+      }
+      id_allocation_checked = true;
+    }
+  }
+
+  /**
+   * @param the_generator An identifier generator.
+   * @return true if the generator allocates IDs from the ID sequence, false
+   * otherwise.
+   */
+  private static boolean usesIDSequence(final IdentifierGenerator the_generator) {
+    return the_generator instanceof SequenceStyleGenerator &&
+           ID_SEQUENCE.equals(((SequenceStyleGenerator) the_generator).
+                              getDatabaseStructure().getName());
+  }
+
+  /**
+   * Allocates IDs for all pending CVRs.
+   *
+   * @param the_connection The connection to use.
+   * @exception SQLException if the IDs cannot be allocated.
+   */
+  private void allocateIDs(final Connection the_connection) throws SQLException {
+    try (PreparedStatement ps = the_connection.prepareStatement(ALLOCATE_IDS)) {
+      ps.setInt(1, my_pending.size());
+      try (ResultSet rs = ps.executeQuery()) {
+        for (final CastVoteRecord cvr : my_pending) {
+          if (!rs.next()) {
+            throw new SQLException("could not allocate CVR IDs");
+          }
+          cvr.setID(rs.getLong(1));
+        }
+      }
+    }
+  }
+
+  /**
+   * @return the COPY text for the pending CVRs.
+   */
+  String cvrRows() {
+    final StringBuilder sb = new StringBuilder();
+    for (final CastVoteRecord cvr : my_pending) {
+      sb.append(cvr.id()).append('\t');
+      sb.append(0).append('\t');
+      sb.append(cvr.recordType()).append('\t');
+      appendNullable(sb, cvr.timestamp()).append('\t');
+      sb.append(cvr.countyID()).append('\t');
+      sb.append(cvr.cvrNumber()).append('\t');
+      appendNullable(sb, cvr.sequenceNumber()).append('\t');
+      sb.append(cvr.scannerID()).append('\t');
+      sb.append(cvr.batchID()).append('\t');
+      sb.append(cvr.recordID()).append('\t');
+      appendNullable(sb, cvr.imprintedID()).append('\t');
+      appendNullable(sb, cvr.ballotType()).append('\n');
+    }
+    return sb.toString();
+  }
+
+  /**
+   * @return the COPY text for the contest information of the pending CVRs.
+   */
+  String contestInfoRows() {
+    final StringBuilder sb = new StringBuilder();
+    for (final CastVoteRecord cvr : my_pending) {
+      int index = 0;
+      for (final CVRContestInfo ci : cvr.contestInfo()) {
+        sb.append(cvr.id()).append('\t');
+        sb.append(index).append('\t');
+        sb.append(ci.contest().id()).append('\t');
+        appendNullable(sb, ci.comment()).append('\t');
+        appendNullable(sb, ci.consensus()).append('\t');
+        appendNullable(sb, my_encoded_choices.computeIfAbsent(
+            ci.choices(), CHOICES_CONVERTER::convertToDatabaseColumn)).append('\n');
+        index = index + 1;
+      }
+    }
+    return sb.toString();
+  }
+
+  /**
+   * Appends a value to a COPY text row, escaping it as necessary.
+   *
+   * @param the_builder The builder to append to.
+   * @param the_value The value, which may be null.
+   * @return the builder.
+   */
+  private static StringBuilder appendNullable(final StringBuilder the_builder,
+                                              final Object the_value) {
+    if (the_value == null) {
+      return the_builder.append(NULL);
+    }
+    final String s = the_value.toString();
+    for (int i = 0; i < s.length(); i++) {
+      final char c = s.charAt(i);
+      switch (c) {
+        case '\\':
+          the_builder.append("\\\\");
+          break;
+        case '\t':
+          the_builder.append("\\t");
+          break;
+        case '\n':
+          the_builder.append("\\n");
+          break;
+        case '\r':
+          the_builder.append("\\r");
+          break;
+        default:
+          the_builder.append(c);
+      }
+    }
+    return the_builder;
+  }
+}
@@ -0,0 +1,295 @@
+/*
+ * Free & Fair Colorado RLA System
+ *
+ * @title ColoradoRLA
+ * @created Oct 18, 2026
+ * @copyright 2017 Colorado Department of State
+ * @license SPDX-License-Identifier: AGPL-3.0-or-later
+ * @creator agent <agent@local>
+ * @description A system to assist in conducting statewide risk-limiting audits.
+ */
+
+package us.freeandfair.corla.csv;
+
+import java.util.Iterator;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.function.BiFunction;
+import java.util.function.Consumer;
+
+import org.apache.commons.csv.CSVRecord;
+
+import us.freeandfair.corla.model.CastVoteRecord;
+
+/**
+ * A pipeline for the CVR lines of an export file. One thread reads and
+ * tokenizes the lines; a second thread turns each line into a CVR and adds
+ * it to the contest tallies; and the thread that calls take() persists the
+ * CVRs, so that it can use its own Hibernate session and transaction. The
+ * stages are linked by bounded queues, so a slow writer holds back the
+ * other stages rather than letting them fill memory.
+ *
+ * The CVR stage stops at the first line it cannot turn into a CVR, so the
+ * writer sees exactly the sequence of CVRs (followed by the malformed
+ * line, if any) that a single-threaded parse would have produced. Anything
+ * thrown in either worker thread, including errors, ends the pipeline and 
+ * is rethrown by take(), so the writer never waits for an item that will
+ * not arrive.
+ *
+ * @author agent <agent@local>
+ * @version 1.0.0
+ */
+@SuppressWarnings("PMD.DoNotUseThreads")
+class CVRImportPipeline {
+  /**
+   * The end-of-stream marker.
+   */
+  private static final Item END = new Item(null, null, null);
+
+  /**
+   * The queue of tokenized lines.
+   */
+  private final BlockingQueue<Item> my_lines;
+
+  /**
+   * The queue of extracted CVRs.
+   */
+  private final BlockingQueue<Item> my_cvrs;
+
+  /**
+   * The tokenizer thread.
+   */
+  private final Thread my_tokenizer;
+
+  /**
+   * The CVR extraction thread.
+   */
+  private final Thread my_extractor;
+
+  /**
+   * A flag indicating that the pipeline has been stopped.
+   */
+  private volatile boolean my_stopped;
+
+  /**
+   * Constructs a new pipeline.
+   *
+   * @param the_name The name of the pipeline, used to name its threads.
+   * @param the_records The iterator over the CVR lines; it must not be used
+   * by any other thread once the pipeline is started.
+   * @param the_first_sequence_number The sequence number of the first line.
+   * @param the_extractor The function that extracts a CVR from a line, given
+   * the line and its sequence number; it returns null if the line is malformed.
+   * @param the_tally The consumer that adds each extracted CVR to the tallies.
+   * @param the_capacity The capacity of each queue.
+   */
+  CVRImportPipeline(final String the_name, final Iterator<CSVRecord> the_records,
+                    final int the_first_sequence_number,
+                    final BiFunction<CSVRecord, Integer, CastVoteRecord> the_extractor,
+                    final Consumer<CastVoteRecord> the_tally,
+                    final int the_capacity) {
+    my_lines = new ArrayBlockingQueue<>(the_capacity);
+    my_cvrs = new ArrayBlockingQueue<>(the_capacity);
+    my_tokenizer = new Thread(() -> tokenize(the_records), the_name + "-tokenizer");
+    my_extractor =
+        new Thread(() -> extract(the_first_sequence_number, the_extractor, the_tally),
+                   the_name + "-extractor");
+    my_tokenizer.setDaemon(true);
+    my_extractor.setDaemon(true);
+  }
+
+  /**
+   * Starts the pipeline.
+   */
+  public void start() {
+    my_tokenizer.start();
+    my_extractor.start();
+  }
+
+  /**
+   * Stops the pipeline. This method must be called once the caller stops
+   * calling take(), whether or not the end of the pipeline was reached.
+   */
+  public void stop() {
+    my_stopped = true;
+    my_tokenizer.interrupt();
+    my_extractor.interrupt();
+  }
+
+  /**
+   * Takes the next item from the end of the pipeline, waiting if necessary.
+   *
+   * @return the next item; an item with a null CVR and a null line marks
+   * the end of the file, and an item with a null CVR and a non-null line
+   * is the malformed line at which extraction stopped.
+   * @exception RuntimeException if a worker thread failed with that
+   * exception.
+   * @exception Error if a worker thread failed with that error.
+   * @exception IllegalStateException if the calling thread is interrupted
+   * while waiting.
+   */
+  public Item take() {
+    final Item result;
+    try {
+      result = my_cvrs.take();
+    } catch (final InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new IllegalStateException("interrupted while importing CVRs", e);
+    }
+    if (result.failure() instanceof Error) {
+      throw (Error) result.failure();
+    } else if (result.failure() != null) {
+      throw propagate(result.failure());
+    }
+    return result;
+  }
+
+  /**
+   * Converts a failure of a worker thread that is not an error into an 
+   * unchecked exception.
+   *
+   * @param the_failure The failure.
+   * @return the failure, if it is a runtime exception, or a runtime 
+   * exception wrapping it otherwise.
+   */
+  private static RuntimeException propagate(final Throwable the_failure) {
+    final RuntimeException result;
+    if (the_failure instanceof RuntimeException) {
+      result = (RuntimeException) the_failure;
+    } else {
+      result = new IllegalStateException("CVR import failed", the_failure);
+    }
+    return result;
+  }
+
+  /**
+   * Reads lines from the file and passes them to the extractor.
+   *
+   * @param the_records The iterator over the lines.
+   */
+  @SuppressWarnings("PMD.AvoidCatchingThrowable")
+  private void tokenize(final Iterator<CSVRecord> the_records) {
+    Item last = END;
+    try {
+      while (!my_stopped && the_records.hasNext()) {
+        my_lines.put(new Item(the_records.next(), null, null));
+      }
+    } catch (final InterruptedException e) {
+      // we've been stopped
+      return;
+    } catch (final Throwable e) {
+      last = new Item(null, null, e);
+    }
+    deliver(my_lines, last);
+  }
+
+  /**
+   * Extracts CVRs from lines, tallies them, and passes them to the writer.
+   *
+   * @param the_first_sequence_number The sequence number of the first line.
+   * @param the_extractor The extraction function.
+   * @param the_tally The tally consumer.
+   */
+  @SuppressWarnings("PMD.AvoidCatchingThrowable")
+  private void extract(final int the_first_sequence_number,
+                       final BiFunction<CSVRecord, Integer, CastVoteRecord> the_extractor,
+                       final Consumer<CastVoteRecord> the_tally) {
+    Item last = END;
+    int sequence_number = the_first_sequence_number;
+    try {
+      Item item = my_lines.take();
+      while (item.line() != null) {
+        final CastVoteRecord cvr = the_extractor.apply(item.line(), sequence_number);
+        if (cvr == null) {
+          last = item;
+          break;
+        }
+        the_tally.accept(cvr);
+        my_cvrs.put(new Item(item.line(), cvr, null));
+        sequence_number = sequence_number + 1;
+        item = my_lines.take();
+      }
+      if (item.failure() != null) {
+        last = item;
+      }
+    } catch (final InterruptedException e) {
+      // we've been stopped
+      return;
+    } catch (final Throwable e) {
+      last = new Item(null, null, e);
+    }
+    deliver(my_cvrs, last);
+  }
+
+  /**
+   * Puts the final item of a stage on its queue, unless the pipeline has
+   * been stopped.
+   *
+   * @param the_queue The queue.
+   * @param the_item The item.
+   */
+  private void deliver(final BlockingQueue<Item> the_queue, final Item the_item) {
+    try {
+      if (!my_stopped) {
+        the_queue.put(the_item);
+      }
+    } catch (final InterruptedException e) {
+      // we've been stopped
+    }
+  }
+
+  /**
+   * An item passed between pipeline stages.
+   */
+  static final class Item {
+    /**
+     * The line.
+     */
+    private final CSVRecord my_line;
+
+    /**
+     * The CVR.
+     */
+    private final CastVoteRecord my_cvr;
+
+    /**
+     * The failure.
+     */
+    private final Throwable my_failure;
+
+    /**
+     * Constructs a new item.
+     *
+     * @param the_line The line.
+     * @param the_cvr The CVR.
+     * @param the_failure The failure.
+     */
+    Item(final CSVRecord the_line, final CastVoteRecord the_cvr,
+         final Throwable the_failure) {
+      my_line = the_line;
+      my_cvr = the_cvr;
+      my_failure = the_failure;
+    }
+
+    /**
+     * @return the line, or null if this item marks the end of a stage.
+     */
+    public CSVRecord line() {
+      return my_line;
+    }
+
+    /**
+     * @return the CVR, or null if none was extracted.
+     */
+    public CastVoteRecord cvr() {
+      return my_cvr;
+    }
+
+    /**
+     * @return the failure, or null if there was none.
+     */
+    public Throwable failure() {
+      return my_failure;
+    }
+  }
+}
@@ -35,6 +35,7 @@ import org.apache.commons.csv.CSVRecord;
 
 import us.freeandfair.corla.Main;
 import us.freeandfair.corla.model.CVRContestInfo;
+import us.freeandfair.corla.model.CVRImportCheckpoint;
 import us.freeandfair.corla.model.CastVoteRecord;
 import us.freeandfair.corla.model.CastVoteRecord.RecordType;
 import us.freeandfair.corla.model.Choice;
@@ -43,6 +44,7 @@ import us.freeandfair.corla.model.County;
 import us.freeandfair.corla.model.CountyContestResult;
 import us.freeandfair.corla.model.CountyDashboard;
 import us.freeandfair.corla.persistence.Persistence;
+import us.freeandfair.corla.query.ContestQueries;
 import us.freeandfair.corla.query.CountyContestResultQueries;
 import us.freeandfair.corla.util.ExponentialBackoffHelper;
 
@@ -65,6 +67,24 @@ public class DominionCVRExportParser implements CVRExportParser {
    */
   public static final String BATCH_SIZE_PROPERTY = "cvr_import_batch_size";
   
+  /**
+   * The name of the import engine property; its value is either "hibernate"
+   * (the default) or "copy".
+   */
+  public static final String ENGINE_PROPERTY = "cvr_import_engine";
+  
+  /**
+   * The value of the import engine property that selects the COPY engine.
+   */
+  public static final String COPY_ENGINE = "copy";
+  
+  /**
+   * The name of the queue size property; if it is positive, CVR lines are
+   * parsed in a pipeline whose queues hold that many records, and if it is 0,
+   * they are parsed sequentially.
+   */
+  public static final String QUEUE_SIZE_PROPERTY = "cvr_import_queue_size";
+  
   /**
    * The number of times to retry a county dashboard update operation.
    */
@@ -90,6 +110,11 @@ public class DominionCVRExportParser implements CVRExportParser {
    */
   private static final int DEFAULT_TRANSACTION_SIZE = 400;
   
+  /**
+   * The default size of the pipeline queues.
+   */
+  private static final int DEFAULT_QUEUE_SIZE = 1000;
+  
   /**
    * The column containing the CVR number in a Dominion export file.
    */
@@ -217,6 +242,32 @@ public class DominionCVRExportParser implements CVRExportParser {
    */
   private final boolean my_multi_transaction;
   
+  /**
+   * The COPY loader used to write CVRs, or null if CVRs are written 
+   * through Hibernate.
+   */
+  private final CVRCopyLoader my_copy_loader;
+  
+  /**
+   * The size of the pipeline queues, or 0 to parse sequentially.
+   */
+  private final int my_queue_size;
+  
+  /**
+   * The checkpoint updated with each commit, or null if no checkpoint is kept.
+   */
+  private final CVRImportCheckpoint my_checkpoint;
+  
+  /**
+   * A flag indicating whether we are resuming an interrupted import.
+   */
+  private final boolean my_resuming;
+  
+  /**
+   * The character position of the most recently persisted CVR line.
+   */
+  private long my_last_position = -1;
+  
   /**
    * Construct a new Dominion CVR export parser using the specified Reader,
    * for CVRs provided by the specified county.
@@ -229,12 +280,19 @@ public class DominionCVRExportParser implements CVRExportParser {
    * false otherwise. If this is true, the parser assumes that a transaction is
    * in progress when invoked, and periodically commits that transaction and 
    * starts a new one to continue parsing, leaving a transaction open at completion.
+   * @param the_checkpoint The checkpoint to update with each commit, or null to 
+   * keep no checkpoint. If the checkpoint records imported CVRs, the parse 
+   * resumes the import it describes: the CVRs and contests already in the 
+   * database are kept, and parsing continues after the last committed CVR line.
    * @exception IOException if an error occurs while constructing the parser.
    */
   public DominionCVRExportParser(final Reader the_reader, final County the_county,
                                  final Properties the_properties,
-                                 final boolean the_multi_transaction) 
+                                 final boolean the_multi_transaction,
+                                 final CVRImportCheckpoint the_checkpoint) 
       throws IOException {
+    my_checkpoint = the_checkpoint;
+    my_resuming = the_checkpoint != null && the_checkpoint.recordCount() > 0;
     my_parser = new CSVParser(the_reader, CSVFormat.DEFAULT);
     my_county = the_county;
     my_multi_transaction = the_multi_transaction;
@@ -242,6 +300,12 @@ public class DominionCVRExportParser implements CVRExportParser {
                                   DEFAULT_BATCH_SIZE);
     my_transaction_size = parseProperty(the_properties, TRANSACTION_SIZE_PROPERTY, 
                                         DEFAULT_TRANSACTION_SIZE);
+    my_queue_size = parseProperty(the_properties, QUEUE_SIZE_PROPERTY, DEFAULT_QUEUE_SIZE);
+    if (COPY_ENGINE.equalsIgnoreCase(the_properties.getProperty(ENGINE_PROPERTY, "").trim())) {
+      my_copy_loader = new CVRCopyLoader();
+    } else {
+      my_copy_loader = null;
+    }
   }
   
   /**
@@ -259,6 +323,10 @@ public class DominionCVRExportParser implements CVRExportParser {
     my_multi_transaction = false;
     my_batch_size = DEFAULT_BATCH_SIZE;
     my_transaction_size = DEFAULT_TRANSACTION_SIZE;
+    my_copy_loader = null;
+    my_queue_size = 0;
+    my_checkpoint = null;
+    my_resuming = false;
   }
   
   /**
@@ -345,8 +413,11 @@ public class DominionCVRExportParser implements CVRExportParser {
    * @param the_contest_names The list of contest names.
    * @param the_votes_allowed The table of votes allowed values.
    * @param the_choice_counts The table of contest choice counts.
+   * @return true if the contests were added, false if we are resuming an
+   * import and they do not match its contests; this method also sets the
+   * error message if necessary.
    */
-  private void addContests(final CSVRecord the_choice_line, 
+  private boolean addContests(final CSVRecord the_choice_line, 
                            final CSVRecord the_expl_line, 
                            final List<String> the_contest_names,
                            final Map<String, Integer> the_votes_allowed,
@@ -377,16 +448,73 @@ public class DominionCVRExportParser implements CVRExportParser {
       // note that we're using the "Vote For" number as the number of winners
       // allowed as well, because the Dominion format doesn't give us that
       // separately
-      final Contest c = new Contest(cn, my_county, "", choices, 
-                                    the_votes_allowed.get(cn), the_votes_allowed.get(cn),
-                                    contest_count);
+      final Contest c = contestFor(new Contest(cn, my_county, "", choices, 
+                                               the_votes_allowed.get(cn), 
+                                               the_votes_allowed.get(cn),
+                                               contest_count));
+      if (c == null) {
+        my_error_message = "CVR file does not match interrupted import";
+        return false;
+      }
       contest_count = contest_count + 1;
-      Persistence.saveOrUpdate(c);
       final CountyContestResult r = 
           CountyContestResultQueries.matching(my_county, c);
       my_contests.add(c);
       my_results.add(r);
     }
+    return true;
+  }
+  
+  /**
+   * Gets the persistent contest for a contest parsed from the file. If we 
+   * are resuming an import, this is the matching contest it created; 
+   * otherwise, it is the parsed contest, which is saved.
+   * 
+   * @param the_contest The parsed contest.
+   * @return the persistent contest, or null if we are resuming an import
+   * and it has no matching contest.
+   */
+  private Contest contestFor(final Contest the_contest) {
+    if (!my_resuming) {
+      Persistence.saveOrUpdate(the_contest);
+      return the_contest;
+    }
+    for (final Contest c : ContestQueries.forCounty(my_county)) {
+      if (c.equals(the_contest)) {
+        return c;
+      }
+    }
+    return null;
+  }
+  
+  /**
+   * If we are resuming an import, restores the tallies recorded in its
+   * checkpoint and skips the CVR lines it already imported.
+   * 
+   * @param the_records The iterator over the CVR lines.
+   * @return true if parsing can continue, false if the file does not match
+   * the checkpoint; this method also sets the error message if necessary.
+   */
+  private boolean resumeFromCheckpoint(final Iterator<CSVRecord> the_records) {
+    if (!my_resuming) {
+      return true;
+    }
+    long position = -1;
+    for (int i = 0; i < my_checkpoint.recordCount() && the_records.hasNext(); i++) {
+      position = the_records.next().getCharacterPosition();
+    }
+    if (position != my_checkpoint.characterPosition()) {
+      my_error_message = "CVR file does not match interrupted import";
+      return false;
+    }
+    for (final CountyContestResult r : my_results) {
+      my_checkpoint.restore(r);
+    }
+    my_record_count = my_checkpoint.recordCount();
+    my_last_position = position;
+    Main.LOGGER.info("resuming CVR import for county " + my_county.id() + 
+                     " after " + my_record_count + " CVRs");
+    return true;
   }
   
   /**
@@ -399,6 +527,9 @@ public class DominionCVRExportParser implements CVRExportParser {
     }
     
     if (my_record_count % my_batch_size == 0) {
+      if (my_copy_loader != null) {
+        my_copy_loader.flush();
+      }
       Persistence.flush();
       for (final CastVoteRecord cvr : my_parsed_cvrs) {
         Persistence.evict(cvr);
@@ -412,7 +543,15 @@ public class DominionCVRExportParser implements CVRExportParser {
    * accordingly.
    */
   private void commitCVRsAndUpdateCountyDashboard() {
-    // commit all the CVR records and contest tracking data
+    // commit all the CVR records and contest tracking data, along with
+    // a checkpoint describing them
+    if (my_copy_loader != null) {
+      my_copy_loader.flush();
+    }
+    if (my_checkpoint != null) {
+      my_checkpoint.update(my_record_count, my_last_position, my_results);
+      Persistence.saveOrUpdate(my_checkpoint);
+    }
     Persistence.commitTransaction();
     
     boolean success = false;
@@ -471,11 +610,12 @@ public class DominionCVRExportParser implements CVRExportParser {
    * Extract a CVR from a line of the file.
    * 
    * @param the_line The line representing the CVR.
-   * @param the_timestamp The import timestamp.
-   * @return the resulting CVR.
+   * @param the_sequence_number The sequence number of the CVR.
+   * @return the resulting CVR, or null if the line is malformed.
    */
   @SuppressWarnings("PMD.CyclomaticComplexity")
-  private CastVoteRecord extractCVR(final CSVRecord the_line) {
+  private CastVoteRecord extractCVR(final CSVRecord the_line,
+                                    final Integer the_sequence_number) {
     try {
       final int cvr_id =
           Integer.parseInt(stripEqualQuotes(the_line.get(my_columns.get(CVR_NUMBER_HEADER))));
@@ -520,16 +660,9 @@ public class DominionCVRExportParser implements CVRExportParser {
       // appear twice here too. 
       final CastVoteRecord new_cvr = 
           new CastVoteRecord(RecordType.UPLOADED, null, my_county.id(),
-                             cvr_id, my_record_count, tabulator_id, 
+                             cvr_id, the_sequence_number, tabulator_id, 
                              batch_id, record_id, imprinted_id, 
                              ballot_type, contest_info);
-      Persistence.saveOrUpdate(new_cvr);
-      my_parsed_cvrs.add(new_cvr);
-      
-      // add the CVR to all of our results
-      for (final CountyContestResult r : my_results) {
-        r.addCVR(new_cvr);
-      }
       Main.LOGGER.debug("parsed CVR: " + new_cvr);
       return new_cvr;
     } catch (final NumberFormatException e) {
@@ -539,6 +672,125 @@ public class DominionCVRExportParser implements CVRExportParser {
     }
   }
   
+  /**
+   * Adds a CVR to all of our results. The CVR's contest information is in 
+   * the same order as our contests, so it is walked once alongside them 
+   * rather than searched for each contest.
+   * 
+   * @param the_cvr The CVR.
+   */
+  private void tallyCVR(final CastVoteRecord the_cvr) {
+    final List<CVRContestInfo> infos = the_cvr.contestInfo();
+    int next = 0;
+    for (int i = 0; i < my_results.size(); i++) {
+      CVRContestInfo info = null;
+      if (next < infos.size() && infos.get(next).contest() == my_contests.get(i)) {
+        info = infos.get(next);
+        next = next + 1;
+      }
+      my_results.get(i).addBallot(info);
+    }
+  }
+  
+  /**
+   * Tallies a CVR on the pipeline's extraction thread, which runs ahead of
+   * the commits, and gives the checkpoint the tallies at each commit point.
+   * 
+   * @param the_cvr The CVR.
+   */
+  private void tallyPipelinedCVR(final CastVoteRecord the_cvr) {
+    tallyCVR(the_cvr);
+    final int count = the_cvr.sequenceNumber() + 1;
+    if (my_checkpoint != null && my_multi_transaction && count % my_transaction_size == 0) {
+      my_checkpoint.snapshot(count, my_results);
+    }
+  }
+  
+  /**
+   * Persists a CVR and flushes or commits as necessary.
+   * 
+   * @param the_cvr The CVR.
+   * @param the_line The line from which the CVR was extracted.
+   */
+  private void persistCVR(final CastVoteRecord the_cvr, final CSVRecord the_line) {
+    if (my_copy_loader == null) {
+      Persistence.saveOrUpdate(the_cvr);
+      my_parsed_cvrs.add(the_cvr);
+    } else {
+      my_copy_loader.add(the_cvr);
+    }
+    // in a pipelined parse, the CVRs were tallied when they were extracted
+    if (my_queue_size <= 0) {
+      tallyCVR(the_cvr);
+    }
+    my_last_position = the_line.getCharacterPosition();
+    my_record_count = my_record_count + 1;
+    if (my_record_count % PROGRESS_INTERVAL == 0) {
+      Main.LOGGER.info("parsed " + my_record_count + 
+                       " CVRs for county " + my_county.id());
+    }
+    checkForFlush();
+  }
+  
+  /**
+   * Records that a CVR line could not be parsed.
+   * 
+   * @param the_line The line.
+   */
+  private void malformedCVR(final CSVRecord the_line) {
+    // we don't record the CVR since it didn't parse
+    Main.LOGGER.error("Could not parse malformed CVR record (" + the_line + ")");
+    my_error_message = "malformed CVR record (" + the_line + ")";
+  }
+  
+  /**
+   * Parses and persists the CVR lines of the file sequentially.
+   * 
+   * @param the_records The iterator over the CVR lines.
+   * @return true if all the lines were parsed, false otherwise.
+   */
+  private boolean parseCVRs(final Iterator<CSVRecord> the_records) {
+    while (the_records.hasNext()) {
+      final CSVRecord cvr_line = the_records.next();
+      final CastVoteRecord cvr = extractCVR(cvr_line, my_record_count);
+      if (cvr == null) {
+        malformedCVR(cvr_line);
+        return false;
+      }
+      persistCVR(cvr, cvr_line);
+    }
+    return true;
+  }
+  
+  /**
+   * Parses the CVR lines of the file in a pipeline, persisting them on 
+   * the calling thread so that they are written in its transactions.
+   * 
+   * @param the_records The iterator over the CVR lines.
+   * @return true if all the lines were parsed, false otherwise.
+   */
+  private boolean parseCVRsPipelined(final Iterator<CSVRecord> the_records) {
+    final CVRImportPipeline pipeline = 
+        new CVRImportPipeline("cvr-import-" + my_county.id(), the_records, 
+                              my_record_count, this::extractCVR, 
+                              this::tallyPipelinedCVR, my_queue_size);
+    pipeline.start();
+    try {
+      CVRImportPipeline.Item item = pipeline.take();
+      while (item.cvr() != null) {
+        persistCVR(item.cvr(), item.line());
+        item = pipeline.take();
+      }
+      if (item.line() != null) {
+        malformedCVR(item.line());
+        return false;
+      }
+      return true;
+    } finally {
+      pipeline.stop();
+    }
+  }
+  
   /**
    * Processes the headers from the specified CSV record. This includes checking
    * for the use of forbidden headers, and that all required headers are 
@@ -648,7 +900,8 @@ public class DominionCVRExportParser implements CVRExportParser {
     
     Main.LOGGER.info("parsing CVR export for county " + my_county.id() + 
                      ", batch_size=" + my_batch_size + 
-                     ", transaction_size=" + my_transaction_size);
+                     ", transaction_size=" + my_transaction_size +
+                     ", copy_engine=" + (my_copy_loader != null));
     
     boolean result = true; // presume the parse will succeed
     final Iterator<CSVRecord> records = my_parser.iterator();
@@ -686,28 +939,16 @@ public class DominionCVRExportParser implements CVRExportParser {
       final CSVRecord choice_line = records.next();
       final CSVRecord expl_line = records.next();
       
-      if (processHeaders(expl_line)) {
-        addContests(choice_line, expl_line, contest_names,
-                    contest_votes_allowed, contest_choice_counts);
+      if (processHeaders(expl_line) && 
+          addContests(choice_line, expl_line, contest_names,
+                      contest_votes_allowed, contest_choice_counts) &&
+          resumeFromCheckpoint(records)) {
 
         // subsequent lines contain cast vote records
-        while (records.hasNext()) {
-          final CSVRecord cvr_line = records.next();
-          final CastVoteRecord cvr = extractCVR(cvr_line);
-          if (cvr == null) {
-            // we don't record the CVR since it didn't parse
-            Main.LOGGER.error("Could not parse malformed CVR record (" + cvr_line + ")");
-            my_error_message = "malformed CVR record (" + cvr_line + ")";
-            result = false;   
-            break;
-          } else {
-            my_record_count = my_record_count + 1;
-            if (my_record_count % PROGRESS_INTERVAL == 0) {
-              Main.LOGGER.info("parsed " + my_record_count + 
-                               " CVRs for county " + my_county.id());
-            }
-          }
-          checkForFlush();
+        if (my_queue_size > 0) {
+          result = parseCVRsPipelined(records);
+        } else {
+          result = parseCVRs(records);
         }
         
         for (final CountyContestResult r : my_results) {
@@ -719,7 +960,7 @@ public class DominionCVRExportParser implements CVRExportParser {
         
         commitCVRsAndUpdateCountyDashboard();
       } else {
-        // error message was set when validating columns
+        // error message was set when validating columns or the checkpoint
         result = false;
       }
     } catch (final NoSuchElementException | StringIndexOutOfBoundsException |
@@ -0,0 +1,196 @@
+/*
+ * Free & Fair Colorado RLA System
+ *
+ * @title ColoradoRLA
+ * @created Oct 18, 2026
+ * @copyright 2017 Colorado Department of State
+ * @license SPDX-License-Identifier: AGPL-3.0-or-later
+ * @creator agent <agent@local>
+ * @description A system to assist in conducting statewide risk-limiting audits.
+ */
+
+package us.freeandfair.corla.endpoint;
+
+import static us.freeandfair.corla.asm.ASMEvent.AuditBoardDashboardEvent.*;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+
+import javax.persistence.PersistenceException;
+
+import com.google.gson.JsonParseException;
+
+import spark.Request;
+import spark.Response;
+
+import us.freeandfair.corla.Main;
+import us.freeandfair.corla.asm.ASMEvent;
+import us.freeandfair.corla.controller.ComparisonAuditController;
+import us.freeandfair.corla.json.AuditCVRSubmissionResponse;
+import us.freeandfair.corla.json.SubmittedAuditCVR;
+import us.freeandfair.corla.model.CastVoteRecord;
+import us.freeandfair.corla.model.CastVoteRecord.RecordType;
+import us.freeandfair.corla.model.CountyDashboard;
+import us.freeandfair.corla.persistence.Persistence;
+
+/**
+ * The "audit CVR batch upload" endpoint. It accepts an ordered array of
+ * audit CVR submissions, such as an audit board queues while working
+ * offline, and processes them as the "audit CVR upload" endpoint would,
+ * in order, but in a single transaction and with a single update of the
+ * dashboard's round state and a single ASM transition at the end. The
+ * response contains a result for each submission; a submission that is
+ * rejected does not prevent the others from being accepted.
+ *
+ * @author agent <agent@local>
+ * @version 1.0.0
+ */
+@SuppressWarnings({"PMD.AtLeastOneConstructor", "PMD.CyclomaticComplexity"})
+public class ACVRBatchUpload extends AbstractAuditBoardDashboardEndpoint {
+  /**
+   * The event we will return for the ASM.
+   */
+  private final ThreadLocal<ASMEvent> my_event = new ThreadLocal<ASMEvent>();
+
+  /**
+   * {@inheritDoc}
+   */
+  @Override
+  public EndpointType endpointType() {
+    return EndpointType.POST;
+  }
+
+  /**
+   * {@inheritDoc}
+   */
+  @Override
+  public String endpointName() {
+    return "/upload-audit-cvrs";
+  }
+
+  /**
+   * {@inheritDoc}
+   */
+  @Override
+  protected ASMEvent endpointEvent() {
+    return my_event.get();
+  }
+
+  /**
+   * {@inheritDoc}
+   */
+  @Override
+  protected void reset() {
+    my_event.set(null);
+  }
+
+  /**
+   * {@inheritDoc}
+   */
+  @Override
+  public String endpointBody(final Request the_request, final Response the_response) {
+    try {
+      final SubmittedAuditCVR[] submissions =
+          Main.GSON.fromJson(the_request.body(), SubmittedAuditCVR[].class);
+      if (submissions == null || submissions.length == 0) {
+        Main.LOGGER.error("empty audit CVR batch upload");
+        badDataContents(the_response, "empty audit CVR batch upload");
+      } else {
+        final CountyDashboard cdb =
+            Persistence.getByID(Main.authentication().authenticatedCounty(the_request).id(),
+                                CountyDashboard.class);
+        if (cdb == null) {
+          Main.LOGGER.error("could not get audit board dashboard");
+          serverError(the_response, "Could not save ACVRs to dashboard");
+        } else {
+          if (cdb.ballotsRemainingInCurrentRound() > 0) {
+            final List<AuditCVRSubmissionResponse> results = new ArrayList<>();
+            for (final SubmittedAuditCVR submission : submissions) {
+              results.add(submit(cdb, submission));
+            }
+            ComparisonAuditController.updateRoundState(cdb);
+            Persistence.saveOrUpdate(cdb);
+            okJSON(the_response, Main.GSON.toJson(results));
+          } else {
+            invariantViolation(the_response,
+                               "ballot submission with no remaining ballots in round");
+          }
+          if (cdb.ballotsRemainingInCurrentRound() == 0) {
+            // the round is over
+            my_event.set(ROUND_COMPLETE_EVENT);
+          } else {
+            my_event.set(REPORT_MARKINGS_EVENT);
+          }
+        }
+      }
+    } catch (final JsonParseException e) {
+      Main.LOGGER.error("malformed audit CVR batch upload");
+      badDataContents(the_response, "malformed audit CVR batch upload");
+    } catch (final PersistenceException e) {
+      Main.LOGGER.error("could not save audit CVRs");
+      serverError(the_response, "Unable to save audit CVRs");
+    }
+    return my_endpoint_result.get();
+  }
+
+  /**
+   * Submits a single audit CVR from the batch.
+   *
+   * @param the_cdb The dashboard.
+   * @param the_submission The submission.
+   * @return the result of the submission.
+   */
+  private AuditCVRSubmissionResponse submit(final CountyDashboard the_cdb,
+                                            final SubmittedAuditCVR the_submission) {
+    final AuditCVRSubmissionResponse result;
+    if (the_submission == null || the_submission.auditCVR() == null ||
+        the_submission.cvrID() == null) {
+      result = rejected(the_submission, "empty audit CVR upload");
+    } else if (the_cdb.ballotsRemainingInCurrentRound() == 0) {
+      result = rejected(the_submission, "no remaining ballots in round");
+    } else {
+      final CastVoteRecord cvr =
+          Persistence.getByID(the_submission.cvrID(), CastVoteRecord.class);
+      if (cvr == null) {
+        result = rejected(the_submission, "could not find original CVR");
+      } else {
+        final CastVoteRecord acvr = the_submission.auditCVR();
+        final CastVoteRecord real_acvr =
+            new CastVoteRecord(RecordType.AUDITOR_ENTERED, Instant.now(),
+                               acvr.countyID(), acvr.cvrNumber(), null, acvr.scannerID(),
+                               acvr.batchID(), acvr.recordID(), acvr.imprintedID(),
+                               acvr.ballotType(), acvr.contestInfo());
+        Persistence.saveOrUpdate(real_acvr);
+        Main.LOGGER.info("Audit CVR for CVR id " + the_submission.cvrID() +
+                         " parsed and stored as id " + real_acvr.id());
+        if (ComparisonAuditController.recordAuditCVR(the_cdb, cvr, real_acvr)) {
+          result = new AuditCVRSubmissionResponse(the_submission.cvrID(), true,
+                                                  "ACVR submitted");
+        } else {
+          // the rest of the batch is committed, so the rejected ACVR must not be
+          Persistence.delete(real_acvr);
+          result = rejected(the_submission, "invalid audit CVR uploaded");
+        }
+      }
+    }
+    return result;
+  }
+
+  /**
+   * Logs a rejected submission and creates its result.
+   *
+   * @param the_submission The submission.
+   * @param the_reason The reason for the rejection.
+   * @return the result.
+   */
+  private AuditCVRSubmissionResponse rejected(final SubmittedAuditCVR the_submission,
+                                              final String the_reason) {
+    Long cvr_id = null;
+    if (the_submission != null) {
+      cvr_id = the_submission.cvrID();
+    }
+    Main.LOGGER.error("rejected audit CVR for CVR id " + cvr_id + ": " + the_reason);
+    return new AuditCVRSubmissionResponse(cvr_id, false, the_reason);
+  }
+}
@@ -13,17 +13,26 @@ package us.freeandfair.corla.endpoint;
 
 import static us.freeandfair.corla.model.Administrator.AdministratorType.*;
 
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
 import java.time.Instant;
 import java.util.ArrayList;
 import java.util.List;
 
 import javax.persistence.PersistenceException;
+import javax.servlet.http.HttpServletResponse;
 
 import org.apache.commons.lang3.exception.ExceptionUtils;
 import org.apache.log4j.Level;
 import org.eclipse.jetty.http.HttpStatus;
 import org.hibernate.HibernateException;
 
+import com.google.gson.JsonIOException;
+import com.google.gson.stream.JsonWriter;
+
 import spark.HaltException;
 import spark.Request;
 import spark.Response;
@@ -34,11 +43,13 @@ import us.freeandfair.corla.asm.ASMEvent;
 import us.freeandfair.corla.asm.ASMUtilities;
 import us.freeandfair.corla.asm.AbstractStateMachine;
 import us.freeandfair.corla.auth.AuthenticationInterface;
+import us.freeandfair.corla.controller.LogSequencer;
 import us.freeandfair.corla.json.Result;
 import us.freeandfair.corla.model.Administrator;
 import us.freeandfair.corla.model.LogEntry;
+import us.freeandfair.corla.model.PendingLogEntry;
 import us.freeandfair.corla.persistence.Persistence;
-import us.freeandfair.corla.query.LogEntryQueries;
+import us.freeandfair.corla.util.SparkHelper;
 import us.freeandfair.corla.util.SuppressFBWarnings;
 
 /**
@@ -73,6 +84,16 @@ public abstract class AbstractEndpoint implements Endpoint {
    */
   public static final String RETRY_AFTER_DELAY = "10";
 
+  /**
+   * The ETag header.
+   */
+  public static final String ETAG = "ETag";
+  
+  /**
+   * The If-None-Match header.
+   */
+  public static final String IF_NONE_MATCH = "If-None-Match";
+
   /**
    * The ASM for this endpoint.
    */
@@ -178,10 +199,11 @@ public abstract class AbstractEndpoint implements Endpoint {
       return true;
     }
     try {
-      // this asmFor() will be a no-op in nearly all cases, but in multi-transaction
-      // endpoint hits like uploading large CVR imports, it is possible for the
-      // state to change out from underneath us
-      my_asm.set(ASMUtilities.asmFor(asmClass(), my_asm.get().identity()));
+      // the state is read again, bypassing the cache: the cached state the ASM
+      // was checked against may be stale, and in multi-transaction endpoint
+      // hits like uploading large CVR imports, it is possible for the state
+      // to change out from underneath us
+      my_asm.set(ASMUtilities.uncachedASMFor(asmClass(), my_asm.get().identity()));
       my_asm.get().stepEvent(endpointEvent());
     } catch (final IllegalStateException e) {
       illegalTransition(the_response, e.getMessage(), false);
@@ -228,6 +250,104 @@ public abstract class AbstractEndpoint implements Endpoint {
     my_endpoint_result.set(the_json);
   }
   
+  /**
+   * Indicate and log that the client's cached copy of the response, with
+   * the specified entity tag, is still current.
+   * 
+   * @param the_response The HTTP response.
+   * @param the_entity_tag The entity tag.
+   */
+  public void notModified(final Response the_response, final String the_entity_tag) {
+    my_log_entries.get().add(new LogEntry(HttpStatus.NOT_MODIFIED_304, endpointName(), 
+                                          Instant.now()));
+    my_status.set(HttpStatus.NOT_MODIFIED_304);
+    the_response.header(ETAG, the_entity_tag);
+    my_endpoint_result.set("");
+  }
+  
+  /**
+   * Checks an entity tag for a response; if it matches one in the request's
+   * If-None-Match header, the client's cached copy is current and this
+   * method responds with notModified(). Otherwise, the caller must provide
+   * the response, typically with okJSON(Response, String, String).
+   * 
+   * @param the_request The HTTP request.
+   * @param the_response The HTTP response.
+   * @param the_entity_tag The entity tag, including its quotes.
+   * @return true if the response has been provided, false otherwise.
+   */
+  public boolean checkEntityTag(final Request the_request, final Response the_response,
+                                final String the_entity_tag) {
+    final String if_none_match = the_request.headers(IF_NONE_MATCH);
+    boolean result = false;
+    if (if_none_match != null) {
+      for (final String tag : if_none_match.split(",")) {
+        final String trimmed = tag.trim();
+        result |= "*".equals(trimmed) || trimmed.equals(the_entity_tag) ||
+                  trimmed.equals("W/" + the_entity_tag);
+      }
+    }
+    if (result) {
+      notModified(the_response, the_entity_tag);
+    }
+    return result;
+  }
+  
+  /**
+   * Indicate and log that the operation completed successfully, and
+   * send the specified JSON-formatted string with the specified entity tag.
+   * 
+   * @param the_response The HTTP response.
+   * @param the_json The JSON string to send as the body of the response.
+   * @param the_entity_tag The entity tag, including its quotes.
+   */
+  public void okJSON(final Response the_response, final String the_json,
+                     final String the_entity_tag) {
+    setEntityTag(the_response, the_entity_tag);
+    okJSON(the_response, the_json);
+  }
+  
+  /**
+   * Indicate and log that the operation completed successfully, and send
+   * JSON written by the specified body directly to the response's output
+   * stream, rather than built as a string. The status and headers are sent
+   * before the body is written, so this should only be used by endpoints
+   * that change nothing in persistent storage but their log entries; if
+   * writing the body fails, the client receives a truncated response. It
+   * is meant for responses whose size grows with the data, such as ballot 
+   * lists; small responses should use okJSON().
+   * 
+   * @param the_response The HTTP response.
+   * @param the_body The body, which is written with a JsonWriter configured
+   * like Main.GSON.
+   */
+  public void okJSONStream(final Response the_response, final JsonBody the_body) {
+    okJSON(the_response, "");
+    try {
+      final HttpServletResponse raw = SparkHelper.getRaw(the_response);
+      raw.setStatus(HttpStatus.OK_200);
+      try (Writer w = new BufferedWriter(new OutputStreamWriter(raw.getOutputStream(), 
+                                                                StandardCharsets.UTF_8));
+           JsonWriter jw = Main.GSON.newJsonWriter(w)) {
+        the_body.write(jw);
+      }
+    } catch (final IOException | JsonIOException e) {
+      serverError(the_response, "unable to stream response");
+    }
+  }
+  
+  /**
+   * Sets the entity tag headers of a response.
+   * 
+   * @param the_response The HTTP response.
+   * @param the_entity_tag The entity tag, including its quotes.
+   */
+  private void setEntityTag(final Response the_response, final String the_entity_tag) {
+    the_response.header(ETAG, the_entity_tag);
+    // clients must revalidate their cached copies on every use
+    the_response.header("Cache-Control", "no-cache");
+  }
+  
   /**
    * Indicate the client has violated an invariant or precondition relating data
    * to the endpoint in question. E.g., a digest is incorrect with regards to
@@ -500,13 +620,13 @@ public abstract class AbstractEndpoint implements Endpoint {
    * @param the_request The request (used to get the hostname of the client 
    * and the authentication data for the log).
    */
-  private void sendToLogger(final LogEntry the_log_entry) {
+  private void sendToLogger(final PendingLogEntry the_log_entry) {
     if (the_log_entry.resultCode() == null) {
       Main.LOGGER.log(logLevel(), 
                       the_log_entry.information() + " by " + 
                       the_log_entry.authenticationData() + " from " + 
                       the_log_entry.clientHost());
-    } else if (HttpStatus.isSuccess(the_log_entry.resultCode())) {
+    } else if (isSuccess(the_log_entry.resultCode())) {
       Main.LOGGER.log(logLevel(), 
                       "successful " + the_log_entry.information() + " by " + 
                       the_log_entry.authenticationData() + " from " + 
@@ -520,7 +640,6 @@ public abstract class AbstractEndpoint implements Endpoint {
   }
 
   private void persistLogEntries(final Request the_request) {
-    LogEntry previous_entry = LogEntryQueries.last();
     final Object admin_attribute = 
         the_request.session().attribute(AuthenticationInterface.ADMIN);
     final String admin_data;
@@ -531,14 +650,13 @@ public abstract class AbstractEndpoint implements Endpoint {
     }
     
     for (final LogEntry entry : my_log_entries.get()) {
-      // create and persist a new hash-chained log entry for each log entry
-      final LogEntry real_entry =
-          new LogEntry(entry.resultCode(), entry.information(), 
-                       admin_data, the_request.host(),
-                       entry.timestamp(), previous_entry);
-      Persistence.save(real_entry);
-      sendToLogger(real_entry);
-      previous_entry = real_entry;
+      // persist a pending log entry for each log entry; the log sequencer
+      // adds it to the hash chain after this transaction commits
+      final PendingLogEntry pending_entry =
+          new PendingLogEntry(entry.resultCode(), entry.information(), 
+                              admin_data, the_request.host(), entry.timestamp());
+      Persistence.save(pending_entry);
+      sendToLogger(pending_entry);
     }
   }
   
@@ -548,8 +666,16 @@ public abstract class AbstractEndpoint implements Endpoint {
    */
   private boolean successful() {
     return !my_log_entries.get().isEmpty() &&
-           HttpStatus.isSuccess(my_log_entries.
-                                get().get(my_log_entries.get().size() - 1).resultCode());
+           isSuccess(my_log_entries.get().get(my_log_entries.get().size() - 1).resultCode());
+  }
+  
+  /**
+   * @param the_code An HTTP status code.
+   * @return true if the code indicates success (including a current cached 
+   * copy), false otherwise.
+   */
+  private static boolean isSuccess(final int the_code) {
+    return HttpStatus.isSuccess(the_code) || the_code == HttpStatus.NOT_MODIFIED_304;
   }
   
   /**
@@ -567,6 +693,7 @@ public abstract class AbstractEndpoint implements Endpoint {
         persistLogEntries(the_request);
         Persistence.commitTransaction();
         my_log_entries.get().clear();
+        LogSequencer.wake();
       } catch (final PersistenceException e) {
         Main.LOGGER.error("could not persist log entries for error response after " + 
                           log_commit_retries + " attempt(s)");
@@ -593,6 +720,7 @@ public abstract class AbstractEndpoint implements Endpoint {
         persistLogEntries(the_request);
         Persistence.commitTransaction();
         my_log_entries.get().clear();
+        LogSequencer.wake();
       } catch (final PersistenceException e) {
         // this is an internal server error because we don't know what didn't
         // get committed
@@ -710,4 +838,18 @@ public abstract class AbstractEndpoint implements Endpoint {
       
     return result;
   }
+  
+  /**
+   * A JSON response body, written to a JsonWriter.
+   */
+  @FunctionalInterface
+  public interface JsonBody {
+    /**
+     * Writes the body.
+     * 
+     * @param the_writer The writer.
+     * @exception IOException if there is a problem writing the body.
+     */
+    void write(JsonWriter the_writer) throws IOException;
+  }
 }
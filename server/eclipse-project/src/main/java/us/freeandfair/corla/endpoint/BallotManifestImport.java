@@ -37,6 +37,7 @@ import us.freeandfair.corla.model.UploadedFile;
 import us.freeandfair.corla.model.UploadedFile.FileStatus;
 import us.freeandfair.corla.model.UploadedFile.HashStatus;
 import us.freeandfair.corla.persistence.Persistence;
+import us.freeandfair.corla.query.BallotLocationIndex;
 import us.freeandfair.corla.query.BallotManifestInfoQueries;
 
 /**
@@ -123,6 +124,8 @@ public class BallotManifestImport extends AbstractCountyDashboardEndpoint {
           new ColoradoBallotManifestParser(bmi_isr, 
                                            the_file.county().id());
       final int deleted = BallotManifestInfoQueries.deleteMatching(the_file.county().id());
+      final Long county_id = the_file.county().id();
+      Persistence.afterCommit(() -> BallotLocationIndex.invalidate(county_id));
       if (parser.parse()) {
         final int imported = parser.recordCount().getAsInt();
         Main.LOGGER.info(imported + " ballot manifest records parsed from file " + 
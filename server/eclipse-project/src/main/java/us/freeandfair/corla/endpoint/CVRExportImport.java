@@ -40,9 +40,11 @@ import us.freeandfair.corla.asm.ASMState;
 import us.freeandfair.corla.asm.ASMState.CountyDashboardState;
 import us.freeandfair.corla.asm.ASMUtilities;
 import us.freeandfair.corla.asm.CountyDashboardASM;
+import us.freeandfair.corla.controller.CVRImportScheduler;
 import us.freeandfair.corla.csv.DominionCVRExportParser;
 import us.freeandfair.corla.model.AuditReason;
 import us.freeandfair.corla.model.AuditType;
+import us.freeandfair.corla.model.CVRImportCheckpoint;
 import us.freeandfair.corla.model.CastVoteRecord.RecordType;
 import us.freeandfair.corla.model.ContestToAudit;
 import us.freeandfair.corla.model.County;
@@ -55,6 +57,7 @@ import us.freeandfair.corla.model.UploadedFile;
 import us.freeandfair.corla.model.UploadedFile.FileStatus;
 import us.freeandfair.corla.model.UploadedFile.HashStatus;
 import us.freeandfair.corla.persistence.Persistence;
+import us.freeandfair.corla.query.CVRSequenceIndex;
 import us.freeandfair.corla.query.CastVoteRecordQueries;
 import us.freeandfair.corla.query.CountyContestResultQueries;
 import us.freeandfair.corla.util.ExponentialBackoffHelper;
@@ -142,15 +145,24 @@ public class CVRExportImport extends AbstractCountyDashboardEndpoint {
           cdb.cvrFile().setStatus(FileStatus.NOT_IMPORTED);
           Persistence.saveOrUpdate(cdb.cvrFile());
         }
+        // mark the import as queued, flushing so that the importer's own 
+        // status updates cannot be overwritten when this transaction commits
+        cdb.setCVRImportStatus(new ImportStatus(ImportState.QUEUED));
+        Persistence.saveOrUpdate(cdb);
+        Persistence.flush();
         final Map<String, Instant> result = new HashMap<>();
         result.put("import_start_time", Instant.now());
-        // spawn a thread to do the import; this endpoint always immediately 
+        // schedule the import; this endpoint always immediately 
         // returns a successful result if we get to this point
         synchronized (COUNTIES_RUNNING) {
           // signal that we're starting the import
           COUNTIES_RUNNING.add(county.id());
         }
-        (new Thread(new CVRImporter(file))).start();
+        long size = Long.MAX_VALUE;
+        if (file.size() != null) {
+          size = file.size();
+        }
+        CVRImportScheduler.schedule(county.id(), size, new CVRImporter(file, false));
         
         okJSON(the_response, Main.GSON.toJson(result));
       } else {
@@ -163,6 +175,36 @@ public class CVRExportImport extends AbstractCountyDashboardEndpoint {
     return my_endpoint_result.get();
   }
   
+  /**
+   * Schedules the resumption of all CVR imports that were interrupted (for 
+   * example, by a server restart) after committing at least one checkpoint. 
+   * This must be called outside of any transaction.
+   */
+  public static void resumeInterruptedImports() {
+    Persistence.beginTransaction();
+    try {
+      for (final CVRImportCheckpoint checkpoint : 
+           Persistence.getAll(CVRImportCheckpoint.class)) {
+        final UploadedFile file = 
+            Persistence.getByID(checkpoint.fileID(), UploadedFile.class);
+        if (file != null) {
+          Main.LOGGER.info("scheduling resumption of CVR import for county " + 
+                           checkpoint.id() + " at " + checkpoint.recordCount() + " CVRs");
+          synchronized (COUNTIES_RUNNING) {
+            COUNTIES_RUNNING.add(checkpoint.id());
+          }
+          long size = Long.MAX_VALUE;
+          if (file.size() != null) {
+            size = file.size();
+          }
+          CVRImportScheduler.schedule(checkpoint.id(), size, new CVRImporter(file, true));
+        }
+      }
+    } finally {
+      Persistence.commitTransaction();
+    }
+  }
+  
   /**
    * @return the COUNTIES_RUNNING set.
    */
@@ -227,18 +269,41 @@ public class CVRExportImport extends AbstractCountyDashboardEndpoint {
      */
     private static final String PAREN_ID = " (id ";
     
+    /**
+     * The number of times to resume an import after a database failure.
+     */
+    private static final int RESUME_RETRIES = 3;
+    
+    /**
+     * The number of milliseconds to sleep before resuming an import.
+     */
+    private static final long RESUME_SLEEP_MSEC = 1000;
+    
     /**
      * The file that this importer is importing.
      */
     private final UploadedFile my_file;
     
+    /**
+     * A flag indicating whether to resume the import from its checkpoint.
+     */
+    private boolean my_resume;
+    
+    /**
+     * The number of times the import has been resumed after a database failure.
+     */
+    private int my_resume_count;
+    
     /**
      * Constructs a new CVRImporter for the specified county and file.
      * 
      * @param the_file The file.
+     * @param the_resume true to resume the import of the file from its 
+     * checkpoint, if there is one, false to start it from the beginning.
      */
-    CVRImporter(final UploadedFile the_file) {
+    CVRImporter(final UploadedFile the_file, final boolean the_resume) {
       my_file = the_file;
+      my_resume = the_resume;
     }
     
     /**
@@ -249,7 +314,10 @@ public class CVRExportImport extends AbstractCountyDashboardEndpoint {
         // this outer try block is the "last resort" cleanup block
         Persistence.beginTransaction();
         try {
-          parseFile(my_file);
+          while (!parseFile(my_file)) {
+            // the database failed, but we can resume from the last checkpoint
+            my_resume = true;
+          }
           updateStateMachine(true);
           Persistence.commitTransaction();
           Main.LOGGER.info("CVR import complete for county " + my_file.county().id());
@@ -329,7 +397,8 @@ public class CVRExportImport extends AbstractCountyDashboardEndpoint {
                             COUNTY + my_file.county().id());
           Persistence.beginTransaction();
           final CountyDashboardASM cdb_asm = 
-              ASMUtilities.asmFor(CountyDashboardASM.class, my_file.county().id().toString());
+              ASMUtilities.uncachedASMFor(CountyDashboardASM.class,
+                                          my_file.county().id().toString());
           if (VALID_STATES.contains(cdb_asm.currentState())) {
             // the dashboard is in a state we can legitimately change, which means
             // the actual import endpoint committed its transaction
@@ -454,30 +523,40 @@ public class CVRExportImport extends AbstractCountyDashboardEndpoint {
      * Parses an uploaded CVR export and attempts to persist it to the database.
      * 
      * @param the_file The uploaded file.
+     * @return true if the import is finished, false if it was interrupted
+     * by a database failure and should be resumed from its checkpoint.
      */
     @SuppressWarnings({"PMD.AvoidCatchingGenericException", "PMD.AvoidRethrowingException"})
-    private void parseFile(final UploadedFile the_file) {
+    private boolean parseFile(final UploadedFile the_file) {
       final UploadedFileStreamer ufs = new UploadedFileStreamer(the_file);
       (new Thread(ufs)).start();
         
       try {
         final InputStreamReader bmi_isr = new InputStreamReader(ufs.inputStream(), "UTF-8");
+        CVRImportCheckpoint checkpoint = null;
+        if (my_resume) {
+          checkpoint = checkpointFor(the_file);
+        }
+        if (checkpoint == null) {
+          try {
+            final int deleted = cleanup(the_file.county());
+            if (deleted > 0) {
+              Main.LOGGER.info("deleted " + deleted + " previously-uploaded CVRs");
+            }
+          } catch (final PersistenceException ex) {
+            error("unable to delete previously uploaded CVRs");
+          }
+          checkpoint = new CVRImportCheckpoint(the_file.county().id(), the_file.id());
+        }
         final DominionCVRExportParser parser = 
             new DominionCVRExportParser(bmi_isr, 
                                         Persistence.getByID(the_file.county().id(), 
                                                             County.class),
                                         Main.properties(),
-                                        true);
-        try {
-          final int deleted = cleanup(the_file.county());
-          if (deleted > 0) {
-            Main.LOGGER.info("deleted " + deleted + " previously-uploaded CVRs");
-          }
-        } catch (final PersistenceException ex) {
-          error("unable to delete previously uploaded CVRs");
-        }
+                                        true, checkpoint);
         
-        updateCountyDashboard(the_file, new ImportStatus(ImportState.IN_PROGRESS), 0);
+        updateCountyDashboard(the_file, new ImportStatus(ImportState.IN_PROGRESS), 
+                              checkpoint.recordCount());
                 
         if (parser.parse()) {
           final int imported = parser.recordCount().getAsInt();
@@ -487,6 +566,7 @@ public class CVRExportImport extends AbstractCountyDashboardEndpoint {
           handleTies(the_file.county());
           the_file.setStatus(FileStatus.IMPORTED_AS_CVR_EXPORT);
           Persistence.saveOrUpdate(the_file);
+          deleteCheckpoint(the_file.county());
         } else {
           try {
             cleanup(the_file.county(), true, parser.errorMessage());
@@ -498,6 +578,9 @@ public class CVRExportImport extends AbstractCountyDashboardEndpoint {
                 the_file.filename() + PAREN_ID + the_file.id() + ")]");
         }
       } catch (final PersistenceException e) {
+        if (canResume(the_file)) {
+          return false;
+        }
         Main.LOGGER.info("parse transactions did not complete successfully, " + 
                          "attempting cleanup");
         try {
@@ -523,6 +606,74 @@ public class CVRExportImport extends AbstractCountyDashboardEndpoint {
       } finally {
         ufs.stop();
       }
+      return true;
+    }
+    
+    /**
+     * Gets the checkpoint from which to resume the import of the specified file.
+     * 
+     * @param the_file The file.
+     * @return the checkpoint, or null if there is no checkpoint for the file.
+     */
+    private CVRImportCheckpoint checkpointFor(final UploadedFile the_file) {
+      final CVRImportCheckpoint result = 
+          Persistence.getByID(the_file.county().id(), CVRImportCheckpoint.class);
+      if (result == null || !the_file.id().equals(result.fileID())) {
+        return null;
+      }
+      return result;
+    }
+    
+    /**
+     * Determines whether an import that failed because of a database problem
+     * can be resumed from a checkpoint and, if so, waits before it is resumed. 
+     * This leaves a transaction running.
+     * 
+     * @param the_file The file being imported.
+     * @return true if the import can be resumed, false otherwise.
+     */
+    private boolean canResume(final UploadedFile the_file) {
+      if (my_resume_count >= RESUME_RETRIES) {
+        return false;
+      }
+      my_resume_count = my_resume_count + 1;
+      try {
+        Thread.sleep(ExponentialBackoffHelper.exponentialBackoff(my_resume_count, 
+                                                                 RESUME_SLEEP_MSEC));
+      } catch (final InterruptedException ex) {
+        // it's OK to be interrupted
+      }
+      try {
+        if (Persistence.isTransactionActive() || Persistence.canTransactionRollback()) {
+          Persistence.rollbackTransaction();
+        }
+      } catch (final PersistenceException | IllegalStateException ex) {
+        // the session is gone, which is fine since we're starting a new one
+      }
+      try {
+        Persistence.beginTransaction();
+        final boolean result = checkpointFor(the_file) != null;
+        if (result) {
+          Main.LOGGER.info("resuming CVR import for county " + the_file.county().id() + 
+                           " from checkpoint, attempt " + my_resume_count);
+        }
+        return result;
+      } catch (final PersistenceException ex) {
+        return false;
+      }
+    }
+    
+    /**
+     * Deletes the import checkpoint for the specified county, if there is one.
+     * 
+     * @param the_county The county.
+     */
+    private void deleteCheckpoint(final County the_county) {
+      final CVRImportCheckpoint checkpoint = 
+          Persistence.getByID(the_county.id(), CVRImportCheckpoint.class);
+      if (checkpoint != null) {
+        Persistence.delete(checkpoint);
+      }
     }
     
     /**
@@ -572,7 +723,9 @@ public class CVRExportImport extends AbstractCountyDashboardEndpoint {
           Persistence.flush(); 
           result = 
               CastVoteRecordQueries.deleteMatching(the_county.id(), RecordType.UPLOADED);
+          Persistence.afterCommit(() -> CVRSequenceIndex.invalidate(the_county.id()));
           CountyContestResultQueries.deleteForCounty(the_county.id());
+          deleteCheckpoint(the_county);
           final CountyDashboard cdb = 
               Persistence.getByID(the_county.id(), CountyDashboard.class);
           cdb.setCVRFile(null);
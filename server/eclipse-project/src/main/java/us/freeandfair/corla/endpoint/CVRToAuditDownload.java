@@ -18,9 +18,6 @@ import java.io.IOException;
 import java.io.OutputStream;
 import java.io.OutputStreamWriter;
 import java.io.UnsupportedEncodingException;
-import java.io.Writer;
-import java.util.ArrayList;
-import java.util.List;
 import java.util.Locale;
 import java.util.OptionalInt;
 
@@ -35,14 +32,12 @@ import spark.Request;
 import spark.Response;
 
 import us.freeandfair.corla.Main;
-import us.freeandfair.corla.controller.ComparisonAuditController;
+import us.freeandfair.corla.controller.BallotListStreamer;
+import us.freeandfair.corla.controller.BallotListStreamer.RowWriter;
 import us.freeandfair.corla.json.CVRToAuditResponse;
-import us.freeandfair.corla.json.CVRToAuditResponse.BallotOrderComparator;
-import us.freeandfair.corla.model.CastVoteRecord;
 import us.freeandfair.corla.model.County;
 import us.freeandfair.corla.model.CountyDashboard;
 import us.freeandfair.corla.persistence.Persistence;
-import us.freeandfair.corla.query.BallotManifestInfoQueries;
 import us.freeandfair.corla.util.SparkHelper;
 
 /**
@@ -211,8 +206,6 @@ public class CVRToAuditDownload extends AbstractEndpoint {
       }
       // get other things we need
       final CountyDashboard cdb = Persistence.getByID(county.id(), CountyDashboard.class);
-      final List<CastVoteRecord> cvr_to_audit_list;      
-      final List<CVRToAuditResponse> response_list = new ArrayList<>();
       
       // compute the round, if any
       OptionalInt round = OptionalInt.empty(); 
@@ -226,28 +219,7 @@ public class CVRToAuditDownload extends AbstractEndpoint {
         }
       }
       
-      if (round.isPresent()) {
-        cvr_to_audit_list = 
-            ComparisonAuditController.ballotsToAudit(cdb, round.getAsInt(), audited);
-      } else {
-        cvr_to_audit_list = 
-            ComparisonAuditController.computeBallotOrder(cdb, index, ballot_count, 
-                                                         duplicates, audited);
-      }
-     
-      for (int i = 0; i < cvr_to_audit_list.size(); i++) {
-        final CastVoteRecord cvr = cvr_to_audit_list.get(i);
-        final String location = BallotManifestInfoQueries.locationFor(cvr);
-        response_list.add(new CVRToAuditResponse(i, cvr.scannerID(), 
-                                                 cvr.batchID(), cvr.recordID(), 
-                                                 cvr.imprintedID(), 
-                                                 cvr.cvrNumber(), cvr.id(),
-                                                 cvr.ballotType(), location,
-                                                 cvr.auditFlag()));
-      }
-      response_list.sort(new BallotOrderComparator());
-      
-      // generate a CSV file from the response list
+      // generate a CSV file from the ballot list
       the_response.type("text/csv");
       
       // the file name should be constructed from the county name and round
@@ -274,9 +246,18 @@ public class CVRToAuditDownload extends AbstractEndpoint {
         serverError(the_response, "UTF-8 is unsupported (this should never happen)");
       }
       
+      // rows are written as the ballot list is produced, a chunk at a time
       try (OutputStream os = SparkHelper.getRaw(the_response).getOutputStream();
-           BufferedWriter bw = new BufferedWriter(new OutputStreamWriter(os, "UTF-8"))) {
-        writeCSV(response_list, bw);
+           BufferedWriter bw = new BufferedWriter(new OutputStreamWriter(os, "UTF-8"));
+           CSVPrinter csvp = new CSVPrinter(bw, CSVFormat.DEFAULT.withHeader(CSV_HEADERS).
+                                                withQuoteMode(QuoteMode.NON_NUMERIC))) {
+        final RowWriter writer = (the_row) -> writeRow(csvp, the_row);
+        if (round.isPresent()) {
+          BallotListStreamer.streamRound(cdb, round.getAsInt(), writer);
+        } else {
+          BallotListStreamer.streamSequence(cdb, index, ballot_count, duplicates, audited,
+                                            writer);
+        }
         ok(the_response);
       } catch (final IOException e) {
         serverError(the_response, "Unable to stream response");
@@ -288,22 +269,17 @@ public class CVRToAuditDownload extends AbstractEndpoint {
   }
   
   /**
-   * Writes the specified list of CVRToAuditResponse objects as CSV.
+   * Writes the specified CVRToAuditResponse object as a CSV row.
    * 
-   * @param the_cvrs The list of objects.
-   * @param the_writer The writer to write to.
-   * @exception IOException if there is a problem writing the CSV file.
+   * @param the_printer The CSV printer to write to.
+   * @param the_cvr The object.
+   * @exception IOException if there is a problem writing the row.
    */
-  private void writeCSV(final List<CVRToAuditResponse> the_cvrs, final Writer the_writer) 
+  private void writeRow(final CSVPrinter the_printer, final CVRToAuditResponse the_cvr) 
       throws IOException {
-    try (CSVPrinter csvp = new CSVPrinter(the_writer, 
-                                          CSVFormat.DEFAULT.withHeader(CSV_HEADERS).
-                                          withQuoteMode(QuoteMode.NON_NUMERIC))) {
-      for (final CVRToAuditResponse cvr : the_cvrs) {
-        csvp.printRecord(cvr.scannerID(), cvr.batchID(), cvr.recordID(), cvr.imprintedID(),
-                         cvr.ballotType(), cvr.storageLocation(), cvr.cvrNumber(), 
-                         booleanYesNo(cvr.audited()));
-      }
-    } 
+    the_printer.printRecord(the_cvr.scannerID(), the_cvr.batchID(), the_cvr.recordID(),
+                            the_cvr.imprintedID(), the_cvr.ballotType(),
+                            the_cvr.storageLocation(), the_cvr.cvrNumber(),
+                            booleanYesNo(the_cvr.audited()));
   }
 }
@@ -24,11 +24,11 @@ import us.freeandfair.corla.Main;
 import us.freeandfair.corla.controller.ComparisonAuditController;
 import us.freeandfair.corla.json.CVRToAuditResponse;
 import us.freeandfair.corla.json.CVRToAuditResponse.BallotOrderComparator;
-import us.freeandfair.corla.model.CastVoteRecord;
+import us.freeandfair.corla.model.BallotLocator;
 import us.freeandfair.corla.model.County;
 import us.freeandfair.corla.model.CountyDashboard;
 import us.freeandfair.corla.persistence.Persistence;
-import us.freeandfair.corla.query.BallotManifestInfoQueries;
+import us.freeandfair.corla.query.BallotLocationIndex;
 
 /**
  * The CVR to audit list endpoint.
@@ -187,7 +187,7 @@ public class CVRToAuditList extends AbstractEndpoint {
       }
       // get other things we need
       final CountyDashboard cdb = Persistence.getByID(county.id(), CountyDashboard.class);
-      final List<CastVoteRecord> cvr_to_audit_list;      
+      final List<BallotLocator> cvr_to_audit_list;      
       final List<CVRToAuditResponse> response_list = new ArrayList<>();
       
       // compute the round, if any
@@ -211,9 +211,11 @@ public class CVRToAuditList extends AbstractEndpoint {
                                                          duplicates, audited);
       }
      
+      final List<String> locations =
+          BallotLocationIndex.locationsFor(cdb, cvr_to_audit_list);
       for (int i = 0; i < cvr_to_audit_list.size(); i++) {
-        final CastVoteRecord cvr = cvr_to_audit_list.get(i);
-        final String location = BallotManifestInfoQueries.locationFor(cvr);
+        final BallotLocator cvr = cvr_to_audit_list.get(i);
+        final String location = locations.get(i);
         response_list.add(new CVRToAuditResponse(i, cvr.scannerID(), 
                                                  cvr.batchID(), cvr.recordID(), 
                                                  cvr.imprintedID(), 
@@ -222,7 +224,8 @@ public class CVRToAuditList extends AbstractEndpoint {
                                                  cvr.auditFlag()));
       }
       response_list.sort(new BallotOrderComparator());
-      okJSON(the_response, Main.GSON.toJson(response_list));
+      okJSONStream(the_response, (the_writer) -> 
+          Main.GSON.toJson(response_list, response_list.getClass(), the_writer));
     } catch (final PersistenceException e) {
       serverError(the_response, "could not generate cvr list");
     }
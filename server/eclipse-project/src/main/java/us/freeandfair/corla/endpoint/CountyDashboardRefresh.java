@@ -23,6 +23,7 @@ import us.freeandfair.corla.json.CountyDashboardRefreshResponse;
 import us.freeandfair.corla.model.County;
 import us.freeandfair.corla.model.CountyDashboard;
 import us.freeandfair.corla.persistence.Persistence;
+import us.freeandfair.corla.query.DashboardVersionQueries;
 
 /**
  * The endpoint for refreshing the county dashboard status.
@@ -58,7 +59,9 @@ public class CountyDashboardRefresh extends AbstractCountyDashboardEndpoint {
   }
   
   /**
-   * Provides information about the County and Audit Board dashboards.
+   * Provides information about the County and Audit Board dashboards. The
+   * response is tagged with the composite version of the entities it is 
+   * built from, and is not built at all if the client's copy is current.
    * 
    * @param the_request The request.
    * @param the_response The response.
@@ -67,10 +70,15 @@ public class CountyDashboardRefresh extends AbstractCountyDashboardEndpoint {
   public String endpointBody(final Request the_request, final Response the_response) {
     try {
       final County county = Main.authentication().authenticatedCounty(the_request);
-          
-      okJSON(the_response, 
-             Main.GSON.toJson(CountyDashboardRefreshResponse.createResponse
-                              (Persistence.getByID(county.id(), CountyDashboard.class))));
+      final String entity_tag = "\"county-" + county.id() + "-" + 
+                                DashboardVersionQueries.countyDashboardVersion(county.id()) +
+                                "\"";
+      if (!checkEntityTag(the_request, the_response, entity_tag)) {
+        okJSON(the_response, 
+               Main.GSON.toJson(CountyDashboardRefreshResponse.createResponse
+                                (Persistence.getByID(county.id(), CountyDashboard.class))),
+               entity_tag);
+      }
     } catch (final PersistenceException e) {
       serverError(the_response, "could not obtain dashboard state");
     }
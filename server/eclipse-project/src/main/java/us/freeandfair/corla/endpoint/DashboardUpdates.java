@@ -0,0 +1,107 @@
+/*
+ * Free & Fair Colorado RLA System
+ *
+ * @title ColoradoRLA
+ * @created Oct 18, 2026
+ * @copyright 2017 Colorado Department of State
+ * @license SPDX-License-Identifier: AGPL-3.0-or-later
+ * @creator agent <agent@local>
+ * @description A system to assist in conducting statewide risk-limiting audits.
+ */
+
+package us.freeandfair.corla.endpoint;
+
+import java.io.IOException;
+
+import javax.servlet.AsyncContext;
+import javax.servlet.http.HttpServletResponse;
+
+import org.apache.log4j.Level;
+
+import spark.Request;
+import spark.Response;
+
+import us.freeandfair.corla.Main;
+import us.freeandfair.corla.controller.DashboardUpdatePublisher;
+import us.freeandfair.corla.model.County;
+import us.freeandfair.corla.util.SparkHelper;
+
+/**
+ * The endpoint for receiving dashboard updates as server-sent events. A
+ * county client receives updates to its county dashboard, and a state
+ * client receives updates to the DoS dashboard; see DashboardUpdatePublisher.
+ *
+ * @author agent <agent@local>
+ * @version 1.0.0
+ */
+@SuppressWarnings("PMD.AtLeastOneConstructor")
+public class DashboardUpdates extends AbstractEndpoint {
+  /**
+   * {@inheritDoc}
+   */
+  @Override
+  public EndpointType endpointType() {
+    return EndpointType.GET;
+  }
+
+  /**
+   * {@inheritDoc}
+   */
+  @Override
+  public String endpointName() {
+    return "/dashboard-updates";
+  }
+
+  /**
+   * This endpoint requires any kind of authentication.
+   */
+  @Override
+  public AuthorizationType requiredAuthorization() {
+    return AuthorizationType.EITHER;
+  }
+
+  /**
+   * {@inheritDoc}
+   */
+  @Override
+  public Level logLevel() {
+    return Level.DEBUG;
+  }
+
+  /**
+   * Opens the event stream. The response is committed before this method
+   * returns, and the request is then completed asynchronously, when the
+   * client disconnects; so it does not hold a server thread while it is
+   * open.
+   *
+   * @param the_request The request.
+   * @param the_response The response.
+   */
+  @Override
+  public String endpointBody(final Request the_request, final Response the_response) {
+    // this is null for state authentication
+    final County county = Main.authentication().authenticatedCounty(the_request);
+
+    try {
+      final HttpServletResponse raw = SparkHelper.getRaw(the_response);
+      raw.setStatus(HttpServletResponse.SC_OK);
+      raw.setContentType("text/event-stream");
+      raw.setCharacterEncoding("UTF-8");
+      raw.setHeader("Cache-Control", "no-cache");
+      raw.flushBuffer();
+
+      final AsyncContext context = SparkHelper.getRaw(the_request).startAsync();
+      // the connection stays open until the client closes it
+      context.setTimeout(0);
+      if (county == null) {
+        DashboardUpdatePublisher.addClient(null, context);
+      } else {
+        DashboardUpdatePublisher.addClient(county.id(), context);
+      }
+      ok(the_response);
+    } catch (final IOException | IllegalStateException e) {
+      serverError(the_response, "could not open dashboard update stream");
+    }
+    return my_endpoint_result.get();
+  }
+}
@@ -18,10 +18,7 @@ import org.apache.log4j.Level;
 import spark.Request;
 import spark.Response;
 
-import us.freeandfair.corla.Main;
-import us.freeandfair.corla.json.DoSDashboardRefreshResponse;
-import us.freeandfair.corla.model.DoSDashboard;
-import us.freeandfair.corla.persistence.Persistence;
+import us.freeandfair.corla.controller.DoSDashboardReadModel;
 
 /**
  * The endpoint for refreshing the Department of State dashboard status.
@@ -32,6 +29,12 @@ import us.freeandfair.corla.persistence.Persistence;
 // endpoints don't need constructors
 @SuppressWarnings("PMD.AtLeastOneConstructor")
 public class DoSDashboardRefresh extends AbstractDoSDashboardEndpoint {
+  /**
+   * An identifier for this server instance, because read model versions 
+   * start again when the server restarts.
+   */
+  private static final String INSTANCE = Long.toString(System.currentTimeMillis(), 36);
+  
   /**
    * {@inheritDoc}
    */
@@ -57,7 +60,9 @@ public class DoSDashboardRefresh extends AbstractDoSDashboardEndpoint {
   }
   
   /**
-   * Provides information about the DoS dashboard.
+   * Provides information about the DoS dashboard, from the read model
+   * snapshot for the current version of the dashboard data. The response is
+   * tagged with that version, and is not sent if the client's copy is current.
    * 
    * @param the_request The request.
    * @param the_response The response.
@@ -65,15 +70,25 @@ public class DoSDashboardRefresh extends AbstractDoSDashboardEndpoint {
   @Override
   public String endpointBody(final Request the_request, final Response the_response) {
     try {
-      okJSON(the_response, 
-             Main.GSON.toJson(DoSDashboardRefreshResponse.createResponse
-                              (Persistence.getByID(DoSDashboard.ID, DoSDashboard.class))));
+      if (!checkEntityTag(the_request, the_response, 
+                          entityTag(DoSDashboardReadModel.version()))) {
+        final DoSDashboardReadModel.Snapshot snapshot = DoSDashboardReadModel.snapshot();
+        okJSON(the_response, snapshot.json(), entityTag(snapshot.version()));
+      }
     } catch (final PersistenceException e) {
       serverError(the_response, "could not obtain dashboard state");
     }
     return my_endpoint_result.get();
   }
 
+  /**
+   * @param the_version A read model version.
+   * @return the entity tag for the version.
+   */
+  private static String entityTag(final long the_version) {
+    return "\"dos-" + INSTANCE + "-" + the_version + "\"";
+  }
+
   /**
    * This endpoint requires STATE authorization.
    */
@@ -185,9 +185,9 @@ public class IndicateHandCount extends AbstractDoSDashboardEndpoint {
     for (final County c : the_counties) {
       final CountyDashboard cdb = Persistence.getByID(c.id(), CountyDashboard.class);
       final AbstractStateMachine county_asm = 
-          ASMUtilities.asmFor(CountyDashboardASM.class, c.id().toString());
+          ASMUtilities.uncachedASMFor(CountyDashboardASM.class, c.id().toString());
       final AbstractStateMachine audit_asm =
-          ASMUtilities.asmFor(AuditBoardDashboardASM.class, c.id().toString());
+          ASMUtilities.uncachedASMFor(AuditBoardDashboardASM.class, c.id().toString());
       
       if (county_asm.currentState() == COUNTY_AUDIT_UNDERWAY &&
           !audit_asm.isInFinalState()) {
@@ -0,0 +1,76 @@
+/*
+ * Free & Fair Colorado RLA System
+ *
+ * @title ColoradoRLA
+ * @created Oct 18, 2026
+ * @copyright 2017 Colorado Department of State
+ * @license SPDX-License-Identifier: AGPL-3.0-or-later
+ * @creator agent <agent@local>
+ * @description A system to assist in conducting statewide risk-limiting audits.
+ */
+
+package us.freeandfair.corla.endpoint;
+
+import javax.persistence.PersistenceException;
+
+import spark.Request;
+import spark.Response;
+
+import us.freeandfair.corla.Main;
+import us.freeandfair.corla.controller.LogVerifier;
+
+/**
+ * The log verification endpoint, which verifies the hash chain of the log.
+ * 
+ * @author agent <agent@local>
+ * @version 1.0.0
+ */
+@SuppressWarnings("PMD.AtLeastOneConstructor")
+public class LogVerification extends AbstractEndpoint {
+  /**
+   * The "incremental" parameter.
+   */
+  public static final String INCREMENTAL = "incremental";
+  
+  /**
+   * {@inheritDoc}
+   */
+  @Override
+  public EndpointType endpointType() {
+    return EndpointType.GET;
+  }
+  
+  /**
+   * {@inheritDoc}
+   */
+  @Override
+  public String endpointName() {
+    return "/verify-log";
+  }
+
+  /**
+   * This endpoint requires STATE authorization.
+   */
+  @Override
+  public AuthorizationType requiredAuthorization() {
+    return AuthorizationType.STATE;
+  }
+  
+  /**
+   * Verifies the hash chain of the log; if the "incremental" parameter is
+   * present, only the log entries after the last verified one are verified.
+   * 
+   * @param the_request The request.
+   * @param the_response The response.
+   */
+  @Override
+  public String endpointBody(final Request the_request, final Response the_response) {
+    final boolean incremental = the_request.queryParams(INCREMENTAL) != null;
+    try {
+      okJSON(the_response, Main.GSON.toJson(LogVerifier.verify(incremental)));
+    } catch (final PersistenceException e) {
+      serverError(the_response, "could not verify log");
+    }
+    return my_endpoint_result.get();
+  }
+}
@@ -19,10 +19,15 @@ import us.freeandfair.corla.asm.AuditBoardDashboardASM;
 import us.freeandfair.corla.asm.CountyDashboardASM;
 import us.freeandfair.corla.asm.DoSDashboardASM;
 import us.freeandfair.corla.asm.PersistentASMState;
+import us.freeandfair.corla.controller.DashboardUpdatePublisher;
+import us.freeandfair.corla.controller.DoSDashboardReadModel;
+import us.freeandfair.corla.controller.LogSequencer;
 import us.freeandfair.corla.model.County;
 import us.freeandfair.corla.model.CountyDashboard;
 import us.freeandfair.corla.model.DoSDashboard;
 import us.freeandfair.corla.persistence.Persistence;
+import us.freeandfair.corla.query.BallotLocationIndex;
+import us.freeandfair.corla.query.CVRSequenceIndex;
 import us.freeandfair.corla.query.DatabaseResetQueries;
 import us.freeandfair.corla.query.PersistentASMStateQueries;
 
@@ -87,6 +92,13 @@ public class ResetDatabase extends AbstractEndpoint {
     // delete everything
     
     DatabaseResetQueries.resetDatabase();
+    // the caches are invalidated once the reset is committed, so that they
+    // cannot be refilled from the state before the reset
+    Persistence.afterCommit(BallotLocationIndex::invalidateAll);
+    Persistence.afterCommit(CVRSequenceIndex::invalidateAll);
+    Persistence.afterCommit(DoSDashboardReadModel::invalidate);
+    Persistence.afterCommit(DashboardUpdatePublisher::invalidateAll);
+    Persistence.afterCommit(LogSequencer::invalidate);
     
     // create new dashboards
     final DoSDashboard dosdb = new DoSDashboard();
@@ -22,6 +22,7 @@ import spark.Response;
 
 import us.freeandfair.corla.Main;
 import us.freeandfair.corla.asm.ASMEvent;
+import us.freeandfair.corla.controller.AuditSequenceController;
 import us.freeandfair.corla.model.AuditInfo;
 import us.freeandfair.corla.model.DoSDashboard;
 import us.freeandfair.corla.persistence.Persistence;
@@ -92,6 +93,10 @@ public class SetRandomSeed extends AbstractDoSDashboardEndpoint {
             new AuditInfo(null, null, null, submitted.seed(), null);
         dosdb.updateAuditInfo(seed);
         Persistence.saveOrUpdate(dosdb);
+        // start generating the counties' audit sequences in the background
+        // once the seed is committed, so they are ready when the first audit 
+        // round starts
+        AuditSequenceController.precomputeAuditSequencesAfterCommit();
         ok(the_response, "random seed set to " + seed.seed());
       } else {
         invariantViolation(the_response, "invalid random seed specified: " + submitted.seed());
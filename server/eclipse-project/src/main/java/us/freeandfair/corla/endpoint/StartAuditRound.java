@@ -32,6 +32,7 @@ import us.freeandfair.corla.asm.ASMState.CountyDashboardState;
 import us.freeandfair.corla.asm.ASMUtilities;
 import us.freeandfair.corla.asm.AuditBoardDashboardASM;
 import us.freeandfair.corla.asm.CountyDashboardASM;
+import us.freeandfair.corla.controller.AuditSequenceController;
 import us.freeandfair.corla.controller.ComparisonAuditController;
 import us.freeandfair.corla.json.SubmittedAuditRoundStart;
 import us.freeandfair.corla.model.CountyDashboard;
@@ -127,6 +128,10 @@ public class StartAuditRound extends AbstractDoSDashboardEndpoint {
     try {
       final List<CountyDashboard> cdbs = Persistence.getAll(CountyDashboard.class);
       
+      // generate the initial audit sequences for all the counties in parallel
+      // before initializing their audits one at a time
+      AuditSequenceController.precomputeAuditSequences(cdbs).join();
+      
       // this flag starts off true if we're going to conjoin it with all the ASM
       // states, and false otherwise as we just assume audit reasonableness in the 
       // absence of ASMs
@@ -156,7 +161,8 @@ public class StartAuditRound extends AbstractDoSDashboardEndpoint {
           // update the ASMs for the county and audit board
           if (!DISABLE_ASM) {
             final CountyDashboardASM asm = 
-                ASMUtilities.asmFor(CountyDashboardASM.class, String.valueOf(cdb.id()));
+                ASMUtilities.uncachedASMFor(CountyDashboardASM.class,
+                                            String.valueOf(cdb.id()));
             asm.stepEvent(COUNTY_START_AUDIT_EVENT);
             final ASMEvent audit_event;
             if (asm.currentState().equals(CountyDashboardState.COUNTY_AUDIT_UNDERWAY)) {
@@ -241,7 +247,7 @@ public class StartAuditRound extends AbstractDoSDashboardEndpoint {
     
       for (final CountyDashboard cdb : cdbs) {
         final AuditBoardDashboardASM asm = 
-            ASMUtilities.asmFor(AuditBoardDashboardASM.class, cdb.id().toString());
+            ASMUtilities.uncachedASMFor(AuditBoardDashboardASM.class, cdb.id().toString());
         if (asm.isInInitialState() || asm.isInFinalState()) {
           // there is no audit happening in this county, so go to the next one
           Main.LOGGER.debug("no audit ongoing in county " + cdb.id() + 
@@ -0,0 +1,54 @@
+/*
+ * Free & Fair Colorado RLA System
+ *
+ * @title ColoradoRLA
+ * @created Oct 18, 2026
+ * @copyright 2017 Colorado Department of State
+ * @license SPDX-License-Identifier: AGPL-3.0-or-later
+ * @creator agent <agent@local>
+ * @description A system to assist in conducting statewide risk-limiting audits.
+ */
+
+package us.freeandfair.corla.json;
+
+import us.freeandfair.corla.util.SuppressFBWarnings;
+
+/**
+ * The response provided by the server for each audit CVR in a batch
+ * submission.
+ *
+ * @author agent <agent@local>
+ * @version 1.0.0
+ */
+@SuppressWarnings({"PMD.UnusedPrivateField", "PMD.SingularField"})
+@SuppressFBWarnings(value = {"URF_UNREAD_FIELD"}, justification = "Field is read by Gson.")
+public class AuditCVRSubmissionResponse {
+  /**
+   * The original CVR ID for the audit CVR.
+   */
+  private final Long my_cvr_id;
+
+  /**
+   * A flag that indicates whether the audit CVR was accepted.
+   */
+  private final boolean my_accepted;
+
+  /**
+   * The result message.
+   */
+  private final String my_result;
+
+  /**
+   * Constructs a new AuditCVRSubmissionResponse.
+   *
+   * @param the_cvr_id The original CVR ID.
+   * @param the_accepted true if the audit CVR was accepted, false otherwise.
+   * @param the_result The result message.
+   */
+  public AuditCVRSubmissionResponse(final Long the_cvr_id, final boolean the_accepted,
+                                    final String the_result) {
+    my_cvr_id = the_cvr_id;
+    my_accepted = the_accepted;
+    my_result = the_result;
+  }
+}
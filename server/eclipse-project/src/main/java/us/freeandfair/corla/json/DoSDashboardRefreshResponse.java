@@ -24,6 +24,7 @@ import javax.persistence.PersistenceException;
 import us.freeandfair.corla.asm.ASMState;
 import us.freeandfair.corla.asm.ASMUtilities;
 import us.freeandfair.corla.asm.DoSDashboardASM;
+import us.freeandfair.corla.controller.CVRImportScheduler;
 import us.freeandfair.corla.model.AuditInfo;
 import us.freeandfair.corla.model.AuditReason;
 import us.freeandfair.corla.model.AuditType;
@@ -99,6 +100,12 @@ public class DoSDashboardRefreshResponse {
    */
   private final SortedMap<Long, AuditType> my_audit_types;
   
+  /**
+   * The IDs of the counties whose CVR imports are waiting to start, in the
+   * order in which they will start.
+   */
+  private final List<Long> my_cvr_import_queue;
+  
   /**
    * Constructs a new DosDashboardRefreshResponse.
    * 
@@ -113,6 +120,9 @@ public class DoSDashboardRefreshResponse {
    * @param the_county_status The county statuses.
    * @param the_hand_count_contests The hand count contests.
    * @param the_audit_info The election info.
+   * @param the_audit_reasons The audit reasons.
+   * @param the_audit_types The audit types.
+   * @param the_cvr_import_queue The queued CVR imports.
    */
   @SuppressWarnings("PMD.ExcessiveParameterList")
   protected DoSDashboardRefreshResponse(final ASMState the_asm_state,
@@ -129,7 +139,8 @@ public class DoSDashboardRefreshResponse {
                                         final List<Long> the_hand_count_contests,
                                         final AuditInfo the_audit_info,
                                         final SortedMap<Long, AuditReason> the_audit_reasons,
-                                        final SortedMap<Long, AuditType> the_audit_types) {
+                                        final SortedMap<Long, AuditType> the_audit_types,
+                                        final List<Long> the_cvr_import_queue) {
     my_asm_state = the_asm_state;
     my_audited_contests = the_audited_contests;
     my_estimated_ballots_to_audit = the_estimated_ballots_to_audit;
@@ -140,6 +151,7 @@ public class DoSDashboardRefreshResponse {
     my_audit_info = the_audit_info;
     my_audit_reasons = the_audit_reasons;
     my_audit_types = the_audit_types;
+    my_cvr_import_queue = the_cvr_import_queue;
   }
   
   /**
@@ -226,7 +238,8 @@ public class DoSDashboardRefreshResponse {
                                            hand_count_contests,
                                            the_dashboard.auditInfo(),
                                            audit_reasons,
-                                           audit_types);
+                                           audit_types,
+                                           CVRImportScheduler.queuedCounties());
   }
   
   /**
@@ -0,0 +1,79 @@
+/*
+ * Free & Fair Colorado RLA System
+ *
+ * @title ColoradoRLA
+ * @created Oct 18, 2026
+ * @copyright 2017 Colorado Department of State
+ * @license SPDX-License-Identifier: AGPL-3.0-or-later
+ * @creator agent <agent@local>
+ * @description A system to assist in conducting statewide risk-limiting audits.
+ */
+
+package us.freeandfair.corla.json;
+
+import us.freeandfair.corla.util.SuppressFBWarnings;
+
+/**
+ * The result of verifying the hash chain of the log.
+ *
+ * @author agent <agent@local>
+ * @version 1.0.0
+ */
+@SuppressWarnings({"PMD.UnusedPrivateField", "PMD.SingularField"})
+@SuppressFBWarnings(value = {"URF_UNREAD_FIELD"}, justification = "Field is read by Gson.")
+public class LogVerificationResponse {
+  /**
+   * The ID of the log entry after which verification started, or null if
+   * verification started at the beginning of the log.
+   */
+  private final Long my_start_id;
+
+  /**
+   * The number of log entries read; if the hash chain is broken, entries
+   * after the first broken one may have been read.
+   */
+  private final long my_entries_verified;
+
+  /**
+   * The ID of the first log entry whose link in the hash chain is broken,
+   * or null if the hash chain is intact.
+   */
+  private final Long my_first_broken_id;
+
+  /**
+   * The ID of the last log entry verified, or null if none were.
+   */
+  private final Long my_last_id;
+
+  /**
+   * The hash of the last log entry verified, or null if none were.
+   */
+  private final String my_last_hash;
+
+  /**
+   * Constructs a new LogVerificationResponse.
+   *
+   * @param the_start_id The ID of the log entry after which verification
+   * started, or null.
+   * @param the_entries_verified The number of log entries read.
+   * @param the_first_broken_id The ID of the first broken log entry, or null.
+   * @param the_last_id The ID of the last log entry verified, or null.
+   * @param the_last_hash The hash of the last log entry verified, or null.
+   */
+  public LogVerificationResponse(final Long the_start_id, final long the_entries_verified,
+                                 final Long the_first_broken_id, final Long the_last_id,
+                                 final String the_last_hash) {
+    my_start_id = the_start_id;
+    my_entries_verified = the_entries_verified;
+    my_first_broken_id = the_first_broken_id;
+    my_last_id = the_last_id;
+    my_last_hash = the_last_hash;
+  }
+
+  /**
+   * @return true if the hash chain is intact, false otherwise.
+   */
+  public boolean intact() {
+    return my_first_broken_id == null;
+  }
+}
@@ -0,0 +1,305 @@
+/*
+ * Free & Fair Colorado RLA System
+ *
+ * @title ColoradoRLA
+ * @created Oct 18, 2026
+ * @copyright 2017 Colorado Department of State
+ * @license SPDX-License-Identifier: AGPL-3.0-or-later
+ * @creator agent <agent@local>
+ * @description A system to assist in conducting statewide risk-limiting audits.
+ */
+
+package us.freeandfair.corla.model;
+
+import static us.freeandfair.corla.util.EqualsHashcodeHelper.nullableEquals;
+import static us.freeandfair.corla.util.EqualsHashcodeHelper.nullableHashCode;
+
+import java.io.Serializable;
+import java.util.Comparator;
+
+/**
+ * The fields of a cast vote record that locate its ballot card, without
+ * its contest information. Ballot locators are read with projection
+ * queries, so building a ballot list or an audit round does not load the
+ * cast vote record entities and their contest information. Ballot locators
+ * are immutable, and two ballot locators are equal if they locate the same
+ * cast vote record.
+ *
+ * @author agent <agent@local>
+ * @version 1.0.0
+ */
+// this is a value class with many fields, all of which are needed
+@SuppressWarnings("PMD.TooManyFields")
+public final class BallotLocator implements Serializable {
+  /**
+   * The serialVersionUID.
+   */
+  private static final long serialVersionUID = 1L;
+
+  /**
+   * The ID of the cast vote record.
+   */
+  private final Long my_id;
+
+  /**
+   * The county ID.
+   */
+  private final Long my_county_id;
+
+  /**
+   * The CVR number.
+   */
+  private final Integer my_cvr_number;
+
+  /**
+   * The sequence number.
+   */
+  private final Integer my_sequence_number;
+
+  /**
+   * The scanner ID.
+   */
+  private final Integer my_scanner_id;
+
+  /**
+   * The batch ID.
+   */
+  private final Integer my_batch_id;
+
+  /**
+   * The record ID.
+   */
+  private final Integer my_record_id;
+
+  /**
+   * The imprinted ID.
+   */
+  private final String my_imprinted_id;
+
+  /**
+   * The ballot type.
+   */
+  private final String my_ballot_type;
+
+  /**
+   * The audit flag.
+   */
+  private final boolean my_audit_flag;
+
+  /**
+   * Constructs a ballot locator, with its audit flag unset; this is the
+   * constructor used by projection queries.
+   *
+   * @param the_id The ID of the cast vote record.
+   * @param the_county_id The county ID.
+   * @param the_cvr_number The CVR number.
+   * @param the_sequence_number The sequence number.
+   * @param the_scanner_id The scanner ID.
+   * @param the_batch_id The batch ID.
+   * @param the_record_id The record ID.
+   * @param the_imprinted_id The imprinted ID.
+   * @param the_ballot_type The ballot type.
+   */
+  @SuppressWarnings("PMD.ExcessiveParameterList")
+  public BallotLocator(final Long the_id, final Long the_county_id,
+                       final Integer the_cvr_number, final Integer the_sequence_number,
+                       final Integer the_scanner_id, final Integer the_batch_id,
+                       final Integer the_record_id, final String the_imprinted_id,
+                       final String the_ballot_type) {
+    this(the_id, the_county_id, the_cvr_number, the_sequence_number, the_scanner_id,
+         the_batch_id, the_record_id, the_imprinted_id, the_ballot_type, false);
+  }
+
+  /**
+   * Constructs a ballot locator.
+   *
+   * @param the_id The ID of the cast vote record.
+   * @param the_county_id The county ID.
+   * @param the_cvr_number The CVR number.
+   * @param the_sequence_number The sequence number.
+   * @param the_scanner_id The scanner ID.
+   * @param the_batch_id The batch ID.
+   * @param the_record_id The record ID.
+   * @param the_imprinted_id The imprinted ID.
+   * @param the_ballot_type The ballot type.
+   * @param the_audit_flag The audit flag.
+   */
+  @SuppressWarnings("PMD.ExcessiveParameterList")
+  private BallotLocator(final Long the_id, final Long the_county_id,
+                        final Integer the_cvr_number, final Integer the_sequence_number,
+                        final Integer the_scanner_id, final Integer the_batch_id,
+                        final Integer the_record_id, final String the_imprinted_id,
+                        final String the_ballot_type, final boolean the_audit_flag) {
+    my_id = the_id;
+    my_county_id = the_county_id;
+    my_cvr_number = the_cvr_number;
+    my_sequence_number = the_sequence_number;
+    my_scanner_id = the_scanner_id;
+    my_batch_id = the_batch_id;
+    my_record_id = the_record_id;
+    my_imprinted_id = the_imprinted_id;
+    my_ballot_type = the_ballot_type;
+    my_audit_flag = the_audit_flag;
+  }
+
+  /**
+   * @return the ID of the cast vote record.
+   */
+  public Long id() {
+    return my_id;
+  }
+
+  /**
+   * @return the county ID.
+   */
+  public Long countyID() {
+    return my_county_id;
+  }
+
+  /**
+   * @return the CVR number.
+   */
+  public Integer cvrNumber() {
+    return my_cvr_number;
+  }
+
+  /**
+   * @return the sequence number.
+   */
+  public Integer sequenceNumber() {
+    return my_sequence_number;
+  }
+
+  /**
+   * @return the scanner ID.
+   */
+  public Integer scannerID() {
+    return my_scanner_id;
+  }
+
+  /**
+   * @return the batch ID.
+   */
+  public Integer batchID() {
+    return my_batch_id;
+  }
+
+  /**
+   * @return the record ID.
+   */
+  public Integer recordID() {
+    return my_record_id;
+  }
+
+  /**
+   * @return the imprinted ID.
+   */
+  public String imprintedID() {
+    return my_imprinted_id;
+  }
+
+  /**
+   * @return the ballot type.
+   */
+  public String ballotType() {
+    return my_ballot_type;
+  }
+
+  /**
+   * @return the audit flag. As with the audit flag of a cast vote record,
+   * this flag is meaningless unless it was explicitly set by the computation
+   * that produced this ballot locator.
+   */
+  public boolean auditFlag() {
+    return my_audit_flag;
+  }
+
+  /**
+   * @param the_audit_flag The audit flag.
+   * @return a ballot locator like this one, with the specified audit flag.
+   */
+  public BallotLocator withAuditFlag(final boolean the_audit_flag) {
+    return new BallotLocator(my_id, my_county_id, my_cvr_number, my_sequence_number,
+                             my_scanner_id, my_batch_id, my_record_id, my_imprinted_id,
+                             my_ballot_type, the_audit_flag);
+  }
+
+  /**
+   * @return a String representation of this ballot locator.
+   */
+  @Override
+  public String toString() {
+    return "BallotLocator [id=" + my_id + ", county_id=" + my_county_id +
+           ", cvr_id=" + my_cvr_number + ", scanner_id=" + my_scanner_id +
+           ", batch_id=" + my_batch_id + ", record_id=" + my_record_id +
+           ", imprinted_id=" + my_imprinted_id + "]";
+  }
+
+  /**
+   * Compare this object with another for equivalence.
+   *
+   * @param the_other The other object.
+   * @return true if the objects are equivalent, false otherwise.
+   */
+  @Override
+  public boolean equals(final Object the_other) {
+    boolean result = true;
+    if (the_other instanceof BallotLocator) {
+      final BallotLocator other_locator = (BallotLocator) the_other;
+      result &= nullableEquals(other_locator.id(), id());
+    } else {
+      result = false;
+    }
+    return result;
+  }
+
+  /**
+   * @return a hash code for this object.
+   */
+  @Override
+  public int hashCode() {
+    return nullableHashCode(id());
+  }
+
+  /**
+   * A comparator to sort BallotLocator objects by scanner ID, then batch ID,
+   * then record ID.
+   */
+  @SuppressWarnings("PMD.AtLeastOneConstructor")
+  public static class BallotOrderComparator
+      implements Serializable, Comparator<BallotLocator> {
+    /**
+     * The serialVersionUID.
+     */
+    private static final long serialVersionUID = 1;
+
+    /**
+     * Orders two BallotLocators lexicographically by the triple
+     * (scanner_id, batch_id, record_id).
+     *
+     * @param the_first The first locator.
+     * @param the_second The second locator.
+     * @return a positive, negative, or 0 value as the first locator is
+     * greater than, equal to, or less than the second, respectively.
+     */
+    @SuppressWarnings("PMD.ConfusingTernary")
+    public int compare(final BallotLocator the_first,
+                       final BallotLocator the_second) {
+      final int scanner = the_first.scannerID() - the_second.scannerID();
+      final int batch = the_first.batchID() - the_second.batchID();
+      final int record = the_first.recordID() - the_second.recordID();
+
+      final int result;
+
+      if (scanner != 0) {
+        result = scanner;
+      } else if (batch != 0) {
+        result = batch;
+      } else {
+        result = record;
+      }
+
+      return result;
+    }
+  }
+}
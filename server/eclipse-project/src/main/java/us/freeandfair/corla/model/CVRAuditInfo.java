@@ -121,6 +121,20 @@ public class CVRAuditInfo implements PersistentEntity {
     my_cvr = the_cvr;
   }
 
+  /**
+   * Constructs a new CVRAuditInfo for the CVR to audit with the specified 
+   * ID. The CVR may be an uninitialized reference, which this constructor 
+   * does not access.
+   * 
+   * @param the_cvr_id The ID of the CVR to audit.
+   * @param the_cvr The CVR to audit.
+   */
+  public CVRAuditInfo(final Long the_cvr_id, final CastVoteRecord the_cvr) {
+    super();
+    my_id = the_cvr_id;
+    my_cvr = the_cvr;
+  }
+
   /**
    * {@inheritDoc}
    */
@@ -0,0 +1,334 @@
+/*
+ * Free & Fair Colorado RLA System
+ *
+ * @title ColoradoRLA
+ * @created Oct 18, 2026
+ * @copyright 2017 Colorado Department of State
+ * @license SPDX-License-Identifier: AGPL-3.0-or-later
+ * @creator agent <agent@local>
+ * @description A system to assist in conducting statewide risk-limiting audits.
+ */
+
+package us.freeandfair.corla.model;
+
+import java.io.Serializable;
+import java.lang.reflect.Type;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import javax.persistence.Cacheable;
+import javax.persistence.Column;
+import javax.persistence.Entity;
+import javax.persistence.Id;
+import javax.persistence.Table;
+import javax.persistence.Version;
+
+import com.google.gson.Gson;
+import com.google.gson.GsonBuilder;
+import com.google.gson.reflect.TypeToken;
+
+import us.freeandfair.corla.persistence.PersistentEntity;
+import us.freeandfair.corla.util.SuppressFBWarnings;
+
+/**
+ * The progress of a county's CVR import, as of its most recent commit. A
+ * checkpoint is saved in the same transaction as the CVRs it describes,
+ * so an interrupted import can be resumed from it: the first record_count
+ * CVR lines of the file have been imported, the last of them started at
+ * the recorded character position, and the contest tallies for those CVRs
+ * are the recorded tallies. The tallies are taken from the county contest 
+ * results when the checkpoint is updated, or at the same record count by
+ * a thread that tallies CVRs ahead of the ones committed, so keeping a 
+ * checkpoint adds no work per CVR.
+ *
+ * @author agent <agent@local>
+ * @version 1.0.0
+ */
+@Entity
+@Cacheable(false)
+@Table(name = "cvr_import_checkpoint")
+// this class has many fields that would normally be declared final, but
+// cannot be for compatibility with Hibernate and JPA.
+@SuppressWarnings("PMD.ImmutableField")
+// the tally maps are transient because they are stored in serialized form
+@SuppressFBWarnings("SE_TRANSIENT_FIELD_NOT_RESTORED")
+public class CVRImportCheckpoint implements PersistentEntity, Serializable {
+  /**
+   * The serialVersionUID.
+   */
+  private static final long serialVersionUID = 1L;
+
+  /**
+   * The type information for a map of vote totals by contest name.
+   */
+  private static final Type VOTE_TOTALS =
+      new TypeToken<Map<String, Map<String, Integer>>>() { }.getType();
+
+  /**
+   * The type information for a map of ballot counts by contest name.
+   */
+  private static final Type BALLOT_COUNTS =
+      new TypeToken<Map<String, Integer>>() { }.getType();
+
+  /**
+   * Our Gson instance, which does not do pretty-printing.
+   */
+  private static final Gson GSON =
+      new GsonBuilder().serializeNulls().disableHtmlEscaping().create();
+
+  /**
+   * The ID number; this is the ID of the county.
+   */
+  @Id
+  private Long my_id;
+
+  /**
+   * The version (for optimistic locking).
+   */
+  @Version
+  private Long my_version;
+
+  /**
+   * The ID of the file being imported.
+   */
+  @Column(nullable = false)
+  private Long my_file_id;
+
+  /**
+   * The number of CVRs imported.
+   */
+  @Column(nullable = false)
+  private Integer my_record_count = 0;
+
+  /**
+   * The character position in the file of the last CVR imported.
+   */
+  @Column(nullable = false)
+  private Long my_character_position = -1L;
+
+  /**
+   * The serialized vote totals.
+   */
+  @Column(columnDefinition = "text")
+  private String my_vote_totals;
+
+  /**
+   * The serialized contest ballot counts.
+   */
+  @Column(columnDefinition = "text")
+  private String my_contest_ballot_counts;
+
+  /**
+   * The vote totals for each contest, by contest name, deserialized when 
+   * the checkpoint is restored.
+   */
+  private transient Map<String, Map<String, Integer>> my_vote_totals_map;
+
+  /**
+   * The number of ballots containing each contest, by contest name, 
+   * deserialized when the checkpoint is restored.
+   */
+  private transient Map<String, Integer> my_contest_ballot_counts_map;
+
+  /**
+   * The tallies taken ahead of the updates for their record counts, by 
+   * record count.
+   */
+  private transient Map<Integer, Tallies> my_snapshots = new ConcurrentHashMap<>();
+
+  /**
+   * Constructs an empty checkpoint, solely for persistence.
+   */
+  public CVRImportCheckpoint() {
+    super();
+  }
+
+  /**
+   * Constructs a checkpoint for the start of an import.
+   *
+   * @param the_county_id The county ID.
+   * @param the_file_id The ID of the file being imported.
+   */
+  public CVRImportCheckpoint(final Long the_county_id, final Long the_file_id) {
+    super();
+    my_id = the_county_id;
+    my_file_id = the_file_id;
+  }
+
+  /**
+   * {@inheritDoc}
+   */
+  @Override
+  public Long id() {
+    return my_id;
+  }
+
+  /**
+   * {@inheritDoc}
+   */
+  @Override
+  public void setID(final Long the_id) {
+    my_id = the_id;
+  }
+
+  /**
+   * {@inheritDoc}
+   */
+  @Override
+  public Long version() {
+    return my_version;
+  }
+
+  /**
+   * @return the ID of the file being imported.
+   */
+  public Long fileID() {
+    return my_file_id;
+  }
+
+  /**
+   * @return the number of CVRs imported.
+   */
+  public Integer recordCount() {
+    return my_record_count;
+  }
+
+  /**
+   * @return the character position in the file of the last CVR imported,
+   * or -1 if no CVRs have been imported.
+   */
+  public Long characterPosition() {
+    return my_character_position;
+  }
+
+  /**
+   * Takes the tallies of the specified county contest results, to be 
+   * recorded by the update for the specified record count instead of the
+   * tallies at the time of that update. This may be called concurrently 
+   * with update(), by a thread that tallies CVRs before they are committed.
+   *
+   * @param the_record_count The number of CVRs tallied.
+   * @param the_results The county contest results for the county.
+   */
+  public void snapshot(final int the_record_count, 
+                       final List<CountyContestResult> the_results) {
+    my_snapshots.put(the_record_count, new Tallies(the_results));
+  }
+
+  /**
+   * Updates the stored checkpoint to describe the CVRs imported so far.
+   * The county contest results must have tallied exactly those CVRs, 
+   * unless a snapshot was taken at the same record count.
+   *
+   * @param the_record_count The number of CVRs imported.
+   * @param the_character_position The character position in the file of
+   * the last CVR imported.
+   * @param the_results The county contest results for the county.
+   */
+  public void update(final int the_record_count, final long the_character_position,
+                     final List<CountyContestResult> the_results) {
+    Tallies tallies = my_snapshots.remove(the_record_count);
+    if (tallies == null) {
+      tallies = new Tallies(the_results);
+    }
+    my_record_count = the_record_count;
+    my_character_position = the_character_position;
+    my_vote_totals = tallies.voteTotals();
+    my_contest_ballot_counts = tallies.contestBallotCounts();
+    my_vote_totals_map = null;
+    my_contest_ballot_counts_map = null;
+  }
+
+  /**
+   * Restores the tallies of the specified county contest result to the
+   * values recorded in this checkpoint.
+   *
+   * @param the_result The county contest result.
+   */
+  public void restore(final CountyContestResult the_result) {
+    deserialize();
+    final String name = the_result.contest().name();
+    final Map<String, Integer> totals = my_vote_totals_map.get(name);
+    final Integer ballots = my_contest_ballot_counts_map.get(name);
+    final Map<String, Integer> restored_totals = new HashMap<>();
+    for (final String choice : the_result.voteTotals().keySet()) {
+      Integer votes = 0;
+      if (totals != null && totals.containsKey(choice)) {
+        votes = totals.get(choice);
+      }
+      restored_totals.put(choice, votes);
+    }
+    int contest_ballots = 0;
+    if (ballots != null) {
+      contest_ballots = ballots;
+    }
+    the_result.restoreTallies(restored_totals, contest_ballots, my_record_count);
+  }
+
+  /**
+   * Deserializes the tallies, if they have not already been deserialized.
+   */
+  private void deserialize() {
+    if (my_vote_totals_map == null) {
+      my_vote_totals_map = new HashMap<>();
+      if (my_vote_totals != null) {
+        my_vote_totals_map.putAll(GSON.fromJson(my_vote_totals, VOTE_TOTALS));
+      }
+    }
+    if (my_contest_ballot_counts_map == null) {
+      my_contest_ballot_counts_map = new HashMap<>();
+      if (my_contest_ballot_counts != null) {
+        my_contest_ballot_counts_map.putAll(GSON.fromJson(my_contest_ballot_counts,
+                                                          BALLOT_COUNTS));
+      }
+    }
+  }
+
+  /**
+   * The serialized tallies of a county's contest results at some point
+   * in an import.
+   */
+  private static final class Tallies {
+    /**
+     * The serialized vote totals.
+     */
+    private final String my_vote_totals;
+
+    /**
+     * The serialized contest ballot counts.
+     */
+    private final String my_contest_ballot_counts;
+
+    /**
+     * Constructs the tallies of the specified county contest results.
+     *
+     * @param the_results The county contest results.
+     */
+    Tallies(final List<CountyContestResult> the_results) {
+      final Map<String, Map<String, Integer>> vote_totals = new HashMap<>();
+      final Map<String, Integer> ballot_counts = new HashMap<>();
+      for (final CountyContestResult r : the_results) {
+        vote_totals.put(r.contest().name(), r.currentVoteTotals());
+        ballot_counts.put(r.contest().name(), r.currentContestBallotCount());
+      }
+      my_vote_totals = GSON.toJson(vote_totals, VOTE_TOTALS);
+      my_contest_ballot_counts = GSON.toJson(ballot_counts, BALLOT_COUNTS);
+    }
+
+    /**
+     * @return the serialized vote totals.
+     */
+    public String voteTotals() {
+      return my_vote_totals;
+    }
+
+    /**
+     * @return the serialized contest ballot counts.
+     */
+    public String contestBallotCounts() {
+      return my_contest_ballot_counts;
+    }
+  }
+}
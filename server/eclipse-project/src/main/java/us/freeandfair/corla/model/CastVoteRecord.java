@@ -18,7 +18,9 @@ import java.time.Instant;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.Comparator;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 
 import javax.persistence.Cacheable;
 import javax.persistence.CollectionTable;
@@ -171,6 +173,13 @@ public class CastVoteRecord implements PersistentEntity, Serializable {
    */
   private transient boolean my_audit_flag;
   
+  /**
+   * A transient index of the contest information in this record, by contest 
+   * ID; it is built the first time a contest's information is looked up, and
+   * is neither persisted nor serialized.
+   */
+  private transient Map<Long, CVRContestInfo> my_contest_info_index;
+  
   /**
    * Constructs an empty cast vote record, solely for persistence.
    */
@@ -331,12 +340,25 @@ public class CastVoteRecord implements PersistentEntity, Serializable {
    * or null if none were made for the specified contest.
    */
   public CVRContestInfo contestInfoForContest(final Contest the_contest) {
-    for (final CVRContestInfo info : my_contest_info) {
-      if (info.contest().equals(the_contest)) {
-        return info;
+    if (the_contest.id() == null) {
+      // the contest has never been persisted, so we can't use the index
+      for (final CVRContestInfo info : my_contest_info) {
+        if (info.contest().equals(the_contest)) {
+          return info;
+        }
+      }
+      return null;
+    }
+    
+    Map<Long, CVRContestInfo> index = my_contest_info_index;
+    if (index == null) {
+      index = new HashMap<>();
+      for (final CVRContestInfo info : my_contest_info) {
+        index.putIfAbsent(info.contest().id(), info);
       }
+      my_contest_info_index = index;
     }
-    return null;
+    return index.get(the_contest.id());
   }
   
   /**
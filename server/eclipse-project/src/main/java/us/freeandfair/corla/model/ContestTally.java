@@ -0,0 +1,143 @@
+/*
+ * Free & Fair Colorado RLA System
+ *
+ * @title ColoradoRLA
+ * @created Oct 18, 2026
+ * @copyright 2017 Colorado Department of State
+ * @license SPDX-License-Identifier: AGPL-3.0-or-later
+ * @creator agent <agent@local>
+ * @description A system to assist in conducting statewide risk-limiting audits.
+ */
+
+package us.freeandfair.corla.model;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * A running tally of votes for a single contest in a single county, kept
+ * in primitive arrays indexed by the position of each choice in the
+ * contest's list of choices. Adding a ballot to a tally neither boxes
+ * integers nor hashes choice names, so tallies are used to accumulate
+ * votes during CVR import; a tally is added to the vote totals of a
+ * county contest result when its results are updated.
+ *
+ * A tally is not thread-safe.
+ *
+ * @author agent <agent@local>
+ * @version 1.0.0
+ */
+public class ContestTally {
+  /**
+   * The choice names, in contest order.
+   */
+  private final String[] my_choices;
+
+  /**
+   * The vote counts, in contest order.
+   */
+  private final int[] my_votes;
+
+  /**
+   * The number of ballots containing the contest.
+   */
+  private int my_contest_ballot_count;
+
+  /**
+   * The number of ballots.
+   */
+  private int my_county_ballot_count;
+
+  /**
+   * Constructs a new, empty tally for the specified contest.
+   *
+   * @param the_contest The contest.
+   */
+  public ContestTally(final Contest the_contest) {
+    final List<Choice> choices = the_contest.choices();
+    my_choices = new String[choices.size()];
+    for (int i = 0; i < my_choices.length; i++) {
+      my_choices[i] = choices.get(i).name();
+    }
+    my_votes = new int[my_choices.length];
+  }
+
+  /**
+   * Adds a single ballot to this tally.
+   *
+   * @param the_info The ballot's information for this contest, or null if
+   * the contest is not on the ballot.
+   * @exception IllegalArgumentException if the information contains a
+   * choice that is not in the contest.
+   */
+  public void addBallot(final CVRContestInfo the_info) {
+    if (the_info != null) {
+      // choices on a ballot are almost always in contest order, so we
+      // look for each one starting just after the previous one
+      int index = 0;
+      for (final String choice : the_info.choices()) {
+        index = indexOf(choice, index);
+        my_votes[index] = my_votes[index] + 1;
+        index = index + 1;
+      }
+      my_contest_ballot_count = my_contest_ballot_count + 1;
+    }
+    my_county_ballot_count = my_county_ballot_count + 1;
+  }
+
+  /**
+   * Adds the votes in this tally to the specified vote totals. Choices
+   * that are not in the vote totals (fictitious choices) are skipped.
+   *
+   * @param the_vote_totals The vote totals, by choice name.
+   */
+  public void addTo(final Map<String, Integer> the_vote_totals) {
+    for (int i = 0; i < my_choices.length; i++) {
+      final Integer total = the_vote_totals.get(my_choices[i]);
+      if (total != null) {
+        the_vote_totals.put(my_choices[i], total + my_votes[i]);
+      }
+    }
+  }
+
+  /**
+   * @param the_index The index of a choice in the contest.
+   * @return the number of votes for that choice.
+   */
+  public int votes(final int the_index) {
+    return my_votes[the_index];
+  }
+
+  /**
+   * @return the number of ballots containing the contest.
+   */
+  public int contestBallotCount() {
+    return my_contest_ballot_count;
+  }
+
+  /**
+   * @return the number of ballots.
+   */
+  public int countyBallotCount() {
+    return my_county_ballot_count;
+  }
+
+  /**
+   * Finds the index of a choice, starting at the specified index and
+   * wrapping around if necessary.
+   *
+   * @param the_choice The choice name.
+   * @param the_start The index at which to start.
+   * @return the index.
+   * @exception IllegalArgumentException if the choice is not in the contest.
+   */
+  private int indexOf(final String the_choice, final int the_start) {
+    for (int i = 0; i < my_choices.length; i++) {
+      final int index = (the_start + i) % my_choices.length;
+      if (my_choices[index].equals(the_choice)) {
+        return index;
+      }
+    }
+    throw new IllegalArgumentException("invalid choice " + the_choice);
+  }
+}
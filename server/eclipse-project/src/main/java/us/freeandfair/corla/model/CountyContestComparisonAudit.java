@@ -40,7 +40,6 @@ import javax.persistence.MapKeyJoinColumn;
 import javax.persistence.Table;
 import javax.persistence.Version;
 
-import ch.obermuhlner.math.big.BigDecimalMath;
 import us.freeandfair.corla.Main;
 import us.freeandfair.corla.model.CVRContestInfo.ConsensusValue;
 import us.freeandfair.corla.model.CastVoteRecord.RecordType;
@@ -195,9 +194,12 @@ public class CountyContestComparisonAudit implements PersistentEntity {
   private BigDecimal my_risk_limit = BigDecimal.ONE;
   
   /**
-   * The number of samples audited.
+   * The number of samples audited, which is the same as the audited sample
+   * count of the county dashboard. It is kept current for all the audits 
+   * of a dashboard at once, by CountyContestComparisonAuditQueries,
+   * rather than by updating each audit.
    */
-  @Column(nullable = false)
+  @Column(nullable = false, updatable = false)
   private Integer my_audited_sample_count = 0;
   
   /**
@@ -288,6 +290,17 @@ public class CountyContestComparisonAudit implements PersistentEntity {
                                               referencedColumnName = "my_id"))
   private Set<CVRAuditInfo> my_disagreements = new HashSet<>();
   
+  /**
+   * The discrepancy kernel, compiled from the contest result on first use.
+   */
+  private transient DiscrepancyKernel my_kernel;
+  
+  /**
+   * The number of samples audited when the estimates of this audit were
+   * last calculated in this session, or null if they have not been.
+   */
+  private transient Integer my_estimated_sample_count;
+  
   /**
    * Constructs a new, empty CountyContestAudit (solely for persistence).
    */
@@ -404,7 +417,7 @@ public class CountyContestComparisonAudit implements PersistentEntity {
       return;
     }
     
-    if (my_optimistic_samples_to_audit - my_audited_sample_count <= 0) {
+    if (my_optimistic_samples_to_audit - my_dashboard.auditedSampleCount() <= 0) {
       my_audit_status = AuditStatus.RISK_LIMIT_ACHIEVED;
     } else {
       // risk limit has not been achieved
@@ -451,7 +464,11 @@ public class CountyContestComparisonAudit implements PersistentEntity {
    * overstatements continue to occur at the current rate.
    */
   public Integer estimatedSamplesToAudit() {
-    if (my_estimated_recalculate_needed) {
+    // the estimate depends on the number of samples audited only if there
+    // have been overstatements
+    if (my_estimated_recalculate_needed || my_optimistic_recalculate_needed ||
+        (my_one_vote_over_count + my_two_vote_over_count > 0 &&
+         !my_dashboard.auditedSampleCount().equals(my_estimated_sample_count))) {
       recalculateSamplesToAudit();
     }
     return my_estimated_samples_to_audit;
@@ -461,6 +478,7 @@ public class CountyContestComparisonAudit implements PersistentEntity {
    * Recalculates the overall numbers of ballots to audit.
    */
   private void recalculateSamplesToAudit() {
+    my_estimated_sample_count = my_dashboard.auditedSampleCount();
     if (my_optimistic_recalculate_needed) {
       final BigDecimal optimistic = computeOptimisticSamplesToAudit(my_two_vote_under_count, 
                                                                     my_one_vote_under_count,
@@ -474,7 +492,7 @@ public class CountyContestComparisonAudit implements PersistentEntity {
       my_estimated_samples_to_audit = my_optimistic_samples_to_audit;
     } else {
       // compute the "fudge factor" for the estimate
-      final BigDecimal audited_samples = BigDecimal.valueOf(my_dashboard.auditedSampleCount());
+      final BigDecimal audited_samples = BigDecimal.valueOf(my_estimated_sample_count);
       final BigDecimal overstatements = 
           BigDecimal.valueOf(my_one_vote_over_count + my_two_vote_over_count);
       final BigDecimal fudge_factor;
@@ -504,7 +522,6 @@ public class CountyContestComparisonAudit implements PersistentEntity {
    * This is the stopping sample size as defined in the literature:
    * https://www.stat.berkeley.edu/~stark/Preprints/gentle12.pdf
    */
-  @SuppressWarnings({"checkstyle:magicnumber", "PMD.AvoidDuplicateLiterals"})
   private BigDecimal computeOptimisticSamplesToAudit(final int the_two_under,
                                                      final int the_one_under,
                                                      final int the_one_over,
@@ -515,37 +532,10 @@ public class CountyContestComparisonAudit implements PersistentEntity {
       // (for lack of a better number)
       result = BigDecimal.valueOf(my_contest_result.countyBallotCount());
     } else {
-      final BigDecimal invgamma = BigDecimal.ONE.divide(my_gamma, MathContext.DECIMAL128);
-      final BigDecimal twogamma = BigDecimal.valueOf(2).multiply(my_gamma);
-      final BigDecimal invtwogamma = 
-          BigDecimal.ONE.divide(twogamma, MathContext.DECIMAL128);
-      final BigDecimal two_under_bd = BigDecimal.valueOf(the_two_under);
-      final BigDecimal one_under_bd = BigDecimal.valueOf(the_one_under);
-      final BigDecimal one_over_bd = BigDecimal.valueOf(the_one_over);
-      final BigDecimal two_over_bd = BigDecimal.valueOf(the_two_over);
-
-      final BigDecimal over_under_sum = 
-          two_under_bd.add(one_under_bd).add(one_over_bd).add(two_over_bd);
-      final BigDecimal two_under = 
-          two_under_bd.multiply(BigDecimalMath.log(BigDecimal.ONE.add(invgamma), 
-                                                   MathContext.DECIMAL128));
-      final BigDecimal one_under =
-          one_under_bd.multiply(BigDecimalMath.log(BigDecimal.ONE.add(invtwogamma), 
-                                                   MathContext.DECIMAL128));
-      final BigDecimal one_over = 
-          one_over_bd.multiply(BigDecimalMath.log(BigDecimal.ONE.subtract(invtwogamma), 
-                                                  MathContext.DECIMAL128));
-      final BigDecimal two_over =
-          two_over_bd.multiply(BigDecimalMath.log(BigDecimal.ONE.subtract(invgamma),
-                                                  MathContext.DECIMAL128));
-      final BigDecimal numerator =
-          twogamma.negate().
-          multiply(BigDecimalMath.log(my_risk_limit, MathContext.DECIMAL128).
-                   add(two_under.add(one_under).add(one_over).add(two_over)));
-      final BigDecimal ceil =
-          numerator.divide(my_contest_result.countyDilutedMargin(),
-                           MathContext.DECIMAL128).setScale(0, RoundingMode.CEILING);
-      result = ceil.max(over_under_sum);
+      result = SampleSizeEstimator.optimistic(my_gamma, my_risk_limit,
+                                              my_contest_result.countyDilutedMargin(),
+                                              the_two_under, the_one_under,
+                                              the_one_over, the_two_over);
     }
     
     Main.LOGGER.info("estimate for contest " + contest().name() + 
@@ -554,40 +544,6 @@ public class CountyContestComparisonAudit implements PersistentEntity {
     return result;
   }
   
-  /**
-   * Signals that a sample has been audited. This ensures that estimates
-   * are recalculated correctly and states are updated.
-   * 
-   * @param the_count The count of samples that have been audited simultaneously
-   * (for duplicates).
-   */
-  public void signalSampleAudited(final int the_count) {
-    my_estimated_recalculate_needed = true;
-    my_audited_sample_count = my_audited_sample_count + the_count;
-    
-    if (my_audit_status != AuditStatus.ENDED && 
-        my_audit_status != AuditStatus.NOT_AUDITABLE) {
-      my_audit_status = AuditStatus.IN_PROGRESS;
-    }
-  }
-  
-  /**
-   * Signals that a sample has been unaudited. This ensures that estimates
-   * are recalculated correctly and states are updated.
-   * 
-   * @param the_count The count of samples that have been unaudited simultaneously
-   * (for duplicates).
-   */
-  public void signalSampleUnaudited(final int the_count) {
-    my_estimated_recalculate_needed = true;
-    my_audited_sample_count = my_audited_sample_count - the_count;
-    
-    if (my_audit_status != AuditStatus.ENDED &&
-        my_audit_status != AuditStatus.NOT_AUDITABLE) {
-      my_audit_status = AuditStatus.IN_PROGRESS;
-    }
-  }
-  
   /**
    * Records a disagreement with the specified CVRAuditInfo.
    * 
@@ -800,14 +756,18 @@ public class CountyContestComparisonAudit implements PersistentEntity {
         the_acvr.contestInfoForContest(my_contest_result.contest());
 
     if (the_acvr.recordType() == RecordType.PHANTOM_BALLOT) {
-      result = OptionalInt.of(computePhantomBallotDiscrepancy(cvr_info));
+      if (cvr_info == null) {
+        result = OptionalInt.of(kernel().phantom(null));
+      } else {
+        result = OptionalInt.of(kernel().phantom(cvr_info.choices()));
+      }
     } else if (cvr_info != null && acvr_info != null) {
       if (acvr_info.consensus() == ConsensusValue.NO) {
         // a lack of consensus for this contest is treated
         // identically to a phantom ballot
-        result = OptionalInt.of(computePhantomBallotDiscrepancy(cvr_info));
+        result = OptionalInt.of(kernel().phantom(cvr_info.choices()));
       } else {
-        result = computeAuditedBallotDiscrepancy(cvr_info, acvr_info);
+        result = kernel().audited(cvr_info.choices(), acvr_info.choices());
       }
     }
     
@@ -815,148 +775,14 @@ public class CountyContestComparisonAudit implements PersistentEntity {
   }
   
   /**
-   * Computes the discrepancy between two ballots. This method returns an optional 
-   * int that, if present, indicates a discrepancy. There are 5 possible types of 
-   * discrepancy: -1 and -2 indicate 1- and 2-vote understatements; 1 and 2 indicate
-   * 1- and 2- vote overstatements; and 0 indicates a discrepancy that does not 
-   * count as either an under- or overstatement for the RLA algorithm, but 
-   * nonetheless indicates a difference between ballot interpretations.
-   * 
-   * @param the_cvr_info The CVR info.
-   * @param the_acvr_info The ACVR info.
-   * @return an optional int that is present if there is a discrepancy and absent
-   * otherwise.
+   * @return the discrepancy kernel for this audit, compiling it if necessary.
    */
-  @SuppressWarnings({"PMD.ModifiedCyclomaticComplexity", "PMD.StdCyclomaticComplexity",
-                     "PMD.NPathComplexity", "PMD.ExcessiveMethodLength",
-                     "checkstyle:methodlength"})
-  private OptionalInt computeAuditedBallotDiscrepancy(final CVRContestInfo the_cvr_info,
-                                                      final CVRContestInfo the_acvr_info) {
-    // check for overvotes
-    final Set<String> acvr_choices = new HashSet<>();
-    if (the_acvr_info.choices().size() <= my_contest.votesAllowed()) {
-      acvr_choices.addAll(the_acvr_info.choices());
-    } // else overvote so don't count the votes
-    
-    // avoid linear searches on CVR choices
-    final Set<String> cvr_choices = new HashSet<>(the_cvr_info.choices());
-    
-    // if the choices in the CVR and ACVR are identical now, we can simply return the
-    // fact that there's no discrepancy
-    if (cvr_choices.equals(acvr_choices)) {
-      return OptionalInt.empty();
-    }
-    
-    // we want to get the maximum pairwise update delta, because that's the "worst"
-    // change in a pairwise margin, and the discrepancy we record; we start with
-    // Integer.MIN_VALUE so our maximization algorithm works. it is also the case 
-    // that _every_ pairwise margin must be increased for an understatement to be
-    // reported
-    
-    int raw_result = Integer.MIN_VALUE;
-    
-    boolean possible_understatement = true;
-    
-    for (final String winner : my_contest_result.winners()) {
-      final int winner_change;
-      if (!cvr_choices.contains(winner) && acvr_choices.contains(winner)) {
-        // this winner gained a vote
-        winner_change = 1;
-      } else if (cvr_choices.contains(winner) && !acvr_choices.contains(winner)) {
-        // this winner lost a vote
-        winner_change = -1;
-      } else {
-        // this winner's votes didn't change
-        winner_change = 0;
-      }
-      if (my_contest_result.losers().isEmpty()) {
-        // if there are no losers, we'll just negate this number - even though in 
-        // real life, we wouldn't be auditing the contest at all
-        raw_result = Math.max(raw_result, -winner_change);
-      } else {
-        for (final String loser : my_contest_result.losers()) {
-          final int loser_change;
-          if (!cvr_choices.contains(loser) && acvr_choices.contains(loser)) {
-            // this loser gained a vote
-            loser_change = 1;
-          } else if (cvr_choices.contains(loser) && !acvr_choices.contains(loser)) {
-            // this loser lost a vote
-            loser_change = -1;
-          } else {
-            // this loser's votes didn't change
-            loser_change = 0;
-          }
-          // the discrepancy is the loser change minus the winner change (i.e., if this 
-          // loser lost a vote (-1) and this winner gained a vote (1), that's a 2-vote 
-          // understatement (-1 - 1 = -2). Overstatements are worse than understatements,
-          // as far as the audit is concerned, so we keep the highest discrepancy
-          final int discrepancy = loser_change - winner_change;
-          
-          // taking the max here does not cause a loss of information even if the
-          // discrepancy is 0; if the discrepancy is 0 we can no longer report an
-          // understatement, and we still know there was a discrepancy because we
-          // didn't short circuit earlier
-          raw_result = Math.max(raw_result, discrepancy);
-          
-          // if this discrepancy indicates a narrowing of, or no change in, this pairwise 
-          // margin, then an understatement is no longer possible because that would require 
-          // widening _every_ pairwise margin
-          if (discrepancy >= 0) {
-            possible_understatement = false;
-          }
-        }
-      }
-    }
-    
-    if (raw_result == Integer.MIN_VALUE) {
-      // this should only be possible if something went horribly wrong (like the contest
-      // has no winners)
-      throw new IllegalStateException("unable to compute discrepancy in contest " + 
-                                      contest().name());
+  private DiscrepancyKernel kernel() {
+    if (my_kernel == null) {
+      my_kernel = new DiscrepancyKernel(my_contest.name(), my_contest.votesAllowed(),
+                                        my_contest_result.winners(),
+                                        my_contest_result.losers());
     }
-    
-    final OptionalInt result;
-    
-    if (possible_understatement) {
-      // we return the raw result unmodified
-      result = OptionalInt.of(raw_result);
-    } else {
-      // we return the raw result with a floor of 0, because we can't report an
-      // understatement
-      result = OptionalInt.of(Math.max(0, raw_result));
-    }
-    
-    return result;
-  }
-  
-  /**
-   * Computes the discrepancy between a phantom ballot and the specified
-   * CVRContestInfo.
-   * 
-   * @param the_info The CVRContestInfo.
-   * @return the discrepancy.
-   */
-  private Integer computePhantomBallotDiscrepancy(final CVRContestInfo the_info) {
-    final int result;    
-
-    // if the ACVR is a phantom ballot, we need to assume that it was a vote
-    // for all the losers; so if any winners had votes on the original CVR 
-    // it's a 2-vote overstatement, otherwise a 1-vote overstatement
-    
-    if (the_info == null) {
-      // this contest doesn't appear in the CVR, so we assume the worst
-      result = 2;
-    } else {
-      // this contest does appear in the CVR, so we can actually check
-      final Set<String> winner_votes = new HashSet<>(the_info.choices());    
-      winner_votes.removeAll(my_contest_result.losers());
-      if (winner_votes.isEmpty()) {
-        result = 1;
-      } else { 
-        result = 2;
-      }
-    }
-    
-    return result;
+    return my_kernel;
   }
 }
@@ -165,6 +165,11 @@ public class CountyContestResult implements PersistentEntity, Serializable {
    */
   private Integer my_contest_ballot_count = 0;
   
+  /**
+   * The tally of ballots added since the results were last updated.
+   */
+  private transient ContestTally my_tally;
+  
   /**
    * Constructs a new empty CountyContestResult (solely for persistence).
    */
@@ -401,6 +406,30 @@ public class CountyContestResult implements PersistentEntity, Serializable {
     return my_county_ballot_count;
   }
   
+  /**
+   * @return a map from choices to vote totals, including the votes on the 
+   * ballots added since the results were last updated.
+   */
+  public Map<String, Integer> currentVoteTotals() {
+    final Map<String, Integer> result = new HashMap<>(my_vote_totals);
+    if (my_tally != null) {
+      my_tally.addTo(result);
+    }
+    return result;
+  }
+  
+  /**
+   * @return the number of ballots cast in this county that include this 
+   * contest, including the ballots added since the results were last updated.
+   */
+  public int currentContestBallotCount() {
+    int result = my_contest_ballot_count;
+    if (my_tally != null) {
+      result = result + my_tally.contestBallotCount();
+    }
+    return result;
+  }
+  
   /**
    * @return the maximum margin between a winner and a loser.
    */
@@ -468,6 +497,7 @@ public class CountyContestResult implements PersistentEntity, Serializable {
    * Reset the vote totals and all related data in this CountyContestResult.
    */
   public void reset() {
+    my_tally = null;
     my_winners.clear();
     my_losers.clear();
     for (final String s : my_vote_totals.keySet()) {
@@ -493,9 +523,53 @@ public class CountyContestResult implements PersistentEntity, Serializable {
   }
   
   /**
-   * Updates the stored results.
+   * Update the vote totals using the information for this contest from a 
+   * single ballot, without looking it up in a CVR. Unlike addCVR(), this
+   * adds the ballot to a pending tally, which is not reflected in the vote 
+   * totals and ballot counts until updateResults() is called; it is used 
+   * during CVR import, where it neither boxes integers nor hashes choices.
+   * 
+   * @param the_info The ballot's information for this contest, or null if
+   * the contest is not on the ballot.
+   */
+  public void addBallot(final CVRContestInfo the_info) {
+    if (my_tally == null) {
+      my_tally = new ContestTally(my_contest);
+    }
+    my_tally.addBallot(the_info);
+  }
+  
+  /**
+   * Replaces the vote totals and ballot counts with the specified values; 
+   * used when resuming an interrupted CVR import from a checkpoint.
+   * 
+   * @param the_vote_totals The vote totals.
+   * @param the_contest_ballot_count The number of ballots containing the contest.
+   * @param the_county_ballot_count The number of ballots in the county.
+   */
+  public void restoreTallies(final Map<String, Integer> the_vote_totals,
+                             final int the_contest_ballot_count,
+                             final int the_county_ballot_count) {
+    my_tally = null;
+    my_vote_totals.clear();
+    my_vote_totals.putAll(the_vote_totals);
+    my_contest_ballot_count = Integer.valueOf(the_contest_ballot_count);
+    my_county_ballot_count = Integer.valueOf(the_county_ballot_count);
+  }
+  
+  /**
+   * Updates the stored results, first adding any pending tally to the
+   * vote totals and ballot counts.
    */
   public void updateResults() {
+    if (my_tally != null) {
+      my_tally.addTo(my_vote_totals);
+      my_contest_ballot_count = 
+          Integer.valueOf(my_contest_ballot_count + my_tally.contestBallotCount());
+      my_county_ballot_count = 
+          Integer.valueOf(my_county_ballot_count + my_tally.countyBallotCount());
+      my_tally = null;
+    }
     // first, sort the vote totals
     final SortedMap<Integer, List<String>> sorted_totals = 
         new TreeMap<Integer, List<String>>(new ReverseIntegerComparator());
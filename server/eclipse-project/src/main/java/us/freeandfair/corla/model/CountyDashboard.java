@@ -44,6 +44,7 @@ import javax.persistence.OrderColumn;
 import javax.persistence.Table;
 import javax.persistence.Version;
 
+import us.freeandfair.corla.model.CastVoteRecord.RecordType;
 import us.freeandfair.corla.model.ImportStatus.ImportState;
 import us.freeandfair.corla.persistence.AuditSelectionIntegerMapConverter;
 import us.freeandfair.corla.persistence.PersistentEntity;
@@ -525,6 +526,35 @@ public class CountyDashboard implements PersistentEntity {
     return Collections.unmodifiableSet(my_comparison_audits);
   }
   
+  /**
+   * Finds the comparison audits whose discrepancies and disagreements can be
+   * affected by the specified ACVR: those of the contests on the ACVR, or all
+   * of them if the ACVR is a phantom ballot (which is a discrepancy in every
+   * contest). A contest that is not on the ACVR has neither a discrepancy
+   * nor a disagreement.
+   * 
+   * @param the_acvr The ACVR.
+   * @return the affected audits.
+   */
+  public List<CountyContestComparisonAudit> 
+      comparisonAuditsAffectedBy(final CastVoteRecord the_acvr) {
+    final List<CountyContestComparisonAudit> result = new ArrayList<>();
+    if (the_acvr.recordType() == RecordType.PHANTOM_BALLOT) {
+      result.addAll(my_comparison_audits);
+    } else {
+      final Set<Contest> contests = new HashSet<>();
+      for (final CVRContestInfo ci : the_acvr.contestInfo()) {
+        contests.add(ci.contest());
+      }
+      for (final CountyContestComparisonAudit ca : my_comparison_audits) {
+        if (contests.contains(ca.contest())) {
+          result.add(ca);
+        }
+      }
+    }
+    return result;
+  }
+  
   /**
    * Sets the comparison audits being performed. 
    * 
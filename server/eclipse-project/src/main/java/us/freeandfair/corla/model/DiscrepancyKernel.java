@@ -0,0 +1,366 @@
+/*
+ * Free & Fair Colorado RLA System
+ *
+ * @title ColoradoRLA
+ * @created Oct 18, 2026
+ * @copyright 2017 Colorado Department of State
+ * @license SPDX-License-Identifier: AGPL-3.0-or-later
+ * @creator agent <agent@local>
+ * @description A system to assist in conducting statewide risk-limiting audits.
+ */
+
+package us.freeandfair.corla.model;
+
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.OptionalInt;
+import java.util.Set;
+
+/**
+ * The discrepancy computation for a single audited contest, compiled from
+ * the contest's winners and losers. Each winner and loser is assigned a bit,
+ * so the choices on a ballot become a bitmask and the discrepancy between two
+ * ballots is computed with a few bitwise operations instead of a loop over
+ * every winner/loser pair.
+ *
+ * The maximum pairwise discrepancy over all winner/loser pairs is the
+ * maximum change for any loser minus the minimum change for any winner, and
+ * it is an understatement exactly when every pairwise discrepancy is negative,
+ * that is, when the maximum is negative; so it can be computed from the sets
+ * of winners and losers that gained, lost, or kept a vote. Contests with more
+ * winners and losers than fit in a bitmask use the same computation on sets.
+ *
+ * @author agent <agent@local>
+ * @version 1.0.0
+ */
+final class DiscrepancyKernel {
+  /**
+   * The maximum number of winners and losers that can be assigned bits.
+   */
+  private static final int MAX_BITS = Long.SIZE;
+
+  /**
+   * The name of the contest, for error messages.
+   */
+  private final String my_contest_name;
+
+  /**
+   * The number of votes allowed in the contest.
+   */
+  private final int my_votes_allowed;
+
+  /**
+   * The winners.
+   */
+  private final Set<String> my_winners;
+
+  /**
+   * The losers.
+   */
+  private final Set<String> my_losers;
+
+  /**
+   * The bits assigned to the winners and losers, or null if there are too
+   * many of them.
+   */
+  private final Map<String, Long> my_bits;
+
+  /**
+   * The bitmask of the winners.
+   */
+  private long my_winner_mask;
+
+  /**
+   * The bitmask of the losers.
+   */
+  private long my_loser_mask;
+
+  /**
+   * Compiles a kernel for the specified contest results.
+   *
+   * @param the_contest_name The name of the contest.
+   * @param the_votes_allowed The number of votes allowed in the contest.
+   * @param the_winners The winners.
+   * @param the_losers The losers.
+   */
+  DiscrepancyKernel(final String the_contest_name, final int the_votes_allowed,
+                    final Set<String> the_winners, final Set<String> the_losers) {
+    my_contest_name = the_contest_name;
+    my_votes_allowed = the_votes_allowed;
+    my_winners = new HashSet<>(the_winners);
+    my_losers = new HashSet<>(the_losers);
+    final Set<String> choices = new HashSet<>(my_winners);
+    choices.addAll(my_losers);
+    if (choices.size() <= MAX_BITS) {
+      my_bits = new HashMap<>();
+      for (final String choice : choices) {
+        final long bit = 1L << my_bits.size();
+        my_bits.put(choice, bit);
+        if (my_winners.contains(choice)) {
+          my_winner_mask |= bit;
+        }
+        if (my_losers.contains(choice)) {
+          my_loser_mask |= bit;
+        }
+      }
+    } else {
+      my_bits = null;
+    }
+  }
+
+  /**
+   * Computes the discrepancy between the choices on a CVR and an ACVR for
+   * this contest. The ACVR choices are ignored if they are an overvote.
+   *
+   * @param the_cvr_choices The CVR choices.
+   * @param the_acvr_choices The ACVR choices.
+   * @return an optional int that is present if there is a discrepancy and
+   * absent otherwise.
+   * @exception IllegalStateException if the contest has no winners.
+   */
+  OptionalInt audited(final List<String> the_cvr_choices,
+                      final List<String> the_acvr_choices) {
+    List<String> acvr_choices = the_acvr_choices;
+    if (acvr_choices.size() > my_votes_allowed) {
+      // overvote, so don't count the votes
+      acvr_choices = null;
+    }
+    if (my_bits == null) {
+      return auditedBySet(the_cvr_choices, acvr_choices);
+    }
+    final long cvr = mask(the_cvr_choices);
+    final long acvr = mask(acvr_choices);
+    if (cvr == acvr && sameChoices(the_cvr_choices, acvr_choices)) {
+      return OptionalInt.empty();
+    }
+    if (my_winner_mask == 0) {
+      throw noWinners();
+    }
+    final long gained = acvr & ~cvr;
+    final long lost = cvr & ~acvr;
+    return OptionalInt.of(discrepancy(changes(gained & my_winner_mask,
+                                              lost & my_winner_mask,
+                                              my_winner_mask),
+                                      changes(gained & my_loser_mask,
+                                              lost & my_loser_mask,
+                                              my_loser_mask)));
+  }
+
+  /**
+   * Computes the discrepancy between a phantom ballot and the choices on a
+   * CVR for this contest.
+   *
+   * @param the_cvr_choices The CVR choices, or null if the contest is not on
+   * the CVR.
+   * @return the discrepancy.
+   */
+  int phantom(final List<String> the_cvr_choices) {
+    // a phantom ballot is assumed to be a vote for all the losers; so if any
+    // winners had votes on the original CVR (or it doesn't have the contest)
+    // it's a 2-vote overstatement, otherwise a 1-vote overstatement
+    int result = 1;
+    if (the_cvr_choices == null) {
+      result = 2;
+    } else {
+      for (final String choice : the_cvr_choices) {
+        if (!my_losers.contains(choice)) {
+          result = 2;
+          break;
+        }
+      }
+    }
+    return result;
+  }
+
+  /**
+   * Computes the discrepancy between a CVR and an ACVR using sets.
+   *
+   * @param the_cvr_choices The CVR choices.
+   * @param the_acvr_choices The ACVR choices, or null if they are an overvote.
+   * @return an optional int that is present if there is a discrepancy and
+   * absent otherwise.
+   */
+  private OptionalInt auditedBySet(final List<String> the_cvr_choices,
+                                   final List<String> the_acvr_choices) {
+    final Set<String> cvr = new HashSet<>(the_cvr_choices);
+    final Set<String> acvr = new HashSet<>();
+    if (the_acvr_choices != null) {
+      acvr.addAll(the_acvr_choices);
+    }
+    if (cvr.equals(acvr)) {
+      return OptionalInt.empty();
+    }
+    if (my_winners.isEmpty()) {
+      throw noWinners();
+    }
+    return OptionalInt.of(discrepancy(changes(my_winners, cvr, acvr),
+                                      changes(my_losers, cvr, acvr)));
+  }
+
+  /**
+   * Combines the changes in winners' and losers' votes into a discrepancy.
+   *
+   * @param the_winner_changes The changes in the winners' votes.
+   * @param the_loser_changes The changes in the losers' votes.
+   * @return the discrepancy.
+   */
+  private int discrepancy(final int the_winner_changes, final int the_loser_changes) {
+    if (the_loser_changes == 0) {
+      // if there are no losers, we just negate the winner changes - even
+      // though in real life, we wouldn't be auditing the contest at all
+      return -minimumChange(the_winner_changes);
+    }
+    // the worst pairwise discrepancy is the largest gain by a loser against
+    // the largest loss by a winner; it is an understatement only if it is
+    // negative, in which case every pairwise margin was widened
+    return maximumChange(the_loser_changes) - minimumChange(the_winner_changes);
+  }
+
+  /**
+   * Summarizes which changes occurred in a group of choices, as a bit set:
+   * 1 if some choice gained a vote, 2 if some choice kept its vote count,
+   * and 4 if some choice lost a vote. The result is 0 if the group is empty.
+   *
+   * @param the_gained The choices in the group that gained a vote.
+   * @param the_lost The choices in the group that lost a vote.
+   * @param the_group The group.
+   * @return the summary.
+   */
+  @SuppressWarnings("checkstyle:magicnumber")
+  private static int changes(final long the_gained, final long the_lost,
+                             final long the_group) {
+    int result = 0;
+    if (the_gained != 0) {
+      result |= 1;
+    }
+    if ((the_group & ~(the_gained | the_lost)) != 0) {
+      result |= 2;
+    }
+    if (the_lost != 0) {
+      result |= 4;
+    }
+    return result;
+  }
+
+  /**
+   * Summarizes which changes occurred in a group of choices, as for
+   * changes(long, long, long).
+   *
+   * @param the_group The group.
+   * @param the_cvr The CVR choices.
+   * @param the_acvr The ACVR choices.
+   * @return the summary.
+   */
+  @SuppressWarnings("checkstyle:magicnumber")
+  private static int changes(final Set<String> the_group, final Set<String> the_cvr,
+                             final Set<String> the_acvr) {
+    int result = 0;
+    for (final String choice : the_group) {
+      final boolean in_cvr = the_cvr.contains(choice);
+      final boolean in_acvr = the_acvr.contains(choice);
+      if (in_acvr && !in_cvr) {
+        result |= 1;
+      } else if (in_cvr && !in_acvr) {
+        result |= 4;
+      } else {
+        result |= 2;
+      }
+    }
+    return result;
+  }
+
+  /**
+   * @param the_changes A non-empty change summary.
+   * @return the largest change in the summary.
+   */
+  @SuppressWarnings("checkstyle:magicnumber")
+  private static int maximumChange(final int the_changes) {
+    int result = -1;
+    if ((the_changes & 1) != 0) {
+      result = 1;
+    } else if ((the_changes & 2) != 0) {
+      result = 0;
+    }
+    return result;
+  }
+
+  /**
+   * @param the_changes A non-empty change summary.
+   * @return the smallest change in the summary.
+   */
+  @SuppressWarnings("checkstyle:magicnumber")
+  private static int minimumChange(final int the_changes) {
+    int result = 1;
+    if ((the_changes & 4) != 0) {
+      result = -1;
+    } else if ((the_changes & 2) != 0) {
+      result = 0;
+    }
+    return result;
+  }
+
+  /**
+   * @param the_choices A list of choices, or null.
+   * @return the bitmask of the winners and losers in the list.
+   */
+  private long mask(final List<String> the_choices) {
+    long result = 0;
+    if (the_choices != null) {
+      for (final String choice : the_choices) {
+        final Long bit = my_bits.get(choice);
+        if (bit != null) {
+          result |= bit;
+        }
+      }
+    }
+    return result;
+  }
+
+  /**
+   * Checks whether two lists of choices with the same bitmask contain the
+   * same choices; they can differ only in choices that are neither winners
+   * nor losers, which are rare, so the lists are usually only scanned.
+   *
+   * @param the_first A list of choices.
+   * @param the_second Another list of choices, or null.
+   * @return true if the lists contain the same choices, false otherwise.
+   */
+  private boolean sameChoices(final List<String> the_first,
+                              final List<String> the_second) {
+    if (!hasOtherChoices(the_first) && !hasOtherChoices(the_second)) {
+      return true;
+    }
+    final Set<String> second = new HashSet<>();
+    if (the_second != null) {
+      second.addAll(the_second);
+    }
+    return new HashSet<>(the_first).equals(second);
+  }
+
+  /**
+   * @param the_choices A list of choices, or null.
+   * @return true if the list contains a choice that is neither a winner nor
+   * a loser, false otherwise.
+   */
+  private boolean hasOtherChoices(final List<String> the_choices) {
+    if (the_choices != null) {
+      for (final String choice : the_choices) {
+        if (!my_bits.containsKey(choice)) {
+          return true;
+        }
+      }
+    }
+    return false;
+  }
+
+  /**
+   * @return the exception thrown when the contest has no winners.
+   */
+  private IllegalStateException noWinners() {
+    // this should only be possible if something went horribly wrong
+    return new IllegalStateException("unable to compute discrepancy in contest " +
+                                     my_contest_name);
+  }
+}
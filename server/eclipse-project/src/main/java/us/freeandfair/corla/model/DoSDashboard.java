@@ -236,6 +236,21 @@ public class DoSDashboard implements PersistentEntity, Serializable {
     return Collections.unmodifiableSet(my_contests_to_audit);
   }
   
+  /**
+   * @return the driving contests, that is, the contests selected for 
+   * comparison audits; the county audits are sized to meet the risk limit
+   * for these contests.
+   */
+  public Set<Contest> drivingContests() {
+    final Set<Contest> result = new HashSet<>();
+    for (final ContestToAudit cta : my_contests_to_audit) {
+      if (cta.audit() == AuditType.COMPARISON) {
+        result.add(cta.contest());
+      }
+    }
+    return result;
+  }
+  
   /**
    * @return a String representation of this contest.
    */
@@ -121,6 +121,7 @@ public class ImportStatus implements Serializable {
    */
   public enum ImportState {
     NOT_ATTEMPTED,
+    QUEUED,
     IN_PROGRESS,
     SUCCESSFUL,
     FAILED;
@@ -0,0 +1,169 @@
+/*
+ * Free & Fair Colorado RLA System
+ *
+ * @title ColoradoRLA
+ * @created Oct 18, 2026
+ * @copyright 2017 Colorado Department of State
+ * @license SPDX-License-Identifier: AGPL-3.0-or-later
+ * @creator agent <agent@local>
+ * @description A system to assist in conducting statewide risk-limiting audits.
+ */
+
+package us.freeandfair.corla.model;
+
+import java.io.Serializable;
+import java.time.Instant;
+
+import javax.persistence.Cacheable;
+import javax.persistence.Column;
+import javax.persistence.Entity;
+import javax.persistence.Id;
+import javax.persistence.Table;
+import javax.persistence.Version;
+
+import us.freeandfair.corla.persistence.PersistentEntity;
+
+/**
+ * The last log entry whose hash chain link has been verified, so that
+ * subsequent verifications need only verify the entries after it.
+ *
+ * @author agent <agent@local>
+ * @version 1.0.0
+ */
+@Entity
+@Cacheable(false)
+@Table(name = "log_checkpoint")
+// this class has many fields that would normally be declared final, but
+// cannot be for compatibility with Hibernate and JPA.
+@SuppressWarnings("PMD.ImmutableField")
+public class LogCheckpoint implements PersistentEntity, Serializable {
+  /**
+   * The log checkpoint ID (it is a singleton).
+   */
+  public static final Long ID = Long.valueOf(0);
+
+  /**
+   * The serialVersionUID.
+   */
+  private static final long serialVersionUID = 1L;
+
+  /**
+   * The ID. This is always 0, because this object is a singleton.
+   */
+  @Id
+  private Long my_id = ID;
+
+  /**
+   * The version (for optimistic locking).
+   */
+  @Version
+  private Long my_version;
+
+  /**
+   * The ID of the last verified log entry.
+   */
+  @Column(nullable = false)
+  private Long my_entry_id;
+
+  /**
+   * The hash of the last verified log entry.
+   */
+  @Column(nullable = false)
+  private String my_hash;
+
+  /**
+   * The time of the verification.
+   */
+  @Column(nullable = false)
+  private Instant my_timestamp;
+
+  /**
+   * Constructs an empty checkpoint, solely for persistence.
+   */
+  public LogCheckpoint() {
+    super();
+  }
+
+  /**
+   * Constructs a checkpoint.
+   *
+   * @param the_entry_id The ID of the last verified log entry.
+   * @param the_hash The hash of the last verified log entry.
+   * @param the_timestamp The time of the verification.
+   */
+  public LogCheckpoint(final Long the_entry_id, final String the_hash,
+                       final Instant the_timestamp) {
+    super();
+    my_entry_id = the_entry_id;
+    my_hash = the_hash;
+    my_timestamp = the_timestamp;
+  }
+
+  /**
+   * {@inheritDoc}
+   */
+  @Override
+  public Long id() {
+    return my_id;
+  }
+
+  /**
+   * {@inheritDoc}
+   */
+  @Override
+  public void setID(final Long the_id) {
+    my_id = the_id;
+  }
+
+  /**
+   * {@inheritDoc}
+   */
+  @Override
+  public Long version() {
+    return my_version;
+  }
+
+  /**
+   * @return the ID of the last verified log entry.
+   */
+  public Long entryID() {
+    return my_entry_id;
+  }
+
+  /**
+   * @return the hash of the last verified log entry.
+   */
+  public String hash() {
+    return my_hash;
+  }
+
+  /**
+   * @return the time of the verification.
+   */
+  public Instant timestamp() {
+    return my_timestamp;
+  }
+
+  /**
+   * Advances this checkpoint.
+   *
+   * @param the_entry_id The ID of the last verified log entry.
+   * @param the_hash The hash of the last verified log entry.
+   * @param the_timestamp The time of the verification.
+   */
+  public void advance(final Long the_entry_id, final String the_hash,
+                      final Instant the_timestamp) {
+    my_entry_id = the_entry_id;
+    my_hash = the_hash;
+    my_timestamp = the_timestamp;
+  }
+
+  /**
+   * @return a String representation of this checkpoint.
+   */
+  @Override
+  public String toString() {
+    return "LogCheckpoint [entry_id=" + my_entry_id + ", hash=" + my_hash +
+           ", timestamp=" + my_timestamp + "]";
+  }
+}
@@ -205,13 +205,30 @@ public class LogEntry implements PersistentEntity, Serializable {
    * returns the root hash.
    */
   private String calculateHash(final LogEntry the_previous_entry) {
-    String result = ROOT_HASH;
-    final StringBuilder hash_input = new StringBuilder(hashString());
+    final String result;
     if (the_previous_entry == null) {
-      hash_input.append(ROOT_HASH);
+      result = chainHash(hashString(), ROOT_HASH);
     } else {
-      hash_input.append(the_previous_entry.hash());
+      result = chainHash(hashString(), the_previous_entry.hash());
     }
+    return result;
+  }
+  
+  /**
+   * Generates a hash chain entry from the hash string of a log entry and 
+   * the hash of the previous log entry.
+   * 
+   * @param the_hash_string The hash string of the log entry.
+   * @param the_previous_hash The hash of the previous log entry, or the 
+   * root hash if there is no previous log entry.
+   * @return the hash. If the hash cannot be calculated, this method
+   * returns the root hash.
+   */
+  public static String chainHash(final String the_hash_string, 
+                                 final String the_previous_hash) {
+    String result = ROOT_HASH;
+    final StringBuilder hash_input = new StringBuilder(the_hash_string);
+    hash_input.append(the_previous_hash);
     try {      
       final MessageDigest md = MessageDigest.getInstance("SHA-256");
       final BigInteger bi = 
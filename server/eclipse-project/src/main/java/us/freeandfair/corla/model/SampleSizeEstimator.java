@@ -0,0 +1,328 @@
+/*
+ * Free & Fair Colorado RLA System
+ *
+ * @title ColoradoRLA
+ * @created Oct 18, 2026
+ * @copyright 2017 Colorado Department of State
+ * @license SPDX-License-Identifier: AGPL-3.0-or-later
+ * @creator agent <agent@local>
+ * @description A system to assist in conducting statewide risk-limiting audits.
+ */
+
+package us.freeandfair.corla.model;
+
+import java.math.BigDecimal;
+import java.math.MathContext;
+import java.math.RoundingMode;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import ch.obermuhlner.math.big.BigDecimalMath;
+
+import us.freeandfair.corla.Main;
+
+/**
+ * Computes the stopping sample size of a ballot-level comparison audit, as
+ * defined in https://www.stat.berkeley.edu/~stark/Preprints/gentle12.pdf.
+ *
+ * The sample size is first evaluated in double precision. Its ceiling is
+ * used unless the double result is close enough to an integer that rounding
+ * error could change the ceiling, in which case the size is evaluated again
+ * with DECIMAL128 arithmetic; either way, the result is the ceiling of the
+ * DECIMAL128 evaluation. The terms of the logarithmic sum can cancel, so 
+ * the rounding error is bounded relative to the magnitude of the terms, 
+ * not of the result: "close enough" means within epsilon (the 
+ * "sample_size_epsilon" property, never taken to be less than MIN_EPSILON)
+ * times the value of the formula with each term of the sum replaced by its
+ * absolute value. The logarithms that depend only on gamma, and
+ * the exact logarithm of the risk limit, are computed once per value.
+ *
+ * @author agent <agent@local>
+ * @version 1.0.0
+ */
+final class SampleSizeEstimator {
+  /**
+   * The name of the property that sets the distance from an integer within
+   * which the exact evaluation is used.
+   */
+  public static final String EPSILON_PROPERTY = "sample_size_epsilon";
+
+  /**
+   * The default epsilon.
+   */
+  private static final double DEFAULT_EPSILON = 1e-9;
+
+  /**
+   * The smallest epsilon used. The double evaluation takes the logarithm of
+   * the risk limit, rounds the gamma, margin and five logarithms to double,
+   * and does four multiplications, four additions and a division, so its 
+   * error is at most a small multiple of the unit roundoff (2^-53) times 
+   * the magnitude of the terms; this allows for 64 times the unit roundoff.
+   */
+  private static final double MIN_EPSILON = 64 * Math.ulp(1.0) / 2;
+
+  /**
+   * The largest magnitude of sample size evaluated in double precision.
+   */
+  private static final double MAX_DOUBLE_SIZE = 1e12;
+
+  /**
+   * The logarithms for each gamma.
+   */
+  private static final Map<BigDecimal, GammaLogs> GAMMA_LOGS = new ConcurrentHashMap<>();
+
+  /**
+   * The logarithms of each risk limit.
+   */
+  private static final Map<BigDecimal, BigDecimal> RISK_LIMIT_LOGS =
+      new ConcurrentHashMap<>();
+
+  /**
+   * The epsilon, read on first use.
+   */
+  private static volatile Double epsilon;
+
+  /**
+   * Private constructor to prevent instantiation.
+   */
+  private SampleSizeEstimator() {
+    // empty
+  }
+
+  /**
+   * Computes the stopping sample size for the specified parameters and
+   * numbers of over- and understatements.
+   *
+   * @param the_gamma The gamma.
+   * @param the_risk_limit The risk limit.
+   * @param the_diluted_margin The diluted margin.
+   * @param the_two_under The two-vote understatements.
+   * @param the_one_under The one-vote understatements.
+   * @param the_one_over The one-vote overstatements.
+   * @param the_two_over The two-vote overstatements.
+   * @return the sample size, which is never less than the number of over-
+   * and understatements.
+   */
+  static BigDecimal optimistic(final BigDecimal the_gamma, final BigDecimal the_risk_limit,
+                               final BigDecimal the_diluted_margin,
+                               final int the_two_under, final int the_one_under,
+                               final int the_one_over, final int the_two_over) {
+    return optimisticCeiling(the_gamma, the_risk_limit, the_diluted_margin, the_two_under,
+                             the_one_under, the_one_over, the_two_over).
+           max(BigDecimal.valueOf((long) the_two_under + the_one_under +
+                                  the_one_over + the_two_over));
+  }
+
+  /**
+   * Computes the ceiling of the stopping sample size formula, in double
+   * precision when rounding error cannot change the ceiling and with 
+   * DECIMAL128 arithmetic otherwise.
+   *
+   * @param the_gamma The gamma.
+   * @param the_risk_limit The risk limit.
+   * @param the_diluted_margin The diluted margin.
+   * @param the_two_under The two-vote understatements.
+   * @param the_one_under The one-vote understatements.
+   * @param the_one_over The one-vote overstatements.
+   * @param the_two_over The two-vote overstatements.
+   * @return the ceiling, which is the same as exactCeiling() would give.
+   */
+  static BigDecimal optimisticCeiling(final BigDecimal the_gamma,
+                                      final BigDecimal the_risk_limit,
+                                      final BigDecimal the_diluted_margin,
+                                      final int the_two_under, final int the_one_under,
+                                      final int the_one_over, final int the_two_over) {
+    final GammaLogs logs = gammaLogs(the_gamma);
+    final double risk_limit_log = Math.log(the_risk_limit.doubleValue());
+    final double scale = -2 * the_gamma.doubleValue() / the_diluted_margin.doubleValue();
+    final double size =
+        scale * (risk_limit_log +
+                 the_two_under * logs.my_two_under_double +
+                 the_one_under * logs.my_one_under_double +
+                 the_one_over * logs.my_one_over_double +
+                 the_two_over * logs.my_two_over_double);
+    final double magnitude =
+        Math.abs(scale) * (Math.abs(risk_limit_log) +
+                           the_two_under * Math.abs(logs.my_two_under_double) +
+                           the_one_under * Math.abs(logs.my_one_under_double) +
+                           the_one_over * Math.abs(logs.my_one_over_double) +
+                           the_two_over * Math.abs(logs.my_two_over_double));
+    final BigDecimal result;
+    if (Double.isFinite(magnitude) && magnitude < MAX_DOUBLE_SIZE &&
+        Math.abs(size - Math.rint(size)) > epsilon() * magnitude) {
+      result = BigDecimal.valueOf((long) Math.ceil(size));
+    } else {
+      result = exactCeiling(the_gamma, the_risk_limit, the_diluted_margin, the_two_under,
+                            the_one_under, the_one_over, the_two_over);
+    }
+    return result;
+  }
+
+  /**
+   * Computes the stopping sample size for the specified parameters and
+   * numbers of over- and understatements, using only DECIMAL128 arithmetic.
+   *
+   * @param the_gamma The gamma.
+   * @param the_risk_limit The risk limit.
+   * @param the_diluted_margin The diluted margin.
+   * @param the_two_under The two-vote understatements.
+   * @param the_one_under The one-vote understatements.
+   * @param the_one_over The one-vote overstatements.
+   * @param the_two_over The two-vote overstatements.
+   * @return the sample size, which is never less than the number of over-
+   * and understatements.
+   */
+  static BigDecimal exact(final BigDecimal the_gamma, final BigDecimal the_risk_limit,
+                          final BigDecimal the_diluted_margin,
+                          final int the_two_under, final int the_one_under,
+                          final int the_one_over, final int the_two_over) {
+    return exactCeiling(the_gamma, the_risk_limit, the_diluted_margin, the_two_under,
+                        the_one_under, the_one_over, the_two_over).
+           max(BigDecimal.valueOf((long) the_two_under + the_one_under +
+                                  the_one_over + the_two_over));
+  }
+
+  /**
+   * Computes the ceiling of the stopping sample size formula with DECIMAL128
+   * arithmetic.
+   *
+   * @param the_gamma The gamma.
+   * @param the_risk_limit The risk limit.
+   * @param the_diluted_margin The diluted margin.
+   * @param the_two_under The two-vote understatements.
+   * @param the_one_under The one-vote understatements.
+   * @param the_one_over The one-vote overstatements.
+   * @param the_two_over The two-vote overstatements.
+   * @return the ceiling.
+   */
+  static BigDecimal exactCeiling(final BigDecimal the_gamma,
+                                 final BigDecimal the_risk_limit,
+                                 final BigDecimal the_diluted_margin,
+                                 final int the_two_under, final int the_one_under,
+                                 final int the_one_over, final int the_two_over) {
+    final GammaLogs logs = gammaLogs(the_gamma);
+    final BigDecimal two_under =
+        BigDecimal.valueOf(the_two_under).multiply(logs.my_two_under);
+    final BigDecimal one_under =
+        BigDecimal.valueOf(the_one_under).multiply(logs.my_one_under);
+    final BigDecimal one_over =
+        BigDecimal.valueOf(the_one_over).multiply(logs.my_one_over);
+    final BigDecimal two_over =
+        BigDecimal.valueOf(the_two_over).multiply(logs.my_two_over);
+    final BigDecimal risk_limit_log =
+        RISK_LIMIT_LOGS.computeIfAbsent(the_risk_limit, SampleSizeEstimator::log);
+    final BigDecimal numerator =
+        logs.my_two_gamma.negate().
+        multiply(risk_limit_log.add(two_under.add(one_under).add(one_over).add(two_over)));
+    return numerator.divide(the_diluted_margin, MathContext.DECIMAL128).
+           setScale(0, RoundingMode.CEILING);
+  }
+
+  /**
+   * @param the_gamma The gamma.
+   * @return the logarithms for the gamma, computing them if necessary.
+   */
+  private static GammaLogs gammaLogs(final BigDecimal the_gamma) {
+    return GAMMA_LOGS.computeIfAbsent(the_gamma, GammaLogs::new);
+  }
+
+  /**
+   * @param the_value A value.
+   * @return the natural logarithm of the value, with DECIMAL128 precision.
+   */
+  private static BigDecimal log(final BigDecimal the_value) {
+    return BigDecimalMath.log(the_value, MathContext.DECIMAL128);
+  }
+
+  /**
+   * @return the epsilon, reading it from the properties if necessary; it is
+   * never less than MIN_EPSILON.
+   */
+  private static double epsilon() {
+    if (epsilon == null) {
+      double value;
+      try {
+        value = Double.parseDouble(Main.properties().
+                                   getProperty(EPSILON_PROPERTY,
+                                               String.valueOf(DEFAULT_EPSILON)));
+      } catch (final NumberFormatException e) {
+        value = DEFAULT_EPSILON;
+      }
+      epsilon = Math.max(value, MIN_EPSILON);
+    }
+    return epsilon;
+  }
+
+  /**
+   * The logarithms in the sample size formula that depend only on gamma.
+   */
+  private static final class GammaLogs {
+    /**
+     * 2 * gamma.
+     */
+    private final BigDecimal my_two_gamma;
+
+    /**
+     * log(1 + 1 / gamma).
+     */
+    private final BigDecimal my_two_under;
+
+    /**
+     * log(1 + 1 / (2 * gamma)).
+     */
+    private final BigDecimal my_one_under;
+
+    /**
+     * log(1 - 1 / (2 * gamma)).
+     */
+    private final BigDecimal my_one_over;
+
+    /**
+     * log(1 - 1 / gamma).
+     */
+    private final BigDecimal my_two_over;
+
+    /**
+     * log(1 + 1 / gamma), in double precision.
+     */
+    private final double my_two_under_double;
+
+    /**
+     * log(1 + 1 / (2 * gamma)), in double precision.
+     */
+    private final double my_one_under_double;
+
+    /**
+     * log(1 - 1 / (2 * gamma)), in double precision.
+     */
+    private final double my_one_over_double;
+
+    /**
+     * log(1 - 1 / gamma), in double precision.
+     */
+    private final double my_two_over_double;
+
+    /**
+     * Computes the logarithms for the specified gamma.
+     *
+     * @param the_gamma The gamma.
+     */
+    GammaLogs(final BigDecimal the_gamma) {
+      final BigDecimal invgamma = BigDecimal.ONE.divide(the_gamma, MathContext.DECIMAL128);
+      my_two_gamma = BigDecimal.valueOf(2).multiply(the_gamma);
+      final BigDecimal invtwogamma =
+          BigDecimal.ONE.divide(my_two_gamma, MathContext.DECIMAL128);
+      my_two_under = BigDecimalMath.log(BigDecimal.ONE.add(invgamma), MathContext.DECIMAL128);
+      my_one_under =
+          BigDecimalMath.log(BigDecimal.ONE.add(invtwogamma), MathContext.DECIMAL128);
+      my_one_over =
+          BigDecimalMath.log(BigDecimal.ONE.subtract(invtwogamma), MathContext.DECIMAL128);
+      my_two_over =
+          BigDecimalMath.log(BigDecimal.ONE.subtract(invgamma), MathContext.DECIMAL128);
+      my_two_under_double = my_two_under.doubleValue();
+      my_one_under_double = my_one_under.doubleValue();
+      my_one_over_double = my_one_over.doubleValue();
+      my_two_over_double = my_two_over.doubleValue();
+    }
+  }
+}
@@ -0,0 +1,212 @@
+/*
+ * Free & Fair Colorado RLA System
+ *
+ * @title ColoradoRLA
+ * @created Oct 18, 2026
+ * @copyright 2017 Colorado Department of State
+ * @license SPDX-License-Identifier: AGPL-3.0-or-later
+ * @creator agent <agent@local>
+ * @description A system to assist in conducting statewide risk-limiting audits.
+ */
+
+package us.freeandfair.corla.persistence;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Consumer;
+
+import org.hibernate.SessionFactory;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.event.service.spi.EventListenerRegistry;
+import org.hibernate.event.spi.EventType;
+import org.hibernate.event.spi.PostCommitDeleteEventListener;
+import org.hibernate.event.spi.PostCommitInsertEventListener;
+import org.hibernate.event.spi.PostCommitUpdateEventListener;
+import org.hibernate.event.spi.PostDeleteEvent;
+import org.hibernate.event.spi.PostInsertEvent;
+import org.hibernate.event.spi.PostUpdateEvent;
+import org.hibernate.persister.entity.EntityPersister;
+
+import us.freeandfair.corla.Main;
+
+/**
+ * Notifies subscribers when entities of the classes they are interested in
+ * are inserted, updated or deleted by a committed transaction. Subscribers
+ * are called on the committing thread, after the commit, once for each
+ * changed entity; they should return quickly. Changes made by bulk queries
+ * (such as a database reset) are not reported.
+ *
+ * @author agent <agent@local>
+ * @version 1.0.0
+ */
+public final class EntityChangeEvents {
+  /**
+   * The subscriptions.
+   */
+  private static final List<Subscription> SUBSCRIPTIONS = new CopyOnWriteArrayList<>();
+
+  /**
+   * Private constructor to prevent instantiation.
+   */
+  private EntityChangeEvents() {
+    // do nothing
+  }
+
+  /**
+   * Subscribes to committed changes of entities of the specified class
+   * (or its subclasses).
+   *
+   * @param the_class The class.
+   * @param the_subscriber The subscriber, which is given each changed entity.
+   */
+  public static void subscribe(final Class<? extends PersistentEntity> the_class,
+                               final Consumer<PersistentEntity> the_subscriber) {
+    SUBSCRIPTIONS.add(new Subscription(the_class, the_subscriber));
+  }
+
+  /**
+   * Registers the listener that publishes changes with the specified
+   * session factory.
+   *
+   * @param the_session_factory The session factory.
+   */
+  static void register(final SessionFactory the_session_factory) {
+    final EventListenerRegistry registry =
+        ((SessionFactoryImplementor) the_session_factory).getServiceRegistry().
+        getService(EventListenerRegistry.class);
+    final CommitListener listener = new CommitListener();
+    registry.appendListeners(EventType.POST_COMMIT_INSERT, listener);
+    registry.appendListeners(EventType.POST_COMMIT_UPDATE, listener);
+    registry.appendListeners(EventType.POST_COMMIT_DELETE, listener);
+  }
+
+  /**
+   * @param the_class An entity class.
+   * @return true if any subscriber is interested in the class, false otherwise.
+   */
+  static boolean isObserved(final Class<?> the_class) {
+    boolean result = false;
+    for (final Subscription subscription : SUBSCRIPTIONS) {
+      result |= subscription.my_class.isAssignableFrom(the_class);
+    }
+    return result;
+  }
+
+  /**
+   * Publishes a committed change to the interested subscribers.
+   *
+   * @param the_entity The changed entity.
+   */
+  @SuppressWarnings("PMD.AvoidCatchingGenericException")
+  static void publish(final Object the_entity) {
+    if (the_entity instanceof PersistentEntity) {
+      for (final Subscription subscription : SUBSCRIPTIONS) {
+        if (subscription.my_class.isInstance(the_entity)) {
+          try {
+            subscription.my_subscriber.accept((PersistentEntity) the_entity);
+          } catch (final RuntimeException e) {
+            // the transaction has already committed, so all we can do is log
+            Main.LOGGER.error("entity change subscriber failed: " + e);
+          }
+        }
+      }
+    }
+  }
+
+  /**
+   * A subscription.
+   */
+  private static final class Subscription {
+    /**
+     * The entity class.
+     */
+    private final Class<? extends PersistentEntity> my_class;
+
+    /**
+     * The subscriber.
+     */
+    private final Consumer<PersistentEntity> my_subscriber;
+
+    /**
+     * Constructs a new subscription.
+     *
+     * @param the_class The entity class.
+     * @param the_subscriber The subscriber.
+     */
+    Subscription(final Class<? extends PersistentEntity> the_class,
+                 final Consumer<PersistentEntity> the_subscriber) {
+      my_class = the_class;
+      my_subscriber = the_subscriber;
+    }
+  }
+
+  /**
+   * The Hibernate listener for committed changes. It asks Hibernate to
+   * track only the entities of observed classes, so that large imports of
+   * other entities do not accumulate post-commit actions.
+   */
+  private static final class CommitListener
+      implements PostCommitInsertEventListener, PostCommitUpdateEventListener,
+                 PostCommitDeleteEventListener {
+    /**
+     * The serialVersionUID.
+     */
+    private static final long serialVersionUID = 1;
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public boolean requiresPostCommitHanding(final EntityPersister the_persister) {
+      return isObserved(the_persister.getMappedClass());
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void onPostInsert(final PostInsertEvent the_event) {
+      publish(the_event.getEntity());
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void onPostUpdate(final PostUpdateEvent the_event) {
+      publish(the_event.getEntity());
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void onPostDelete(final PostDeleteEvent the_event) {
+      publish(the_event.getEntity());
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void onPostInsertCommitFailed(final PostInsertEvent the_event) {
+      // nothing was committed
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void onPostUpdateCommitFailed(final PostUpdateEvent the_event) {
+      // nothing was committed
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void onPostDeleteCommitFailed(final PostDeleteEvent the_event) {
+      // nothing was committed
+    }
+  }
+}
@@ -100,6 +100,13 @@ public final class Persistence {
    */
   private static ThreadLocal<Session> session_info = new ThreadLocal<Session>();
   
+  /**
+   * A thread-local containing the actions to run when the active transaction 
+   * on this thread commits.
+   */
+  private static ThreadLocal<List<Runnable>> commit_actions = 
+      ThreadLocal.withInitial(ArrayList::new);
+  
   /**
    * A flag indicating whether persistence has failed to start or not.
    */
@@ -295,6 +302,7 @@ public final class Persistence {
       
       // create session factory
       session_factory = metadata.getSessionFactoryBuilder().build();
+      EntityChangeEvents.register(session_factory);
       Main.LOGGER.debug("started Hibernate");
     } catch (final RuntimeException e) {
       Main.LOGGER.error("could not start Hibernate, persistence is disabled: " + e);
@@ -387,7 +395,9 @@ public final class Persistence {
       session.beginTransaction();
     } else {
       // we don't have an active or rollback-able transaction, so we just
-      // start a new one
+      // start a new one, without any actions left over from a session 
+      // that was closed without committing
+      commit_actions.remove();
       session.beginTransaction();
     } 
 
@@ -406,13 +416,40 @@ public final class Persistence {
   public static void commitTransaction() 
       throws IllegalStateException, PersistenceException, RollbackException {
     checkForRunningTransaction();
+    final List<Runnable> actions = commit_actions.get();
+    commit_actions.remove();
     try {
       currentSession().getTransaction().commit();
     } finally {
       currentSession().close();
       session_info.remove();
     }
-    
+    for (final Runnable action : actions) {
+      try {
+        action.run();
+      } catch (final RuntimeException e) {
+        Main.LOGGER.error("exception in post-commit action: " + e);
+      }
+    }
+  }
+  
+  /**
+   * Registers an action to run after the active long-lived transaction on 
+   * this thread commits successfully; the action is discarded if the 
+   * transaction is rolled back or its commit fails. Actions run in the order 
+   * they were registered, on the committing thread, after the session is 
+   * closed; an exception thrown by one action is logged and does not prevent 
+   * the others from running. This is the place to invalidate caches of 
+   * persistent state, since invalidating them before the commit allows a 
+   * concurrent reader to rebuild them from the uncommitted state.
+   * 
+   * @param the_action The action.
+   * @exception IllegalStateException if no transaction is running.
+   */
+  public static void afterCommit(final Runnable the_action) 
+      throws IllegalStateException {
+    checkForRunningTransaction();
+    commit_actions.get().add(the_action);
   }
   
   /**
@@ -426,6 +463,7 @@ public final class Persistence {
   public static void rollbackTransaction() 
       throws IllegalStateException, PersistenceException {
     if (canTransactionRollback()) {
+      commit_actions.remove();
       try {
         currentSession().getTransaction().rollback();
       } finally {
@@ -586,6 +624,25 @@ public final class Persistence {
     return result;
   } 
   
+  /**
+   * Gets a reference to the entity that has the specified ID and class, 
+   * without loading its state from the database until it is accessed. 
+   * This method must be called within a transaction, and should only be 
+   * used for entities that are known to exist.
+   * 
+   * @param the_id The ID.
+   * @param the_class The class.
+   * @return the reference.
+   * @exception IllegalStateException if no database is available or no 
+   * transaction is running.
+   */
+  public static <T extends PersistentEntity> T getReference(final Serializable the_id, 
+                                                            final Class<T> the_class) 
+      throws IllegalStateException {
+    checkForRunningTransaction();
+    return currentSession().load(the_class, the_id);
+  }
+  
   /**
    * Gets all the entities of the specified class. This method must be called
    * within a transaction.
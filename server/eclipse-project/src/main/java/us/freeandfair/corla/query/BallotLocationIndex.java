@@ -0,0 +1,204 @@
+/*
+ * Free & Fair Colorado RLA System
+ *
+ * @title ColoradoRLA
+ * @created Oct 18, 2026
+ * @copyright 2017 Colorado Department of State
+ * @license SPDX-License-Identifier: AGPL-3.0-or-later
+ * @creator agent <agent@local>
+ * @description A system to assist in conducting statewide risk-limiting audits.
+ */
+
+package us.freeandfair.corla.query;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import javax.persistence.PersistenceException;
+import javax.persistence.TypedQuery;
+import javax.persistence.criteria.CriteriaBuilder;
+import javax.persistence.criteria.CriteriaQuery;
+import javax.persistence.criteria.Root;
+
+import org.hibernate.Session;
+
+import us.freeandfair.corla.Main;
+import us.freeandfair.corla.model.BallotLocator;
+import us.freeandfair.corla.model.BallotManifestInfo;
+import us.freeandfair.corla.model.CountyDashboard;
+import us.freeandfair.corla.persistence.Persistence;
+
+/**
+ * An in-memory index, for each county, from the (scanner ID, batch ID)
+ * pairs in its ballot manifest to the storage locations of the batches.
+ * The index for a county is built with a single query the first time it
+ * is needed, and is tagged with the ballot manifest file recorded on the
+ * county dashboard it was built for; a lookup with a dashboard that records
+ * a different manifest file rebuilds the index. Each index is an immutable 
+ * map, so finding the locations of the ballots in an audit list takes no 
+ * further queries.
+ *
+ * @author agent <agent@local>
+ * @version 1.0.0
+ */
+public final class BallotLocationIndex {
+  /**
+   * The number of bits to shift a scanner ID when forming a key.
+   */
+  private static final int SCANNER_SHIFT = 32;
+
+  /**
+   * The mask for a batch ID when forming a key.
+   */
+  private static final long BATCH_MASK = 0xFFFFFFFFL;
+
+  /**
+   * The indexes, keyed by county ID.
+   */
+  private static final Map<Long, Index> INDEXES = new ConcurrentHashMap<>();
+
+  /**
+   * Private constructor to prevent instantiation.
+   */
+  private BallotLocationIndex() {
+    // do nothing
+  }
+
+  /**
+   * Gets the storage locations of the specified ballots, all of which must
+   * be from the county of the specified dashboard, building the county's 
+   * index if necessary. This method must be called within the transaction
+   * that read the dashboard, so that the index is built from the ballot
+   * manifest the dashboard records.
+   *
+   * @param the_cdb The county dashboard.
+   * @param the_ballots The ballot locators.
+   * @return the list of locations, in the same order as the ballots; the
+   * location of a ballot whose batch is not in the ballot manifest, or of
+   * every ballot if the ballot manifest cannot be read, is null.
+   */
+  public static List<String> locationsFor(final CountyDashboard the_cdb,
+                                          final List<BallotLocator> the_ballots) {
+    final List<String> result = new ArrayList<>(the_ballots.size());
+    try {
+      final Map<Long, String> index = indexFor(the_cdb);
+      for (final BallotLocator ballot : the_ballots) {
+        result.add(index.get(key(ballot.scannerID(), ballot.batchID())));
+      }
+    } catch (final PersistenceException e) {
+      Main.LOGGER.error("Exception when finding ballot locations: " + e);
+      result.clear();
+      result.addAll(Collections.nCopies(the_ballots.size(), (String) null));
+    }
+    return result;
+  }
+
+  /**
+   * Discards the index for the specified county. Since indexes are tagged
+   * with their ballot manifest files, this only releases memory; it should
+   * be called after the transaction that imports a ballot manifest commits.
+   *
+   * @param the_county_id The county ID.
+   */
+  public static void invalidate(final Long the_county_id) {
+    INDEXES.remove(the_county_id);
+  }
+
+  /**
+   * Discards the indexes for all counties.
+   */
+  public static void invalidateAll() {
+    INDEXES.clear();
+  }
+
+  /**
+   * Gets the index for the county of the specified dashboard, building it 
+   * if it does not exist or was built for a different ballot manifest file.
+   *
+   * @param the_cdb The county dashboard.
+   * @return the index.
+   * @exception PersistenceException if the index cannot be built.
+   */
+  private static Map<Long, String> indexFor(final CountyDashboard the_cdb) {
+    Long version = null;
+    if (the_cdb.manifestFile() != null) {
+      version = the_cdb.manifestFile().id();
+    }
+    Index index = INDEXES.get(the_cdb.id());
+    if (index == null || version == null || !version.equals(index.my_version)) {
+      index = new Index(version, buildIndex(the_cdb.id()));
+      // an index without a ballot manifest file is not cached
+      if (version != null) {
+        INDEXES.put(the_cdb.id(), index);
+      }
+    }
+    return index.my_locations;
+  }
+  /**
+   * Builds the index for the specified county from the database.
+   *
+   * @param the_county_id The county ID.
+   * @return the index.
+   * @exception PersistenceException if the index cannot be built.
+   */
+  private static Map<Long, String> buildIndex(final Long the_county_id) {
+    final Session s = Persistence.currentSession();
+    final CriteriaBuilder cb = s.getCriteriaBuilder();
+    final CriteriaQuery<Object[]> cq = cb.createQuery(Object[].class);
+    final Root<BallotManifestInfo> root = cq.from(BallotManifestInfo.class);
+    cq.multiselect(root.get("my_scanner_id"), root.get("my_batch_id"),
+                   root.get("my_storage_location"));
+    cq.where(cb.equal(root.get("my_county_id"), the_county_id));
+    final TypedQuery<Object[]> query = s.createQuery(cq);
+    final List<Object[]> rows = query.getResultList();
+
+    final Map<Long, String> result = new HashMap<>();
+    for (final Object[] row : rows) {
+      // there should never be more than one location for a batch, but if
+      // there is, we use the first one
+      result.putIfAbsent(key((Integer) row[0], (Integer) row[1]), (String) row[2]);
+    }
+    Main.LOGGER.debug("built ballot location index of size " + result.size() +
+                      " for county " + the_county_id);
+    return Collections.unmodifiableMap(result);
+  }
+
+  /**
+   * @param the_scanner_id The scanner ID.
+   * @param the_batch_id The batch ID.
+   * @return the index key for the specified scanner and batch IDs.
+   */
+  private static Long key(final Integer the_scanner_id, final Integer the_batch_id) {
+    return ((long) the_scanner_id << SCANNER_SHIFT) | (the_batch_id & BATCH_MASK);
+  }
+
+  /**
+   * An index, with the ballot manifest file it was built for.
+   */
+  private static final class Index {
+    /**
+     * The ID of the ballot manifest file.
+     */
+    private final Long my_version;
+
+    /**
+     * The storage locations, by key.
+     */
+    private final Map<Long, String> my_locations;
+
+    /**
+     * Constructs an index.
+     *
+     * @param the_version The ID of the ballot manifest file.
+     * @param the_locations The storage locations, by key.
+     */
+    Index(final Long the_version, final Map<Long, String> the_locations) {
+      my_version = the_version;
+      my_locations = the_locations;
+    }
+  }
+}
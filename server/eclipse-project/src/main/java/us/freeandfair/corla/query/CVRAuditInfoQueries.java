@@ -0,0 +1,65 @@
+/*
+ * Free & Fair Colorado RLA System
+ *
+ * @title ColoradoRLA
+ * @created Oct 18, 2026
+ * @copyright 2017 Colorado Department of State
+ * @license SPDX-License-Identifier: AGPL-3.0-or-later
+ * @creator agent <agent@local>
+ * @description A system to assist in conducting statewide risk-limiting audits.
+ */
+
+package us.freeandfair.corla.query;
+
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.Set;
+
+import javax.persistence.TypedQuery;
+import javax.persistence.criteria.CriteriaBuilder;
+import javax.persistence.criteria.CriteriaQuery;
+import javax.persistence.criteria.Root;
+
+import org.hibernate.Session;
+
+import us.freeandfair.corla.model.CVRAuditInfo;
+import us.freeandfair.corla.persistence.Persistence;
+
+/**
+ * Queries having to do with CVRAuditInfo entities.
+ *
+ * @author agent <agent@local>
+ * @version 1.0.0
+ */
+public final class CVRAuditInfoQueries {
+  /**
+   * Private constructor to prevent instantiation.
+   */
+  private CVRAuditInfoQueries() {
+    // do nothing
+  }
+
+  /**
+   * Finds which of the specified CVRs have been audited, that is, have
+   * audit CVRs recorded for them.
+   *
+   * @param the_cvr_ids The CVR IDs.
+   * @return the set of audited CVR IDs.
+   * @exception PersistenceException if the query fails.
+   */
+  public static Set<Long> auditedIDs(final Collection<Long> the_cvr_ids) {
+    final Set<Long> result = new HashSet<>();
+    if (!the_cvr_ids.isEmpty()) {
+      final Session s = Persistence.currentSession();
+      final CriteriaBuilder cb = s.getCriteriaBuilder();
+      final CriteriaQuery<Long> cq = cb.createQuery(Long.class);
+      final Root<CVRAuditInfo> root = cq.from(CVRAuditInfo.class);
+      cq.select(root.get("my_id"));
+      cq.where(cb.and(root.get("my_id").in(the_cvr_ids),
+                      cb.isNotNull(root.get("my_acvr"))));
+      final TypedQuery<Long> query = s.createQuery(cq);
+      result.addAll(query.getResultList());
+    }
+    return result;
+  }
+}
@@ -0,0 +1,217 @@
+/*
+ * Free & Fair Colorado RLA System
+ * 
+ * @title ColoradoRLA
+ * @created Oct 18, 2026
+ * @copyright 2017 Colorado Department of State
+ * @license SPDX-License-Identifier: AGPL-3.0-or-later
+ * @creator agent <agent@local>
+ * @description A system to assist in conducting statewide risk-limiting audits.
+ */
+
+package us.freeandfair.corla.query;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+
+import javax.persistence.PersistenceException;
+import javax.persistence.TypedQuery;
+import javax.persistence.criteria.CriteriaBuilder;
+import javax.persistence.criteria.CriteriaQuery;
+import javax.persistence.criteria.Root;
+
+import org.hibernate.Session;
+
+import us.freeandfair.corla.Main;
+import us.freeandfair.corla.model.CastVoteRecord;
+import us.freeandfair.corla.model.CastVoteRecord.RecordType;
+import us.freeandfair.corla.model.CountyDashboard;
+import us.freeandfair.corla.persistence.Persistence;
+
+/**
+ * An in-memory index, for each county, from the sequence numbers of its
+ * uploaded CVRs to their database IDs. The index for a county is built
+ * the first time it is needed after a CVR import, and is tagged with the 
+ * import version (the CVR file and import timestamp recorded on the county 
+ * dashboard) it was built from; a lookup with a dashboard that records a 
+ * different import version rebuilds the index, so a lookup never needs a 
+ * query to check that the index is current. Each index is an immutable
+ * array, so looking up a sequence number is an array read.
+ * 
+ * @author agent <agent@local>
+ * @version 1.0.0
+ */
+public final class CVRSequenceIndex {
+  /**
+   * The indexes, keyed by county ID.
+   */
+  private static final Map<Long, Index> INDEXES = new ConcurrentHashMap<>();
+
+  /**
+   * Private constructor to prevent instantiation.
+   */
+  private CVRSequenceIndex() {
+    // do nothing
+  }
+
+  /**
+   * Gets the IDs of the uploaded CVRs with the specified sequence numbers
+   * in the county of the specified dashboard, building the county's index 
+   * if necessary. This method must be called within the transaction that
+   * read the dashboard, so that the index is built from the CVRs of the 
+   * import the dashboard records.
+   * 
+   * @param the_cdb The county dashboard.
+   * @param the_sequence_numbers The sequence numbers.
+   * @return the list of CVR IDs, in the same order as the sequence numbers.
+   * @exception IllegalArgumentException if any of the sequence numbers is
+   * not the sequence number of an uploaded CVR in the county.
+   * @exception PersistenceException if the index cannot be built.
+   */
+  public static List<Long> idsFor(final CountyDashboard the_cdb,
+                                  final List<Integer> the_sequence_numbers) {
+    return idsFor(the_cdb.id(), importVersion(the_cdb), the_sequence_numbers,
+                  CVRSequenceIndex::buildIndex);
+  }
+
+  /**
+   * Discards the index for the specified county. Since indexes are tagged
+   * with their import versions, this only releases memory; it should be 
+   * called after the transaction that deletes the county's CVRs commits.
+   * 
+   * @param the_county_id The county ID.
+   */
+  public static void invalidate(final Long the_county_id) {
+    INDEXES.remove(the_county_id);
+  }
+
+  /**
+   * Discards the indexes for all counties.
+   */
+  public static void invalidateAll() {
+    INDEXES.clear();
+  }
+
+  /**
+   * Gets the IDs of the CVRs with the specified sequence numbers in the 
+   * specified county, using the county's index if it was built for the 
+   * specified import version, and otherwise building and caching a new one.
+   * 
+   * @param the_county_id The county ID.
+   * @param the_version The import version, or null if the county has no
+   * imported CVRs; indexes for a null import version are not cached.
+   * @param the_sequence_numbers The sequence numbers.
+   * @param the_builder The function that builds the index for a county.
+   * @return the list of CVR IDs, in the same order as the sequence numbers.
+   * @exception IllegalArgumentException if any of the sequence numbers is
+   * not the sequence number of a CVR in the index.
+   */
+  static List<Long> idsFor(final Long the_county_id, final String the_version,
+                           final List<Integer> the_sequence_numbers,
+                           final Function<Long, long[]> the_builder) {
+    Index index = INDEXES.get(the_county_id);
+    if (index == null || the_version == null || !the_version.equals(index.my_version)) {
+      index = new Index(the_version, the_builder.apply(the_county_id));
+      if (the_version != null) {
+        INDEXES.put(the_county_id, index);
+      }
+    }
+    final List<Long> result = new ArrayList<>(the_sequence_numbers.size());
+    for (final int sequence_number : the_sequence_numbers) {
+      if (sequence_number < 0 || index.my_ids.length <= sequence_number) {
+        throw new IllegalArgumentException("invalid sequence number " + sequence_number +
+                                           " for county " + the_county_id);
+      }
+      result.add(index.my_ids[sequence_number]);
+    }
+    return result;
+  }
+
+  /**
+   * Computes the import version recorded on a county dashboard.
+   * 
+   * @param the_cdb The county dashboard.
+   * @return the import version, or null if the dashboard has no CVR file.
+   */
+  static String importVersion(final CountyDashboard the_cdb) {
+    String result = null;
+    if (the_cdb.cvrFile() != null) {
+      result = the_cdb.cvrFile().id() + "@" + the_cdb.cvrImportStatus().timestamp();
+    }
+    return result;
+  }
+
+  /**
+   * Builds an index from (sequence number, ID) pairs.
+   * 
+   * @param the_county_id The county ID.
+   * @param the_rows The pairs, in any order.
+   * @return the index.
+   * @exception PersistenceException if the sequence numbers are not 
+   * consecutive from 0.
+   */
+  static long[] buildIndex(final Long the_county_id, final List<Object[]> the_rows) {
+    // sequence numbers are assigned consecutively from 0 during import
+    final long[] result = new long[the_rows.size()];
+    for (final Object[] row : the_rows) {
+      final int sequence_number = (Integer) row[0];
+      if (sequence_number < 0 || result.length <= sequence_number) {
+        throw new PersistenceException("non-consecutive CVR sequence number " +
+                                       sequence_number + " in county " + the_county_id);
+      }
+      result[sequence_number] = (Long) row[1];
+    }
+    return result;
+  }
+
+  /**
+   * Builds the index for the specified county from the database.
+   * 
+   * @param the_county_id The county ID.
+   * @return the index.
+   * @exception PersistenceException if the index cannot be built.
+   */
+  private static long[] buildIndex(final Long the_county_id) {
+    final Session s = Persistence.currentSession();
+    final CriteriaBuilder cb = s.getCriteriaBuilder();
+    final CriteriaQuery<Object[]> cq = cb.createQuery(Object[].class);
+    final Root<CastVoteRecord> root = cq.from(CastVoteRecord.class);
+    cq.multiselect(root.get("my_sequence_number"), root.get("my_id"));
+    cq.where(cb.and(cb.equal(root.get("my_county_id"), the_county_id),
+                    cb.equal(root.get("my_record_type"), RecordType.UPLOADED)));
+    final TypedQuery<Object[]> query = s.createQuery(cq);
+    final long[] result = buildIndex(the_county_id, query.getResultList());
+    Main.LOGGER.debug("built CVR sequence index of size " + result.length +
+                      " for county " + the_county_id);
+    return result;
+  }
+
+  /**
+   * An index, with the import version it was built for.
+   */
+  private static final class Index {
+    /**
+     * The import version.
+     */
+    private final String my_version;
+
+    /**
+     * The CVR IDs, by sequence number.
+     */
+    private final long[] my_ids;
+
+    /**
+     * Constructs an index.
+     * 
+     * @param the_version The import version.
+     * @param the_ids The CVR IDs, by sequence number.
+     */
+    Index(final String the_version, final long[] the_ids) {
+      my_version = the_version;
+      my_ids = the_ids;
+    }
+  }
+}
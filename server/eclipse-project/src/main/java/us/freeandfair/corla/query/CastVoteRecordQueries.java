@@ -32,6 +32,7 @@ import org.hibernate.Session;
 import org.hibernate.query.Query;
 
 import us.freeandfair.corla.Main;
+import us.freeandfair.corla.model.BallotLocator;
 import us.freeandfair.corla.model.CastVoteRecord;
 import us.freeandfair.corla.model.CastVoteRecord.RecordType;
 import us.freeandfair.corla.persistence.Persistence;
@@ -368,4 +369,44 @@ public final class CastVoteRecordQueries {
     
     return result;
   }
+  
+  /**
+   * Obtain the ballot locators of the CastVoteRecord objects with the 
+   * specified IDs. Only the fields of the ballot locators are read, so the
+   * contest information of the CastVoteRecord objects is not loaded.
+   * 
+   * @param the_ids The IDs.
+   * @return the matching ballot locators, an empty list if none are found,
+   * or null if the query fails.
+   */
+  public static List<BallotLocator> getLocators(final List<Long> the_ids) {
+    if (the_ids.isEmpty()) {
+      return new ArrayList<>();
+    }
+    List<BallotLocator> result = null;
+    
+    try {
+      final Session s = Persistence.currentSession();
+      final CriteriaBuilder cb = s.getCriteriaBuilder();
+      final CriteriaQuery<BallotLocator> cq = cb.createQuery(BallotLocator.class);
+      final Root<CastVoteRecord> root = cq.from(CastVoteRecord.class);
+      cq.select(cb.construct(BallotLocator.class, root.get("my_id"), root.get(COUNTY_ID),
+                             root.get("my_cvr_number"), root.get(SEQUENCE_NUMBER),
+                             root.get("my_scanner_id"), root.get("my_batch_id"),
+                             root.get("my_record_id"), root.get("my_imprinted_id"),
+                             root.get("my_ballot_type")));
+      cq.where(root.get("my_id").in(the_ids));
+      final TypedQuery<BallotLocator> query = s.createQuery(cq);
+      result = query.getResultList();
+    } catch (final PersistenceException e) {
+      Main.LOGGER.error(COULD_NOT_QUERY_DATABASE);
+    }
+    if (result == null) {
+      Main.LOGGER.debug("found no CVRs with ids " + the_ids);
+    } else {
+      Main.LOGGER.debug("found " + result.size() + " ballot locators");
+    }
+    
+    return result;
+  }
 }
@@ -17,6 +17,7 @@ import javax.persistence.PersistenceException;
 import javax.persistence.TypedQuery;
 import javax.persistence.criteria.CriteriaBuilder;
 import javax.persistence.criteria.CriteriaQuery;
+import javax.persistence.criteria.CriteriaUpdate;
 import javax.persistence.criteria.Root;
 
 import org.hibernate.Session;
@@ -24,6 +25,7 @@ import org.hibernate.Session;
 import us.freeandfair.corla.Main;
 import us.freeandfair.corla.model.Contest;
 import us.freeandfair.corla.model.CountyContestComparisonAudit;
+import us.freeandfair.corla.model.CountyDashboard;
 import us.freeandfair.corla.persistence.Persistence;
 
 /**
@@ -71,4 +73,29 @@ public final class CountyContestComparisonAuditQueries {
     }
     return result;
   }
+  
+  /**
+   * Sets the audited sample count of all the CountyContestComparisonAudit 
+   * objects for the specified county dashboard to the dashboard's audited
+   * sample count, with a single update; the count is not updatable through
+   * the objects themselves, so that they need not all be changed each time
+   * a sample is audited.
+   * 
+   * @param the_cdb The county dashboard.
+   * @return the number of audits updated.
+   * @exception PersistenceException if the audits cannot be updated.
+   */
+  public static int updateAuditedSampleCounts(final CountyDashboard the_cdb) {
+    final Session s = Persistence.currentSession();
+    final CriteriaBuilder cb = s.getCriteriaBuilder();
+    final CriteriaUpdate<CountyContestComparisonAudit> cu = 
+        cb.createCriteriaUpdate(CountyContestComparisonAudit.class);
+    final Root<CountyContestComparisonAudit> root = 
+        cu.from(CountyContestComparisonAudit.class);
+    final Integer count = the_cdb.auditedSampleCount();
+    cu.set(root.<Integer>get("my_audited_sample_count"), count);
+    cu.where(cb.and(cb.equal(root.get("my_dashboard"), the_cdb),
+                    cb.notEqual(root.get("my_audited_sample_count"), count)));
+    return s.createQuery(cu).executeUpdate();
+  }
 }
@@ -0,0 +1,111 @@
+/*
+ * Free & Fair Colorado RLA System
+ *
+ * @title ColoradoRLA
+ * @created Oct 18, 2026
+ * @copyright 2017 Colorado Department of State
+ * @license SPDX-License-Identifier: AGPL-3.0-or-later
+ * @creator agent <agent@local>
+ * @description A system to assist in conducting statewide risk-limiting audits.
+ */
+
+package us.freeandfair.corla.query;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import javax.persistence.TypedQuery;
+import javax.persistence.criteria.CriteriaBuilder;
+import javax.persistence.criteria.CriteriaQuery;
+import javax.persistence.criteria.Join;
+import javax.persistence.criteria.JoinType;
+import javax.persistence.criteria.Root;
+
+import org.hibernate.Session;
+
+import us.freeandfair.corla.asm.AuditBoardDashboardASM;
+import us.freeandfair.corla.asm.CountyDashboardASM;
+import us.freeandfair.corla.asm.PersistentASMState;
+import us.freeandfair.corla.model.CountyDashboard;
+import us.freeandfair.corla.model.DoSDashboard;
+import us.freeandfair.corla.model.UploadedFile;
+import us.freeandfair.corla.persistence.Persistence;
+
+/**
+ * Queries for the versions of the entities that dashboard refresh responses
+ * are built from, which are much cheaper than building the responses.
+ *
+ * @author agent <agent@local>
+ * @version 1.0.0
+ */
+public final class DashboardVersionQueries {
+  /**
+   * The separator between the versions in a composite version.
+   */
+  private static final String SEPARATOR = ".";
+
+  /**
+   * Private constructor to prevent instantiation.
+   */
+  private DashboardVersionQueries() {
+    // do nothing
+  }
+
+  /**
+   * Computes the composite version of the county dashboard refresh response
+   * for the specified county: the versions of the county dashboard, its
+   * uploaded files, the DoS dashboard, and the county's county dashboard
+   * and audit board dashboard ASM states. This method must be called within
+   * a transaction.
+   *
+   * @param the_county_id The county ID.
+   * @return the composite version.
+   * @exception PersistenceException if the versions cannot be read.
+   */
+  public static String countyDashboardVersion(final Long the_county_id) {
+    final Session s = Persistence.currentSession();
+    final CriteriaBuilder cb = s.getCriteriaBuilder();
+    final List<Object> versions = new ArrayList<>();
+
+    final CriteriaQuery<Object[]> cdb_cq = cb.createQuery(Object[].class);
+    final Root<CountyDashboard> cdb = cdb_cq.from(CountyDashboard.class);
+    final Join<CountyDashboard, UploadedFile> cvr_file =
+        cdb.join("my_cvr_file", JoinType.LEFT);
+    final Join<CountyDashboard, UploadedFile> manifest_file =
+        cdb.join("my_manifest_file", JoinType.LEFT);
+    cdb_cq.multiselect(cdb.get("my_version"), cvr_file.get("my_version"),
+                       manifest_file.get("my_version"));
+    cdb_cq.where(cb.equal(cdb.get("my_id"), the_county_id));
+    for (final Object[] row : s.createQuery(cdb_cq).getResultList()) {
+      for (final Object version : row) {
+        versions.add(version);
+      }
+    }
+
+    final CriteriaQuery<Long> dos_cq = cb.createQuery(Long.class);
+    final Root<DoSDashboard> dos = dos_cq.from(DoSDashboard.class);
+    dos_cq.select(dos.get("my_version"));
+    dos_cq.where(cb.equal(dos.get("my_id"), DoSDashboard.ID));
+    versions.addAll(s.createQuery(dos_cq).getResultList());
+
+    final CriteriaQuery<Long> asm_cq = cb.createQuery(Long.class);
+    final Root<PersistentASMState> asm = asm_cq.from(PersistentASMState.class);
+    asm_cq.select(asm.get("my_version"));
+    asm_cq.where(cb.and(cb.equal(asm.get("my_asm_identity"), the_county_id.toString()),
+                        asm.get("my_asm_class").
+                        in(CountyDashboardASM.class.getName(),
+                           AuditBoardDashboardASM.class.getName())));
+    asm_cq.orderBy(cb.asc(asm.get("my_asm_class")));
+    final TypedQuery<Long> asm_query = s.createQuery(asm_cq);
+    versions.addAll(asm_query.getResultList());
+
+    final StringBuilder result = new StringBuilder();
+    for (final Object version : versions) {
+      if (result.length() > 0) {
+        result.append(SEPARATOR);
+      }
+      result.append(version);
+    }
+    return result.toString();
+  }
+}
@@ -46,14 +46,15 @@ public final class DatabaseResetQueries {
     // the records in the following list of tables will be deleted, in order:
     
     final String[] tables = {
-        "log", "audit_board", "audit_intermediate_report", 
-        "audit_investigation_report", "ballot_manifest_info",
+        "pending_log", "log_checkpoint", "log", "audit_board", 
+        "audit_intermediate_report", "audit_investigation_report", 
+        "ballot_manifest_info",
         "contest_choice", "contest_to_audit", 
         "county_contest_vote_total", 
         "county_contest_comparison_audit_discrepancy", 
         "county_contest_comparison_audit_disagreement",
         "county_contest_comparison_audit", 
-        "county_contest_result", "cvr_contest_info", 
+        "county_contest_result", "cvr_contest_info", "cvr_import_checkpoint",
         "driving_contest", "contest", "cvr_audit_info", "cast_vote_record", 
         "dos_dashboard", "round", "audit_board", "county_dashboard",
         "uploaded_file"
@@ -12,18 +12,23 @@
 package us.freeandfair.corla.query;
 
 import java.util.List;
+import java.util.stream.Stream;
 
 import javax.persistence.PersistenceException;
 import javax.persistence.TypedQuery;
 import javax.persistence.criteria.CriteriaBuilder;
 import javax.persistence.criteria.CriteriaQuery;
+import javax.persistence.criteria.Join;
+import javax.persistence.criteria.JoinType;
 import javax.persistence.criteria.Root;
 import javax.persistence.criteria.Subquery;
 
 import org.hibernate.Session;
+import org.hibernate.query.Query;
 
 import us.freeandfair.corla.Main;
 import us.freeandfair.corla.model.LogEntry;
+import us.freeandfair.corla.model.PendingLogEntry;
 import us.freeandfair.corla.persistence.Persistence;
 
 /**
@@ -33,6 +38,11 @@ import us.freeandfair.corla.persistence.Persistence;
  * @version 1.0.0
  */
 public final class LogEntryQueries {
+  /**
+   * The number of rows to fetch at a time when reading the hash chain.
+   */
+  private static final int CHAIN_FETCH_SIZE = 1000;
+  
   /**
    * Private constructor to prevent instantiation.
    */
@@ -84,4 +94,53 @@ public final class LogEntryQueries {
     
     return result;
   }
+  
+  /**
+   * Obtains the oldest pending log entries, in the order in which they were
+   * created.
+   * 
+   * @param the_limit The maximum number of entries to obtain.
+   * @return the pending log entries.
+   * @exception PersistenceException if the query fails.
+   */
+  public static List<PendingLogEntry> pending(final int the_limit) {
+    final Session s = Persistence.currentSession();
+    final CriteriaBuilder cb = s.getCriteriaBuilder();
+    final CriteriaQuery<PendingLogEntry> cq = cb.createQuery(PendingLogEntry.class);
+    final Root<PendingLogEntry> root = cq.from(PendingLogEntry.class);
+    cq.select(root);
+    cq.orderBy(cb.asc(root.get("my_id")));
+    final TypedQuery<PendingLogEntry> query = s.createQuery(cq);
+    query.setMaxResults(the_limit);
+    return query.getResultList();
+  }
+  
+  /**
+   * Obtains, in ID order, the data needed to verify the hash chain for the 
+   * log entries with IDs greater than the specified ID. Each element of the
+   * stream is an array containing the ID, the previous entry's ID (or null),
+   * the result code, the information, the timestamp and the hash of a log 
+   * entry. The rows are read through a database cursor, so the stream must 
+   * be used, and closed, within the same transaction.
+   * 
+   * @param the_id The ID.
+   * @return the stream of rows.
+   * @exception PersistenceException if the query fails.
+   */
+  public static Stream<Object[]> chainAfter(final Long the_id) {
+    final Session s = Persistence.currentSession();
+    final CriteriaBuilder cb = s.getCriteriaBuilder();
+    final CriteriaQuery<Object[]> cq = cb.createQuery(Object[].class);
+    final Root<LogEntry> root = cq.from(LogEntry.class);
+    final Join<LogEntry, LogEntry> previous = root.join("my_previous_entry", JoinType.LEFT);
+    cq.multiselect(root.get("my_id"), previous.get("my_id"), root.get("my_result_code"), 
+                   root.get("my_information"), root.get("my_timestamp"), 
+                   root.get("my_hash"));
+    cq.where(cb.gt(root.get("my_id"), the_id));
+    cq.orderBy(cb.asc(root.get("my_id")));
+    final Query<Object[]> query = s.createQuery(cq);
+    query.setFetchSize(CHAIN_FETCH_SIZE);
+    query.setReadOnly(true);
+    return query.stream();
+  }
 }
@@ -0,0 +1,102 @@
+/*
+ * Free & Fair Colorado RLA System
+ *
+ * @title ColoradoRLA
+ * @created Oct 18, 2026
+ * @copyright 2017 Colorado Department of State
+ * @license SPDX-License-Identifier: AGPL-3.0-or-later
+ * @creator agent <agent@local>
+ * @description A system to assist in conducting statewide risk-limiting audits.
+ */
+
+package us.freeandfair.corla.asm;
+
+import java.util.HashSet;
+import java.util.Set;
+
+import org.testng.annotations.Test;
+import static org.testng.Assert.*;
+
+import us.freeandfair.corla.asm.ASMEvent.CountyDashboardEvent;
+import us.freeandfair.corla.asm.ASMState.DoSDashboardState;
+
+/**
+ * A test case for ASMTransitionTable, which checks that the compiled
+ * transition tables of the dashboard ASMs agree with their transition
+ * functions in every state.
+ *
+ * @author agent <agent@local>
+ * @version 1.0.0
+ */
+// TestNG classes do not need constructors
+@SuppressWarnings("PMD.AtLeastOneConstructor")
+public class ASMTransitionTableTest {
+  /**
+   * Checks the County Dashboard ASM.
+   */
+  @Test()
+  public void testCountyDashboardASM() {
+    checkASM(new CountyDashboardASM("1"));
+  }
+
+  /**
+   * Checks the Department of State Dashboard ASM.
+   */
+  @Test()
+  public void testDoSDashboardASM() {
+    checkASM(new DoSDashboardASM());
+  }
+
+  /**
+   * Checks the Audit Board Dashboard ASM.
+   */
+  @Test()
+  public void testAuditBoardDashboardASM() {
+    checkASM(new AuditBoardDashboardASM("1"));
+  }
+
+  /**
+   * Checks that states and events of another ASM are not enabled.
+   */
+  @Test()
+  public void testForeignStatesAndEvents() {
+    final AbstractStateMachine asm = new CountyDashboardASM("1");
+    asm.setCurrentState(DoSDashboardState.DOS_INITIAL_STATE);
+    assertTrue(asm.enabledASMEvents().isEmpty());
+    assertTrue(asm.enabledUIEvents().isEmpty());
+    assertNull(new DoSDashboardASM().my_transition_table.
+               nextState(DoSDashboardState.DOS_INITIAL_STATE,
+                         CountyDashboardEvent.IMPORT_CVRS_EVENT));
+  }
+
+  /**
+   * Checks the enabled events and next states of an ASM in each of its
+   * states against a search of its transition function.
+   *
+   * @param the_asm The ASM.
+   */
+  private void checkASM(final AbstractStateMachine the_asm) {
+    final UIToASMEventRelation relation = new UIToASMEventRelation();
+    for (final ASMState state : the_asm.my_states) {
+      the_asm.setCurrentState(state);
+      final Set<ASMEvent> asm_events = new HashSet<>();
+      final Set<UIEvent> ui_events = new HashSet<>();
+      for (final ASMTransition t : the_asm.my_transition_function) {
+        if (t.startStates().contains(state)) {
+          asm_events.addAll(t.events());
+          for (final ASMEvent e : t.events()) {
+            ui_events.addAll(relation.leftArrow(e));
+            assertEquals(the_asm.my_transition_table.nextState(state, e), t.endState());
+          }
+        }
+      }
+      assertEquals(the_asm.enabledASMEvents(), asm_events);
+      assertEquals(the_asm.enabledUIEvents(), ui_events);
+      for (final ASMEvent e : the_asm.my_events) {
+        if (!asm_events.contains(e)) {
+          assertNull(the_asm.my_transition_table.nextState(state, e));
+        }
+      }
+    }
+  }
+}
@@ -0,0 +1,122 @@
+/*
+ * Free & Fair Colorado RLA System
+ *
+ * @title ColoradoRLA
+ * @created Oct 18, 2026
+ * @copyright 2017 Colorado Department of State
+ * @license SPDX-License-Identifier: AGPL-3.0-or-later
+ * @creator agent <agent@local>
+ * @description A system to assist in conducting statewide risk-limiting audits.
+ */
+
+package us.freeandfair.corla.asm;
+
+import org.testng.annotations.Test;
+import static org.testng.Assert.*;
+
+/**
+ * A test case for ASMUtilities, which checks that an ASM initialized from
+ * a cached state that has gone stale cannot be saved over a newer state.
+ * The transactions are simulated: a commit that has not yet reached the
+ * cache is a persistent state with a newer version than the cached one.
+ *
+ * @author agent <agent@local>
+ * @version 1.0.0
+ */
+// TestNG classes do not need constructors
+@SuppressWarnings("PMD.AtLeastOneConstructor")
+public class ASMUtilitiesTest {
+  /**
+   * Two transactions read the same cached state and step the ASM; the
+   * first to commit wins, and the other is rejected when it saves, until
+   * it reads the committed state.
+   */
+  @Test()
+  public void testRacingTransitions() {
+    final String identity = "race";
+    final CountyDashboardASM initial = new CountyDashboardASM(identity);
+    ASMStateCache.loaded(new VersionedState(initial, 0L));
+
+    // both transactions read the ASM from the cache
+    final CountyDashboardASM first =
+        ASMUtilities.asmFor(CountyDashboardASM.class, identity);
+    final CountyDashboardASM second =
+        ASMUtilities.asmFor(CountyDashboardASM.class, identity);
+    assertEquals(first.currentState(), initial.currentState());
+    assertEquals(first.cachedVersion(), Long.valueOf(0L));
+    final ASMEvent event = first.enabledASMEvents().iterator().next();
+    first.stepEvent(event);
+    second.stepEvent(event);
+
+    // the first transaction saves and commits, but the commit has not yet
+    // reached the cache, so a third transaction still reads the old state
+    final VersionedState before = new VersionedState(initial, 0L);
+    assertTrue(ASMUtilities.isCurrent(first, before));
+    final VersionedState committed = new VersionedState(first, 1L);
+    final CountyDashboardASM third =
+        ASMUtilities.asmFor(CountyDashboardASM.class, identity);
+    assertEquals(third.currentState(), initial.currentState());
+
+    // the second transaction and the third one would overwrite the first
+    // one's state, so they are rejected
+    assertFalse(ASMUtilities.isCurrent(second, committed));
+    assertFalse(ASMUtilities.isCurrent(third, committed));
+
+    // once the commit reaches the cache, the committed state is read, and
+    // an older state arriving later does not replace it
+    ASMStateCache.loaded(committed);
+    ASMStateCache.loaded(before);
+    final CountyDashboardASM fourth =
+        ASMUtilities.asmFor(CountyDashboardASM.class, identity);
+    assertEquals(fourth.currentState(), first.currentState());
+    assertTrue(ASMUtilities.isCurrent(fourth, committed));
+  }
+
+  /**
+   * An ASM that was not initialized from the cache is checked by the
+   * database's own version check instead, so it is always current.
+   */
+  @Test()
+  public void testUncachedASM() {
+    final CountyDashboardASM asm = new CountyDashboardASM("uncached");
+    assertNull(asm.cachedVersion());
+    assertTrue(ASMUtilities.isCurrent(asm, new VersionedState(asm, 1L)));
+  }
+
+  /**
+   * A persistent ASM state with a fixed version, as it would be read from
+   * the database.
+   */
+  private static class VersionedState extends PersistentASMState {
+    /**
+     * The serialVersionUID.
+     */
+    private static final long serialVersionUID = 1L;
+
+    /**
+     * The version.
+     */
+    private final Long my_fixed_version;
+
+    /**
+     * Constructs a persistent state for the current state of an ASM.
+     *
+     * @param the_asm The ASM.
+     * @param the_version The version.
+     */
+    VersionedState(final AbstractStateMachine the_asm, final Long the_version) {
+      super(the_asm.getClass().getName(), the_asm.identity(),
+            the_asm.currentState().getClass().getName(),
+            ((Enum<?>) the_asm.currentState()).name());
+      my_fixed_version = the_version;
+    }
+
+    /**
+     * @return the version.
+     */
+    @Override
+    public Long version() {
+      return my_fixed_version;
+    }
+  }
+}
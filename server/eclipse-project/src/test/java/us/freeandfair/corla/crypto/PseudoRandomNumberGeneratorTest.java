@@ -11,6 +11,10 @@
 
 package us.freeandfair.corla.crypto;
 
+import java.math.BigInteger;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
 import java.util.Arrays;
 import java.util.List;
 
@@ -42,4 +46,51 @@ public class PseudoRandomNumberGeneratorTest {
         537, 197);
     Assert.assertEquals(numbers, expected);
   }
+  
+  /**
+   * A test case that checks that cached generators produce the same sequence,
+   * regardless of the order in which ranges are requested.
+   */
+  @Test()
+  public void testCachedGenerator() {
+    final String seed = "3546311556112163624615351222";
+    final PseudoRandomNumberGenerator gen =
+        new PseudoRandomNumberGenerator(seed, true, 0, 875);
+    final List<Integer> expected = gen.getRandomNumbers(0, 199);
+    final PseudoRandomNumberGenerator cached = 
+        PseudoRandomNumberGenerator.generatorFor(seed, true, 0, 875);
+    Assert.assertSame(PseudoRandomNumberGenerator.generatorFor(seed, true, 0, 875), 
+                      cached);
+    Assert.assertEquals(cached.getRandomNumbers(50, 149), expected.subList(50, 150));
+    Assert.assertEquals(cached.getRandomNumbers(0, 199), expected);
+  }
+  
+  /**
+   * A test case that checks the generator against a straightforward 
+   * <code>BigInteger</code> implementation of the same scheme, over 
+   * several ranges and millions of indices.
+   * 
+   * @exception NoSuchAlgorithmException if SHA-256 is not available.
+   */
+  @Test()
+  public void testEquivalenceWithBigIntegerReduction() 
+      throws NoSuchAlgorithmException {
+    final String seed = "01234567890123456789";
+    final int[] maxima = {1, 876, 65_535, 400_000, Integer.MAX_VALUE - 1};
+    final int[] counts = {10_000, 10_000, 100_000, 2_000_000, 100_000};
+    final MessageDigest digest = MessageDigest.getInstance("SHA-256");
+    for (int m = 0; m < maxima.length; m++) {
+      final PseudoRandomNumberGenerator gen = 
+          new PseudoRandomNumberGenerator(seed, true, 0, maxima[m]);
+      final List<Integer> numbers = gen.getRandomNumbers(0, counts[m] - 1);
+      final BigInteger modulus = BigInteger.valueOf((long) maxima[m] + 1);
+      for (int i = 0; i < counts[m]; i++) {
+        final byte[] hash = 
+            digest.digest((seed + "," + (i + 1)).getBytes(StandardCharsets.UTF_8));
+        final int expected = new BigInteger(1, hash).mod(modulus).intValueExact();
+        Assert.assertEquals(numbers.get(i).intValue(), expected, 
+                            "range " + maxima[m] + ", index " + i);
+      }
+    }
+  }
 }
@@ -0,0 +1,83 @@
+/*
+ * Free & Fair Colorado RLA System
+ *
+ * @title ColoradoRLA
+ * @created Oct 18, 2026
+ * @copyright 2017 Colorado Department of State
+ * @license SPDX-License-Identifier: AGPL-3.0-or-later
+ * @creator agent <agent@local>
+ * @description A system to assist in conducting statewide risk-limiting audits.
+ */
+
+package us.freeandfair.corla.csv;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import org.testng.annotations.Test;
+import static org.testng.Assert.*;
+
+import us.freeandfair.corla.model.CVRContestInfo;
+import us.freeandfair.corla.model.CastVoteRecord;
+import us.freeandfair.corla.model.CastVoteRecord.RecordType;
+import us.freeandfair.corla.model.Choice;
+import us.freeandfair.corla.model.Contest;
+import us.freeandfair.corla.model.County;
+
+/**
+ * A test case for CVRCopyLoader, which checks the COPY text it generates
+ * for cast vote records and their contest information.
+ *
+ * @author agent <agent@local>
+ * @version 1.0.0
+ */
+// TestNG classes do not need constructors
+@SuppressWarnings({"PMD.AtLeastOneConstructor", "checkstyle:magicnumber"})
+public class CVRCopyLoaderTest {
+  /**
+   * Checks the rows for a CVR with no contest information and null
+   * optional fields.
+   */
+  @Test()
+  public void testNullFields() {
+    final CVRCopyLoader loader = new CVRCopyLoader();
+    final CastVoteRecord cvr = 
+        new CastVoteRecord(RecordType.UPLOADED, null, 3L, 7, null, 1, 2, 4, 
+                           null, null, Collections.emptyList());
+    cvr.setID(11L);
+    loader.add(cvr);
+    assertEquals(loader.cvrRows(), "11\t0\tUPLOADED\t\\N\t3\t7\t\\N\t1\t2\t4\t\\N\t\\N\n");
+    assertEquals(loader.contestInfoRows(), "");
+  }
+
+  /**
+   * Checks the rows for CVRs with contest information, including values 
+   * that need escaping.
+   */
+  @Test()
+  public void testContestInfo() {
+    final Contest contest = 
+        new Contest("Mayor", new County("Test", 3L), "", 
+                    Arrays.asList(new Choice("A", "", false, false),
+                                  new Choice("B\tC", "", false, false)), 1, 1, 0);
+    contest.setID(5L);
+    final List<CVRContestInfo> info = new ArrayList<>();
+    info.add(new CVRContestInfo(contest, "a\\b\nc", null, Arrays.asList("A")));
+    info.add(new CVRContestInfo(contest, null, null, Arrays.asList("B\tC")));
+    final Instant timestamp = Instant.parse("2017-10-18T12:00:00Z");
+    final CastVoteRecord cvr = 
+        new CastVoteRecord(RecordType.UPLOADED, timestamp, 3L, 8, 0, 1, 2, 5, 
+                           "1-2-5", "Ballot\t1", info);
+    cvr.setID(12L);
+    final CVRCopyLoader loader = new CVRCopyLoader();
+    loader.add(cvr);
+    assertEquals(loader.cvrRows(), "12\t0\tUPLOADED\t2017-10-18T12:00:00Z\t3\t8\t0\t1\t2\t5" +
+                                   "\t1-2-5\tBallot\\t1\n");
+    assertEquals(loader.contestInfoRows(), 
+                 "12\t0\t5\ta\\\\b\\nc\t\\N\t[\"A\"]\n" + 
+                 "12\t1\t5\t\\N\t\\N\t[\"B\\\\tC\"]\n");
+  }
+}
@@ -0,0 +1,193 @@
+/*
+ * Free & Fair Colorado RLA System
+ *
+ * @title ColoradoRLA
+ * @created Oct 18, 2026
+ * @copyright 2017 Colorado Department of State
+ * @license SPDX-License-Identifier: AGPL-3.0-or-later
+ * @creator agent <agent@local>
+ * @description A system to assist in conducting statewide risk-limiting audits.
+ */
+
+package us.freeandfair.corla.csv;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.function.BiFunction;
+
+import org.apache.commons.csv.CSVFormat;
+import org.apache.commons.csv.CSVParser;
+import org.apache.commons.csv.CSVRecord;
+import org.testng.annotations.Test;
+import static org.testng.Assert.*;
+
+import us.freeandfair.corla.model.CastVoteRecord;
+import us.freeandfair.corla.model.CastVoteRecord.RecordType;
+
+/**
+ * A test case for CVRImportPipeline, which checks that the pipeline 
+ * delivers the CVRs of well-formed files in order, stops at a malformed
+ * line, and rethrows failures of its worker threads rather than leaving
+ * the writer waiting.
+ *
+ * @author agent <agent@local>
+ * @version 1.0.0
+ */
+// TestNG classes do not need constructors
+@SuppressWarnings({"PMD.AtLeastOneConstructor", "checkstyle:magicnumber"})
+public class CVRImportPipelineTest {
+  /**
+   * The timeout for each test, in milliseconds; a test that hangs has 
+   * failed.
+   */
+  private static final long TIMEOUT = 10000;
+
+  /**
+   * The lines used by the tests.
+   */
+  private static final String LINES = "1,a\n2,b\n3,c\n4,d\n5,e\n";
+
+  /**
+   * Checks that all the CVRs of a well-formed file are delivered and
+   * tallied in order, with consecutive sequence numbers.
+   * 
+   * @throws IOException never.
+   */
+  @Test(timeOut = TIMEOUT)
+  public void testWellFormed() throws IOException {
+    final List<CastVoteRecord> tallied = new ArrayList<>();
+    final CVRImportPipeline pipeline = 
+        new CVRImportPipeline("test", records(LINES), 10, CVRImportPipelineTest::cvrFor,
+                              tallied::add, 2);
+    final List<CastVoteRecord> taken = drain(pipeline);
+    assertEquals(taken.size(), 5);
+    assertEquals(taken, tallied);
+    for (int i = 0; i < taken.size(); i++) {
+      assertEquals(taken.get(i).cvrNumber().intValue(), i + 1);
+      assertEquals(taken.get(i).sequenceNumber().intValue(), 10 + i);
+    }
+  }
+
+  /**
+   * Checks that the pipeline stops at a malformed line and delivers it 
+   * after the CVRs of the lines before it.
+   * 
+   * @throws IOException never.
+   */
+  @Test(timeOut = TIMEOUT)
+  public void testMalformedLine() throws IOException {
+    final CVRImportPipeline pipeline = 
+        new CVRImportPipeline("test", records("1,a\n2,b\nx\n4,d\n"), 0, 
+                              CVRImportPipelineTest::cvrFor, cvr -> { }, 1);
+    pipeline.start();
+    try {
+      assertEquals(pipeline.take().cvr().cvrNumber().intValue(), 1);
+      assertEquals(pipeline.take().cvr().cvrNumber().intValue(), 2);
+      final CVRImportPipeline.Item malformed = pipeline.take();
+      assertNull(malformed.cvr());
+      assertEquals(malformed.line().get(0), "x");
+    } finally {
+      pipeline.stop();
+    }
+  }
+
+  /**
+   * Checks that an error in the extractor thread is rethrown to the writer.
+   * 
+   * @throws IOException never.
+   */
+  @Test(timeOut = TIMEOUT, expectedExceptions = StackOverflowError.class)
+  public void testExtractorError() throws IOException {
+    final BiFunction<CSVRecord, Integer, CastVoteRecord> extractor = (line, number) -> {
+      if ("3".equals(line.get(0))) {
+        throw new StackOverflowError();
+      }
+      return cvrFor(line, number);
+    };
+    drain(new CVRImportPipeline("test", records(LINES), 0, extractor, cvr -> { }, 1));
+  }
+
+  /**
+   * Checks that an exception in the tally is rethrown to the writer.
+   * 
+   * @throws IOException never.
+   */
+  @Test(timeOut = TIMEOUT, expectedExceptions = IllegalArgumentException.class)
+  public void testTallyException() throws IOException {
+    drain(new CVRImportPipeline("test", records(LINES), 0, CVRImportPipelineTest::cvrFor, 
+                                cvr -> {
+                                  throw new IllegalArgumentException();
+                                }, 1));
+  }
+
+  /**
+   * Checks that a failure in the tokenizer thread is rethrown to the writer.
+   */
+  @Test(timeOut = TIMEOUT, expectedExceptions = LinkageError.class)
+  public void testTokenizerError() {
+    final Iterator<CSVRecord> failing = new Iterator<CSVRecord>() {
+      @Override
+      public boolean hasNext() {
+        return true;
+      }
+
+      @Override
+      public CSVRecord next() {
+        throw new LinkageError();
+      }
+    };
+    drain(new CVRImportPipeline("test", failing, 0, CVRImportPipelineTest::cvrFor, 
+                                cvr -> { }, 1));
+  }
+
+  /**
+   * Runs a pipeline to the end of its file.
+   * 
+   * @param the_pipeline The pipeline.
+   * @return the CVRs taken from the pipeline.
+   */
+  private static List<CastVoteRecord> drain(final CVRImportPipeline the_pipeline) {
+    final List<CastVoteRecord> result = new ArrayList<>();
+    the_pipeline.start();
+    try {
+      CVRImportPipeline.Item item = the_pipeline.take();
+      while (item.cvr() != null) {
+        result.add(item.cvr());
+        item = the_pipeline.take();
+      }
+      assertNull(item.line());
+    } finally {
+      the_pipeline.stop();
+    }
+    return result;
+  }
+
+  /**
+   * @param the_lines Some CSV lines.
+   * @return an iterator over the lines.
+   * @throws IOException never.
+   */
+  private static Iterator<CSVRecord> records(final String the_lines) throws IOException {
+    return CSVParser.parse(the_lines, CSVFormat.DEFAULT).iterator();
+  }
+
+  /**
+   * Extracts a CVR from a line whose first field is its CVR number.
+   * 
+   * @param the_line The line.
+   * @param the_sequence_number The sequence number.
+   * @return the CVR, or null if the line is malformed.
+   */
+  private static CastVoteRecord cvrFor(final CSVRecord the_line,
+                                       final Integer the_sequence_number) {
+    CastVoteRecord result = null;
+    if (the_line.size() == 2) {
+      result = new CastVoteRecord(RecordType.UPLOADED, null, 1L, 
+                                  Integer.valueOf(the_line.get(0)), the_sequence_number,
+                                  1, 1, the_sequence_number, null, null, new ArrayList<>());
+    }
+    return result;
+  }
+}
@@ -0,0 +1,164 @@
+/*
+ * Free & Fair Colorado RLA System
+ *
+ * @title ColoradoRLA
+ * @created Oct 18, 2026
+ * @copyright 2017 Colorado Department of State
+ * @license SPDX-License-Identifier: AGPL-3.0-or-later
+ * @creator agent <agent@local>
+ * @description A system to assist in conducting statewide risk-limiting audits.
+ */
+
+package us.freeandfair.corla.model;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import org.testng.annotations.Test;
+import static org.testng.Assert.*;
+
+/**
+ * A test case for CVRImportCheckpoint, which checks that resuming from a
+ * checkpoint restores the tallies of the CVRs imported when it was taken.
+ *
+ * @author agent <agent@local>
+ * @version 1.0.0
+ */
+// TestNG classes do not need constructors
+@SuppressWarnings({"PMD.AtLeastOneConstructor", "checkstyle:magicnumber"})
+public class CVRImportCheckpointTest {
+  /**
+   * The county used by the tests.
+   */
+  private static final County COUNTY = new County("Test", 1L);
+
+  /**
+   * Checks that a checkpoint taken partway through an import restores the
+   * tallies at that point, and not those of the ballots added after it.
+   */
+  @Test()
+  public void testResume() {
+    final Contest mayor = contest("Mayor", "A", "B", "C");
+    final Contest measure = contest("Measure", "Yes", "No");
+    final List<CountyContestResult> results = 
+        Arrays.asList(new CountyContestResult(COUNTY, mayor), 
+                      new CountyContestResult(COUNTY, measure));
+    final CVRImportCheckpoint checkpoint = new CVRImportCheckpoint(1L, 2L);
+
+    // the first commit has its results updated before the checkpoint
+    addBallot(results, mayor, "A");
+    addBallot(results, measure, "No");
+    results.get(0).updateResults();
+    results.get(1).updateResults();
+    // the second commit has ballots pending in the tallies
+    addBallot(results, mayor, "A", "C");
+    addBallot(results, null, null);
+    addBallot(results, mayor, "B");
+    checkpoint.update(5, 500L, results);
+    // ballots added after the checkpoint are not committed
+    addBallot(results, measure, "Yes");
+    
+    assertEquals(checkpoint.recordCount().intValue(), 5);
+    assertEquals(checkpoint.characterPosition().longValue(), 500L);
+
+    final CountyContestResult mayor_restored = new CountyContestResult(COUNTY, mayor);
+    final CountyContestResult measure_restored = new CountyContestResult(COUNTY, measure);
+    checkpoint.restore(mayor_restored);
+    checkpoint.restore(measure_restored);
+    
+    assertEquals(mayor_restored.voteTotals().get("A").intValue(), 2);
+    assertEquals(mayor_restored.voteTotals().get("B").intValue(), 1);
+    assertEquals(mayor_restored.voteTotals().get("C").intValue(), 1);
+    assertEquals(mayor_restored.contestBallotCount().intValue(), 3);
+    assertEquals(mayor_restored.countyBallotCount().intValue(), 5);
+    assertEquals(measure_restored.voteTotals().get("Yes").intValue(), 0);
+    assertEquals(measure_restored.voteTotals().get("No").intValue(), 1);
+    assertEquals(measure_restored.contestBallotCount().intValue(), 1);
+    assertEquals(measure_restored.countyBallotCount().intValue(), 5);
+  }
+
+  /**
+   * Checks that a checkpoint updated after more ballots have been tallied
+   * records the snapshot taken at its record count, and that the snapshot
+   * is used only once.
+   */
+  @Test()
+  public void testSnapshot() {
+    final Contest mayor = contest("Mayor", "A", "B");
+    final List<CountyContestResult> results =
+        Arrays.asList(new CountyContestResult(COUNTY, mayor));
+    final CVRImportCheckpoint checkpoint = new CVRImportCheckpoint(1L, 2L);
+
+    addBallot(results, mayor, "A");
+    addBallot(results, mayor, "B");
+    checkpoint.snapshot(2, results);
+    // the tallies run ahead of the commit at 2 ballots
+    addBallot(results, mayor, "A");
+    checkpoint.update(2, 200L, results);
+
+    CountyContestResult restored = new CountyContestResult(COUNTY, mayor);
+    checkpoint.restore(restored);
+    assertEquals(restored.voteTotals().get("A").intValue(), 1);
+    assertEquals(restored.voteTotals().get("B").intValue(), 1);
+    assertEquals(restored.contestBallotCount().intValue(), 2);
+
+    // without a snapshot, the current tallies are recorded
+    checkpoint.update(3, 300L, results);
+    restored = new CountyContestResult(COUNTY, mayor);
+    checkpoint.restore(restored);
+    assertEquals(restored.voteTotals().get("A").intValue(), 2);
+    assertEquals(restored.contestBallotCount().intValue(), 3);
+    assertEquals(restored.countyBallotCount().intValue(), 3);
+  }
+
+  /**
+   * Checks that a checkpoint restores zero tallies for a contest it does not
+   * record.
+   */
+  @Test()
+  public void testUnknownContest() {
+    final CVRImportCheckpoint checkpoint = new CVRImportCheckpoint(1L, 2L);
+    checkpoint.update(0, -1L, new ArrayList<>());
+    final CountyContestResult result = 
+        new CountyContestResult(COUNTY, contest("Mayor", "A", "B"));
+    checkpoint.restore(result);
+    assertEquals(result.voteTotals().get("A").intValue(), 0);
+    assertEquals(result.contestBallotCount().intValue(), 0);
+    assertEquals(result.countyBallotCount().intValue(), 0);
+  }
+
+  /**
+   * Adds a ballot to the results.
+   * 
+   * @param the_results The results.
+   * @param the_contest The contest on the ballot, or null if the ballot has 
+   * no contests.
+   * @param the_choices The choices on the ballot.
+   */
+  private static void addBallot(final List<CountyContestResult> the_results,
+                                final Contest the_contest, final String... the_choices) {
+    for (final CountyContestResult r : the_results) {
+      CVRContestInfo info = null;
+      if (r.contest().equals(the_contest)) {
+        info = new CVRContestInfo(the_contest, null, null, Arrays.asList(the_choices));
+      }
+      r.addBallot(info);
+    }
+  }
+
+  /**
+   * Creates a contest.
+   * 
+   * @param the_name The name.
+   * @param the_choices The choice names.
+   * @return the contest.
+   */
+  private static Contest contest(final String the_name, final String... the_choices) {
+    final List<Choice> choices = new ArrayList<>();
+    for (final String c : the_choices) {
+      choices.add(new Choice(c, "", false, false));
+    }
+    return new Contest(the_name, COUNTY, "", choices, 2, 1, 0);
+  }
+}
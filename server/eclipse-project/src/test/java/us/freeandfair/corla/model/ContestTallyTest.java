@@ -0,0 +1,174 @@
+/*
+ * Free & Fair Colorado RLA System
+ *
+ * @title ColoradoRLA
+ * @created Oct 18, 2026
+ * @copyright 2017 Colorado Department of State
+ * @license SPDX-License-Identifier: AGPL-3.0-or-later
+ * @creator agent <agent@local>
+ * @description A system to assist in conducting statewide risk-limiting audits.
+ */
+
+package us.freeandfair.corla.model;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import org.testng.annotations.Test;
+import static org.testng.Assert.*;
+
+import us.freeandfair.corla.model.CastVoteRecord.RecordType;
+
+/**
+ * A test case for ContestTally, which checks the tallies of random ballots
+ * against the map-based totals that CountyContestResult.addCVR() keeps.
+ *
+ * @author agent <agent@local>
+ * @version 1.0.0
+ */
+// TestNG classes do not need constructors
+@SuppressWarnings({"PMD.AtLeastOneConstructor", "checkstyle:magicnumber"})
+public class ContestTallyTest {
+  /**
+   * The county used by the tests.
+   */
+  private static final County COUNTY = new County("Test", 1L);
+
+  /**
+   * The number of random contests to try.
+   */
+  private static final int CONTESTS = 200;
+
+  /**
+   * Compares tallies built with addBallot() against the map-based totals
+   * built with addCVR() for random contests and ballots, with the choices 
+   * on each ballot in random order.
+   */
+  @Test()
+  public void testAgainstMapTotals() {
+    final Random random = new Random(20261018L);
+    for (int i = 0; i < CONTESTS; i++) {
+      final Contest contest = contest(i, 1 + random.nextInt(10));
+      final CountyContestResult map_based = new CountyContestResult(COUNTY, contest);
+      final CountyContestResult tallied = new CountyContestResult(COUNTY, contest);
+      final ContestTally tally = new ContestTally(contest);
+      final int ballots = random.nextInt(300);
+      for (int b = 0; b < ballots; b++) {
+        final CastVoteRecord cvr = randomCVR(random, contest);
+        map_based.addCVR(cvr);
+        final CVRContestInfo info = cvr.contestInfoForContest(contest);
+        tallied.addBallot(info);
+        tally.addBallot(info);
+      }
+      tallied.updateResults();
+      map_based.updateResults();
+
+      assertEquals(tallied.voteTotals(), map_based.voteTotals());
+      assertEquals(tallied.contestBallotCount(), map_based.contestBallotCount());
+      assertEquals(tallied.countyBallotCount(), map_based.countyBallotCount());
+      assertEquals(tallied.winners(), map_based.winners());
+      assertEquals(tallied.losers(), map_based.losers());
+      final Map<String, Integer> totals = new HashMap<>();
+      for (int c = 0; c < contest.choices().size(); c++) {
+        totals.put(contest.choices().get(c).name(), tally.votes(c));
+      }
+      assertEquals(totals, map_based.voteTotals());
+      assertEquals(tally.countyBallotCount(), ballots);
+    }
+  }
+
+  /**
+   * Checks that the pending tally is included in the current totals but
+   * not in the vote totals until the results are updated, and that it is
+   * combined with ballots added with addCVR().
+   */
+  @Test()
+  public void testPendingTally() {
+    final Contest contest = contest(0, 3);
+    final CountyContestResult result = new CountyContestResult(COUNTY, contest);
+    result.addBallot(new CVRContestInfo(contest, null, null, 
+                                        Collections.singletonList("Choice 1")));
+    result.addBallot(null);
+    result.addCVR(cvr(contest, "Choice 1", "Choice 2"));
+    assertEquals(result.voteTotals().get("Choice 1").intValue(), 1);
+    assertEquals(result.currentVoteTotals().get("Choice 1").intValue(), 2);
+    assertEquals(result.currentContestBallotCount(), 2);
+    result.updateResults();
+    assertEquals(result.voteTotals().get("Choice 1").intValue(), 2);
+    assertEquals(result.voteTotals().get("Choice 2").intValue(), 1);
+    assertEquals(result.contestBallotCount().intValue(), 2);
+    assertEquals(result.countyBallotCount().intValue(), 3);
+  }
+
+  /**
+   * Checks that a choice not in the contest is rejected.
+   */
+  @Test(expectedExceptions = IllegalArgumentException.class)
+  public void testInvalidChoice() {
+    final CVRContestInfo info = 
+        new CVRContestInfo(contest(0, 3), null, null, Collections.singletonList("Choice 3"));
+    new ContestTally(contest(0, 2)).addBallot(info);
+  }
+
+  /**
+   * Creates a random CVR for a contest; the contest is on the CVR with
+   * probability 3/4, and each choice is marked with probability 1/2.
+   * 
+   * @param the_random The random number generator.
+   * @param the_contest The contest.
+   * @return the CVR.
+   */
+  private static CastVoteRecord randomCVR(final Random the_random, 
+                                          final Contest the_contest) {
+    final List<String> choices = new ArrayList<>();
+    for (final Choice c : the_contest.choices()) {
+      if (the_random.nextBoolean()) {
+        choices.add(c.name());
+      }
+    }
+    Collections.shuffle(choices, the_random);
+    CastVoteRecord result = cvr(null);
+    if (the_random.nextInt(4) > 0) {
+      result = cvr(the_contest, choices.toArray(new String[choices.size()]));
+    }
+    return result;
+  }
+
+  /**
+   * Creates a CVR.
+   * 
+   * @param the_contest The contest on the CVR, or null if it has none.
+   * @param the_choices The choices marked for the contest.
+   * @return the CVR.
+   */
+  private static CastVoteRecord cvr(final Contest the_contest, final String... the_choices) {
+    final List<CVRContestInfo> info = new ArrayList<>();
+    if (the_contest != null) {
+      final List<String> choices = new ArrayList<>();
+      Collections.addAll(choices, the_choices);
+      info.add(new CVRContestInfo(the_contest, null, null, choices));
+    }
+    return new CastVoteRecord(RecordType.UPLOADED, null, 1L, 1, 0, 1, 1, 1, 
+                              null, null, info);
+  }
+
+  /**
+   * Creates a contest.
+   * 
+   * @param the_number The number of the contest, used in its name.
+   * @param the_choice_count The number of choices.
+   * @return the contest.
+   */
+  private static Contest contest(final int the_number, final int the_choice_count) {
+    final List<Choice> choices = new ArrayList<>();
+    for (int i = 1; i <= the_choice_count; i++) {
+      choices.add(new Choice("Choice " + i, "", false, false));
+    }
+    return new Contest("Contest " + the_number, COUNTY, "", choices, 
+                       the_choice_count, 1, the_number);
+  }
+}
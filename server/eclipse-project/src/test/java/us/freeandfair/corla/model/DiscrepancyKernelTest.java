@@ -0,0 +1,208 @@
+/*
+ * Free & Fair Colorado RLA System
+ *
+ * @title ColoradoRLA
+ * @created Oct 18, 2026
+ * @copyright 2017 Colorado Department of State
+ * @license SPDX-License-Identifier: AGPL-3.0-or-later
+ * @creator agent <agent@local>
+ * @description A system to assist in conducting statewide risk-limiting audits.
+ */
+
+package us.freeandfair.corla.model;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.OptionalInt;
+import java.util.Random;
+import java.util.Set;
+
+import org.testng.annotations.Test;
+import static org.testng.Assert.*;
+
+/**
+ * A test case for the DiscrepancyKernel, which checks it against the
+ * pairwise discrepancy computation it replaced on random contests and
+ * ballots.
+ *
+ * @author agent <agent@local>
+ * @version 1.0.0
+ */
+// TestNG classes do not need constructors
+@SuppressWarnings({"PMD.AtLeastOneConstructor", "checkstyle:magicnumber"})
+public class DiscrepancyKernelTest {
+  /**
+   * The number of random contests to try.
+   */
+  private static final int CONTESTS = 2000;
+
+  /**
+   * The number of random ballot pairs to try per contest.
+   */
+  private static final int BALLOTS = 50;
+
+  /**
+   * Compares the kernel with the pairwise computation on small contests,
+   * including contests with no losers and ballots with choices that are
+   * neither winners nor losers.
+   */
+  @Test()
+  public void testSmallContests() {
+    final Random random = new Random(20171018L);
+    for (int i = 0; i < CONTESTS; i++) {
+      checkContest(random, 1 + random.nextInt(8));
+    }
+  }
+
+  /**
+   * Compares the kernel with the pairwise computation on contests with too
+   * many choices to assign each of them a bit.
+   */
+  @Test()
+  public void testLargeContests() {
+    final Random random = new Random(20171019L);
+    for (int i = 0; i < CONTESTS / 10; i++) {
+      checkContest(random, 60 + random.nextInt(20));
+    }
+  }
+
+  /**
+   * Checks a random contest with the specified number of choices.
+   *
+   * @param the_random The random number generator.
+   * @param the_choices The number of choices.
+   */
+  private void checkContest(final Random the_random, final int the_choices) {
+    final List<String> choices = new ArrayList<>();
+    for (int i = 0; i < the_choices; i++) {
+      choices.add("choice " + i);
+    }
+    final int winners_allowed = 1 + the_random.nextInt(the_choices);
+    final int votes_allowed = winners_allowed + the_random.nextInt(2);
+    final Set<String> winners = new HashSet<>(choices.subList(0, winners_allowed));
+    final Set<String> losers =
+        new HashSet<>(choices.subList(winners_allowed, the_choices));
+    // ballots may also contain a write-in that is neither winner nor loser
+    choices.add("write-in");
+    final DiscrepancyKernel kernel =
+        new DiscrepancyKernel("contest", votes_allowed, winners, losers);
+    for (int i = 0; i < BALLOTS; i++) {
+      final List<String> cvr = randomBallot(the_random, choices, votes_allowed);
+      List<String> acvr = randomBallot(the_random, choices, votes_allowed + 1);
+      if (the_random.nextInt(4) == 0) {
+        acvr = new ArrayList<>(cvr);
+      }
+      assertEquals(kernel.audited(cvr, acvr),
+                   pairwise(cvr, acvr, votes_allowed, winners, losers),
+                   "cvr " + cvr + ", acvr " + acvr + ", winners " + winners);
+      assertEquals(kernel.phantom(cvr), phantom(cvr, losers));
+    }
+  }
+
+  /**
+   * Generates a random ballot.
+   *
+   * @param the_random The random number generator.
+   * @param the_choices The choices.
+   * @param the_max_votes The maximum number of votes on the ballot.
+   * @return the ballot's choices.
+   */
+  private List<String> randomBallot(final Random the_random,
+                                    final List<String> the_choices,
+                                    final int the_max_votes) {
+    final List<String> result = new ArrayList<>();
+    final int votes = the_random.nextInt(the_max_votes + 1);
+    for (int i = 0; i < votes; i++) {
+      final String choice = the_choices.get(the_random.nextInt(the_choices.size()));
+      if (!result.contains(choice)) {
+        result.add(choice);
+      }
+    }
+    return result;
+  }
+
+  /**
+   * The pairwise discrepancy computation formerly used by
+   * CountyContestComparisonAudit.
+   *
+   * @param the_cvr The CVR choices.
+   * @param the_acvr The ACVR choices.
+   * @param the_votes_allowed The votes allowed.
+   * @param the_winners The winners.
+   * @param the_losers The losers.
+   * @return the discrepancy.
+   */
+  @SuppressWarnings("PMD.CyclomaticComplexity")
+  private OptionalInt pairwise(final List<String> the_cvr, final List<String> the_acvr,
+                               final int the_votes_allowed, final Set<String> the_winners,
+                               final Set<String> the_losers) {
+    final Set<String> acvr_choices = new HashSet<>();
+    if (the_acvr.size() <= the_votes_allowed) {
+      acvr_choices.addAll(the_acvr);
+    }
+    final Set<String> cvr_choices = new HashSet<>(the_cvr);
+    if (cvr_choices.equals(acvr_choices)) {
+      return OptionalInt.empty();
+    }
+    int raw_result = Integer.MIN_VALUE;
+    boolean possible_understatement = true;
+    for (final String winner : the_winners) {
+      final int winner_change = change(winner, cvr_choices, acvr_choices);
+      if (the_losers.isEmpty()) {
+        raw_result = Math.max(raw_result, -winner_change);
+      } else {
+        for (final String loser : the_losers) {
+          final int discrepancy =
+              change(loser, cvr_choices, acvr_choices) - winner_change;
+          raw_result = Math.max(raw_result, discrepancy);
+          if (discrepancy >= 0) {
+            possible_understatement = false;
+          }
+        }
+      }
+    }
+    if (possible_understatement) {
+      return OptionalInt.of(raw_result);
+    } else {
+      return OptionalInt.of(Math.max(0, raw_result));
+    }
+  }
+
+  /**
+   * @param the_choice A choice.
+   * @param the_cvr The CVR choices.
+   * @param the_acvr The ACVR choices.
+   * @return the change in the choice's votes.
+   */
+  private int change(final String the_choice, final Set<String> the_cvr,
+                     final Set<String> the_acvr) {
+    final int result;
+    if (!the_cvr.contains(the_choice) && the_acvr.contains(the_choice)) {
+      result = 1;
+    } else if (the_cvr.contains(the_choice) && !the_acvr.contains(the_choice)) {
+      result = -1;
+    } else {
+      result = 0;
+    }
+    return result;
+  }
+
+  /**
+   * The phantom ballot discrepancy computation formerly used by
+   * CountyContestComparisonAudit.
+   *
+   * @param the_cvr The CVR choices.
+   * @param the_losers The losers.
+   * @return the discrepancy.
+   */
+  private int phantom(final List<String> the_cvr, final Set<String> the_losers) {
+    final Set<String> winner_votes = new HashSet<>(the_cvr);
+    winner_votes.removeAll(the_losers);
+    if (winner_votes.isEmpty()) {
+      return 1;
+    } else {
+      return 2;
+    }
+  }
+}
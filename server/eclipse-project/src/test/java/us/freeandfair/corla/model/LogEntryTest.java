@@ -0,0 +1,53 @@
+/*
+ * Free & Fair Colorado RLA System
+ *
+ * @title ColoradoRLA
+ * @created Oct 18, 2026
+ * @copyright 2017 Colorado Department of State
+ * @license SPDX-License-Identifier: AGPL-3.0-or-later
+ * @creator agent <agent@local>
+ * @description A system to assist in conducting statewide risk-limiting audits.
+ */
+
+package us.freeandfair.corla.model;
+
+import java.time.Instant;
+
+import org.testng.annotations.Test;
+import static org.testng.Assert.*;
+
+/**
+ * A test case for LogEntry, which checks that the hashes recomputed by log
+ * verification agree with the hashes of constructed log entries.
+ *
+ * @author agent <agent@local>
+ * @version 1.0.0
+ */
+// TestNG classes do not need constructors
+@SuppressWarnings({"PMD.AtLeastOneConstructor", "checkstyle:magicnumber"})
+public class LogEntryTest {
+  /**
+   * The number of entries to chain.
+   */
+  private static final int ENTRIES = 100;
+
+  /**
+   * Chains log entries, and recomputes their hashes from their hash
+   * strings and the hashes of the entries before them.
+   */
+  @Test()
+  public void testChainHash() {
+    LogEntry previous = null;
+    String previous_hash = LogEntry.ROOT_HASH;
+    for (int i = 0; i < ENTRIES; i++) {
+      final LogEntry entry = 
+          new LogEntry(200 + i % 3, "/endpoint-" + i, "admin", "localhost",
+                       Instant.ofEpochSecond(1508457600L + i), previous);
+      assertEquals(LogEntry.chainHash(entry.hashString(), previous_hash), entry.hash());
+      assertNotEquals(LogEntry.chainHash(entry.hashString(), LogEntry.ROOT_HASH + "0"),
+                      entry.hash());
+      previous = entry;
+      previous_hash = entry.hash();
+    }
+  }
+}
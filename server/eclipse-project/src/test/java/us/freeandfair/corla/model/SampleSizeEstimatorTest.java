@@ -0,0 +1,121 @@
+/*
+ * Free & Fair Colorado RLA System
+ *
+ * @title ColoradoRLA
+ * @created Oct 18, 2026
+ * @copyright 2017 Colorado Department of State
+ * @license SPDX-License-Identifier: AGPL-3.0-or-later
+ * @creator agent <agent@local>
+ * @description A system to assist in conducting statewide risk-limiting audits.
+ */
+
+package us.freeandfair.corla.model;
+
+import java.math.BigDecimal;
+import java.math.MathContext;
+import java.util.Random;
+
+import org.testng.annotations.Test;
+import static org.testng.Assert.*;
+
+/**
+ * A test case for the SampleSizeEstimator, which checks that its double
+ * precision evaluation always agrees with its exact evaluation.
+ *
+ * @author agent <agent@local>
+ * @version 1.0.0
+ */
+// TestNG classes do not need constructors
+@SuppressWarnings({"PMD.AtLeastOneConstructor", "checkstyle:magicnumber"})
+public class SampleSizeEstimatorTest {
+  /**
+   * The number of random cases to try.
+   */
+  private static final int CASES = 20000;
+
+  /**
+   * Compares the two evaluations on random audits, with margins computed
+   * from vote and ballot counts as they are for real contests.
+   */
+  @Test()
+  public void testRandomAudits() {
+    final Random random = new Random(20171020L);
+    final BigDecimal[] gammas = {
+      CountyContestComparisonAudit.STARK_GAMMA,
+      CountyContestComparisonAudit.COLORADO_GAMMA,
+      BigDecimal.valueOf(1.5)
+    };
+    for (int i = 0; i < CASES; i++) {
+      final BigDecimal gamma = gammas[random.nextInt(gammas.length)];
+      final BigDecimal risk_limit = BigDecimal.valueOf(1 + random.nextInt(20), 2);
+      final int ballots = 100 + random.nextInt(1000000);
+      final BigDecimal margin =
+          BigDecimal.valueOf(1 + random.nextInt(ballots)).
+          divide(BigDecimal.valueOf(ballots), MathContext.DECIMAL128);
+      final int two_under = random.nextInt(3);
+      final int one_under = random.nextInt(5);
+      final int one_over = random.nextInt(5);
+      final int two_over = random.nextInt(3);
+      assertEquals(SampleSizeEstimator.optimistic(gamma, risk_limit, margin, two_under,
+                                                  one_under, one_over, two_over),
+                   SampleSizeEstimator.exact(gamma, risk_limit, margin, two_under,
+                                             one_under, one_over, two_over),
+                   "gamma " + gamma + ", risk limit " + risk_limit + ", margin " + margin);
+    }
+  }
+
+  /**
+   * Compares the ceiling computed in double precision, where possible, with
+   * the DECIMAL128 ceiling on random audits with many discrepancies, whose 
+   * terms cancel in the logarithmic sum so that the size is small compared
+   * to the terms, and on audits whose size is exactly an integer.
+   */
+  @Test()
+  public void testRandomCeilings() {
+    final Random random = new Random(20261018L);
+    for (int i = 0; i < CASES; i++) {
+      final BigDecimal gamma = BigDecimal.valueOf(101 + random.nextInt(400), 2);
+      final BigDecimal risk_limit = BigDecimal.valueOf(1 + random.nextInt(50), 2);
+      final BigDecimal margin = BigDecimal.valueOf(1 + random.nextInt(1000), 3);
+      final int two_under = random.nextInt(100000);
+      final int one_under = random.nextInt(100000);
+      final int one_over = random.nextInt(100000);
+      final int two_over = random.nextInt(100000);
+      assertEquals(SampleSizeEstimator.optimisticCeiling(gamma, risk_limit, margin,
+                                                         two_under, one_under,
+                                                         one_over, two_over),
+                   SampleSizeEstimator.exactCeiling(gamma, risk_limit, margin,
+                                                    two_under, one_under,
+                                                    one_over, two_over),
+                   "gamma " + gamma + ", risk limit " + risk_limit + ", margin " + margin +
+                   ", discrepancies " + two_under + "/" + one_under + "/" + one_over +
+                   "/" + two_over);
+    }
+    // with no discrepancies and a risk limit of about 1 / e^k, the size is 
+    // within rounding error of the integer 2 * gamma * k
+    for (int k = 1; k < 10; k++) {
+      final BigDecimal risk_limit = 
+          BigDecimal.valueOf(Math.exp(-k)).round(MathContext.DECIMAL64);
+      assertEquals(SampleSizeEstimator.optimisticCeiling(BigDecimal.valueOf(2), risk_limit, 
+                                                         BigDecimal.ONE, 0, 0, 0, 0),
+                   SampleSizeEstimator.exactCeiling(BigDecimal.valueOf(2), risk_limit, 
+                                                    BigDecimal.ONE, 0, 0, 0, 0));
+    }
+  }
+
+  /**
+   * Checks that a contest with no losers, whose diluted margin is 1,
+   * gives the same size both ways.
+   */
+  @Test()
+  public void testUnitMargin() {
+    for (int over = 0; over < 10; over++) {
+      assertEquals(SampleSizeEstimator.optimistic(CountyContestComparisonAudit.GAMMA,
+                                                  BigDecimal.valueOf(0.1), BigDecimal.ONE,
+                                                  0, 0, over, 0),
+                   SampleSizeEstimator.exact(CountyContestComparisonAudit.GAMMA,
+                                             BigDecimal.valueOf(0.1), BigDecimal.ONE,
+                                             0, 0, over, 0));
+    }
+  }
+}
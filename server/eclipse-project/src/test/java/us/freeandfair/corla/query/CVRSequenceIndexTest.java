@@ -0,0 +1,158 @@
+/*
+ * Free & Fair Colorado RLA System
+ *
+ * @title ColoradoRLA
+ * @created Oct 18, 2026
+ * @copyright 2017 Colorado Department of State
+ * @license SPDX-License-Identifier: AGPL-3.0-or-later
+ * @creator agent <agent@local>
+ * @description A system to assist in conducting statewide risk-limiting audits.
+ */
+
+package us.freeandfair.corla.query;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+
+import javax.persistence.PersistenceException;
+
+import org.testng.annotations.AfterMethod;
+import org.testng.annotations.Test;
+import static org.testng.Assert.*;
+
+/**
+ * A test case for CVRSequenceIndex, which checks building indexes, looking
+ * up sequence numbers, and rebuilding indexes when the import version 
+ * changes or they are invalidated.
+ *
+ * @author agent <agent@local>
+ * @version 1.0.0
+ */
+// TestNG classes do not need constructors
+@SuppressWarnings({"PMD.AtLeastOneConstructor", "checkstyle:magicnumber"})
+public class CVRSequenceIndexTest {
+  /**
+   * The county ID used by the tests.
+   */
+  private static final Long COUNTY = Long.valueOf(1);
+
+  /**
+   * The initial base of the CVR IDs in the built index.
+   */
+  private static final long ID_BASE = 100;
+
+  /**
+   * The number of times the index has been built.
+   */
+  private final AtomicInteger my_builds = new AtomicInteger();
+
+  /**
+   * The base of the CVR IDs in the built index.
+   */
+  private long my_id_base = ID_BASE;
+
+  /**
+   * Discards the indexes after each test.
+   */
+  @AfterMethod()
+  public void discardIndexes() {
+    CVRSequenceIndex.invalidateAll();
+    my_builds.set(0);
+    my_id_base = ID_BASE;
+  }
+
+  /**
+   * Checks building an index from unordered rows.
+   */
+  @Test()
+  public void testBuildIndex() {
+    final List<Object[]> rows = new ArrayList<>();
+    rows.add(new Object[] {2, 30L});
+    rows.add(new Object[] {0, 10L});
+    rows.add(new Object[] {1, 20L});
+    assertEquals(CVRSequenceIndex.buildIndex(COUNTY, rows), new long[] {10, 20, 30});
+    assertEquals(CVRSequenceIndex.buildIndex(COUNTY, Collections.emptyList()), 
+                 new long[0]);
+  }
+
+  /**
+   * Checks that building an index from non-consecutive sequence numbers
+   * fails.
+   */
+  @Test(expectedExceptions = PersistenceException.class)
+  public void testBuildIndexNonConsecutive() {
+    final List<Object[]> rows = new ArrayList<>();
+    rows.add(new Object[] {0, 10L});
+    rows.add(new Object[] {2, 30L});
+    CVRSequenceIndex.buildIndex(COUNTY, rows);
+  }
+
+  /**
+   * Checks looking up sequence numbers, including repeated ones, and that
+   * the index is only built once for an import version.
+   */
+  @Test()
+  public void testLookup() {
+    assertEquals(CVRSequenceIndex.idsFor(COUNTY, "1@a", Arrays.asList(3, 0, 3), builder()),
+                 Arrays.asList(103L, 100L, 103L));
+    assertEquals(CVRSequenceIndex.idsFor(COUNTY, "1@a", Arrays.asList(4), builder()),
+                 Arrays.asList(104L));
+    assertEquals(my_builds.get(), 1);
+  }
+
+  /**
+   * Checks that looking up an invalid sequence number fails.
+   */
+  @Test(expectedExceptions = IllegalArgumentException.class)
+  public void testLookupOutOfRange() {
+    CVRSequenceIndex.idsFor(COUNTY, "1@a", Arrays.asList(5), builder());
+  }
+
+  /**
+   * Checks that a new import version rebuilds the index, even if the 
+   * number of CVRs is unchanged.
+   */
+  @Test()
+  public void testImportVersionChange() {
+    CVRSequenceIndex.idsFor(COUNTY, "1@a", Arrays.asList(0), builder());
+    my_id_base = 200;
+    assertEquals(CVRSequenceIndex.idsFor(COUNTY, "1@b", Arrays.asList(0), builder()),
+                 Arrays.asList(200L));
+    assertEquals(CVRSequenceIndex.idsFor(COUNTY, "1@b", Arrays.asList(1), builder()),
+                 Arrays.asList(201L));
+    assertEquals(my_builds.get(), 2);
+  }
+
+  /**
+   * Checks that invalidating a county's index rebuilds it, and that 
+   * indexes without an import version are not cached.
+   */
+  @Test()
+  public void testInvalidate() {
+    CVRSequenceIndex.idsFor(COUNTY, "1@a", Arrays.asList(0), builder());
+    CVRSequenceIndex.invalidate(COUNTY);
+    CVRSequenceIndex.idsFor(COUNTY, "1@a", Arrays.asList(0), builder());
+    assertEquals(my_builds.get(), 2);
+    CVRSequenceIndex.idsFor(COUNTY, null, Arrays.asList(0), builder());
+    CVRSequenceIndex.idsFor(COUNTY, null, Arrays.asList(0), builder());
+    assertEquals(my_builds.get(), 4);
+  }
+
+  /**
+   * @return a builder for an index of 5 CVRs, that counts its builds.
+   */
+  private Function<Long, long[]> builder() {
+    return county_id -> {
+      my_builds.incrementAndGet();
+      final long[] result = new long[5];
+      for (int i = 0; i < result.length; i++) {
+        result[i] = my_id_base + i;
+      }
+      return result;
+    };
+  }
+}